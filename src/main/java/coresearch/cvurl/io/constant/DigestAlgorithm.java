@@ -0,0 +1,39 @@
+package coresearch.cvurl.io.constant;
+
+/**
+ * Enumeration of the algorithms used to verify the integrity of downloaded files. Intended for use
+ * with {@link coresearch.cvurl.io.request.Request#resumableDownload(java.nio.file.Path, DigestAlgorithm)}
+ *
+ * @since 1.6
+ */
+public enum DigestAlgorithm {
+
+    /**
+     * The SHA-256 message digest.
+     */
+    SHA_256("SHA-256"),
+
+    /**
+     * The SHA-512 message digest.
+     */
+    SHA_512("SHA-512"),
+
+    /**
+     * The CRC32C checksum, which is much faster to compute but only detects accidental corruption.
+     */
+    CRC32C("CRC32C");
+
+    private final String name;
+
+    DigestAlgorithm(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the name of the algorithm, which is also its token in the {@code Digest}
+     * and {@code Repr-Digest} headers compared case-insensitively.
+     */
+    public String getName() {
+        return name;
+    }
+}
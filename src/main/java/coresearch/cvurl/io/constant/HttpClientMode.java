@@ -8,8 +8,9 @@ package coresearch.cvurl.io.constant;
 public enum HttpClientMode {
 
     /**
-     * The client mode that can be used to create one instance of the {@link coresearch.cvurl.io.model.HttpClient} class
-     * for all {@link coresearch.cvurl.io.model.CVurlConfig} instances.
+     * The client mode that can be used to share one instance of the {@link java.net.http.HttpClient} class
+     * among all {@link coresearch.cvurl.io.model.CVurlConfig} instances with the same client settings.
+     * The clients are kept in the {@link coresearch.cvurl.io.model.HttpClientRegistry#shared()} registry.
      */
     SINGLETON,
 
@@ -17,5 +18,14 @@ public enum HttpClientMode {
      * The client mode that can be used to create a separate instance of the {@link coresearch.cvurl.io.model.HttpClient} class
      * for all {@link coresearch.cvurl.io.model.CVurlConfig} instances.
      */
-    PROTOTYPE
+    PROTOTYPE,
+
+    /**
+     * The client mode that can be used to create several identically configured instances of the
+     * {@link java.net.http.HttpClient} class for every {@link coresearch.cvurl.io.model.CVurlConfig} instance,
+     * each with its own selector thread, and dispatch the requests among them according to a {@link ShardSelection}.
+     *
+     * @since 1.6
+     */
+    SHARDED
 }
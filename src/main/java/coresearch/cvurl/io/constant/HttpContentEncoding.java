@@ -12,6 +12,12 @@ public final class HttpContentEncoding {
     /** The HTTP {@code gzip} content encoding. */
     public static final String GZIP = "gzip";
 
+    /** The HTTP {@code deflate} content encoding. */
+    public static final String DEFLATE = "deflate";
+
+    /** The HTTP {@code identity} content encoding. */
+    public static final String IDENTITY = "identity";
+
     private HttpContentEncoding() {
         throw new IllegalStateException(format("The creation of the %s class is prohibited", HttpHeader.class.getName()));
     }
@@ -75,6 +75,9 @@ public final class HttpHeader {
     /** The HTTP {@code Destination} header name. */
     public static final String DESTINATION = "Destination";
 
+    /** The HTTP {@code Digest} header name defined by RFC 3230. */
+    public static final String DIGEST = "Digest";
+
     /** The HTTP {@code ETag} header name. */
     public static final String ETAG = "ETag";
 
@@ -108,6 +111,9 @@ public final class HttpHeader {
     /** The HTTP {@code If-Unmodified-Since} header name. */
     public static final String IF_UNMODIFIED_SINCE = "If-Unmodified-Since";
 
+    /** The HTTP {@code Last-Event-ID} header name used by Server-Sent Events. */
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
     /** The HTTP {@code Last-Modified} header name. */
     public static final String LAST_MODIFIED = "Last-Modified";
 
@@ -138,6 +144,9 @@ public final class HttpHeader {
     /** The HTTP {@code Referer} header name. */
     public static final String REFERER = "Referer";
 
+    /** The HTTP {@code Repr-Digest} header name defined by RFC 9530. */
+    public static final String REPR_DIGEST = "Repr-Digest";
+
     /** The HTTP {@code Retry-After} header name. */
     public static final String RETRY_AFTER = "Retry-After";
 
@@ -159,9 +168,21 @@ public final class HttpHeader {
     /** The HTTP {@code Transfer-Encoding} header name. */
     public static final String TRANSFER_ENCODING = "Transfer-Encoding";
 
+    /** The HTTP {@code Tus-Resumable} header name defined by the tus resumable upload protocol. */
+    public static final String TUS_RESUMABLE = "Tus-Resumable";
+
     /** The HTTP {@code Upgrade} header name. */
     public static final String UPGRADE = "Upgrade";
 
+    /** The HTTP {@code Upload-Concat} header name defined by the tus resumable upload protocol. */
+    public static final String UPLOAD_CONCAT = "Upload-Concat";
+
+    /** The HTTP {@code Upload-Length} header name defined by the tus resumable upload protocol. */
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+
+    /** The HTTP {@code Upload-Offset} header name defined by the tus resumable upload protocol. */
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+
     /** The HTTP {@code User-Agent} header name. */
     public static final String USER_AGENT = "User-Agent";
 
@@ -86,6 +86,10 @@ public final class HttpStatus {
      * <tt>307 Temporary Redirect</tt>
      */
     public static final int TEMPORARY_REDIRECT = 307;
+    /**
+     * <tt>308 Permanent Redirect</tt>
+     */
+    public static final int PERMANENT_REDIRECT = 308;
 
     // --- 4xx Client Error ---
     /**
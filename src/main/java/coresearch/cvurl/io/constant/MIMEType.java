@@ -15,6 +15,9 @@ public final class MIMEType {
     /** The HTTP {@code application/octet-stream} media type. */
     public static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
 
+    /** The {@code application/offset+octet-stream} media type of the chunks uploaded with the tus protocol. */
+    public static final String APPLICATION_OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
     /** The HTTP {@code application/javascript} media type. */
     public static final String APPLICATION_JS = "application/javascript";
 
@@ -39,6 +42,9 @@ public final class MIMEType {
     /** The HTTP {@code text/css} media type. */
     public static final String TEXT_CSS = "text/css";
 
+    /** The HTTP {@code text/event-stream} media type. */
+    public static final String TEXT_EVENT_STREAM = "text/event-stream";
+
     /** The HTTP {@code text/html} media type. */
     public static final String TEXT_HTML = "text/html";
 
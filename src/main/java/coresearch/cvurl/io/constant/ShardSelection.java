@@ -0,0 +1,21 @@
+package coresearch.cvurl.io.constant;
+
+/**
+ * Enumeration of the strategies that select the client of a request among the clients of the
+ * {@link HttpClientMode#SHARDED} mode. Intended for use with {@link coresearch.cvurl.io.model.CVurlConfig}
+ *
+ * @since 1.6
+ */
+public enum ShardSelection {
+
+    /**
+     * The strategy that sends all requests to the same host and port through the same client,
+     * so they reuse the connections of that client.
+     */
+    HOST_AFFINITY,
+
+    /**
+     * The strategy that sends every request through the client with the fewest requests in flight.
+     */
+    LEAST_OUTSTANDING
+}
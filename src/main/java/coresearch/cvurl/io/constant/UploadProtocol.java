@@ -0,0 +1,25 @@
+package coresearch.cvurl.io.constant;
+
+/**
+ * Enumeration of the protocols of chunked uploads. Intended for use
+ * with {@link coresearch.cvurl.io.request.RequestWithBodyBuilder#upload(java.nio.file.Path, UploadProtocol)}
+ *
+ * @since 1.6
+ */
+public enum UploadProtocol {
+
+    /**
+     * The tus resumable upload protocol 1.0.0 with the concatenation extension. Every chunk is uploaded
+     * as a partial upload created with a {@code POST} request to the URL of the request and sent with
+     * a {@code PATCH} request, and the chunks are concatenated into the final upload with another {@code POST} request.
+     */
+    TUS,
+
+    /**
+     * The protocol where every chunk is sent to the URL of the request, with its method and the {@code Content-Range}
+     * header specifying the offset of the chunk, e.g. {@code bytes 0-1023/4096}. The upload is committed
+     * with a request without a body and the {@code Content-Range} header with the total length only,
+     * e.g. <code>bytes &#42;/4096</code>.
+     */
+    OFFSET_HEADER
+}
@@ -0,0 +1,67 @@
+package coresearch.cvurl.io.encoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The decoder of data encoded with several content codings one after another,
+ * e.g. {@code Content-Encoding: gzip, deflate}.
+ * The output of the first decoder is passed as the input to the second one.
+ *
+ * @since 1.6
+ */
+class ChainedDecoder implements IncrementalDecoder {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final IncrementalDecoder first;
+    private final IncrementalDecoder second;
+    private final byte[] intermediate = new byte[BUFFER_SIZE];
+
+    ChainedDecoder(IncrementalDecoder first, IncrementalDecoder second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void setInput(ByteBuffer input) {
+        first.setInput(input);
+    }
+
+    @Override
+    public int decode(byte[] b, int off, int len) throws IOException {
+        while (true) {
+            int n = second.decode(b, off, len);
+
+            if (n > 0) {
+                return n;
+            }
+
+            int m = first.decode(intermediate, 0, intermediate.length);
+
+            if (m == 0) {
+                return 0;
+            }
+
+            second.setInput(ByteBuffer.wrap(intermediate, 0, m));
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        try {
+            first.finish();
+        } catch (IOException e) {
+            second.end();
+            throw e;
+        }
+
+        second.finish();
+    }
+
+    @Override
+    public void end() {
+        first.end();
+        second.end();
+    }
+}
@@ -0,0 +1,33 @@
+package coresearch.cvurl.io.encoding;
+
+/**
+ * The service provider interface for decoding an HTTP content coding, such as {@code gzip} or {@code deflate}.
+ * Decoders are registered on {@link coresearch.cvurl.io.model.CVurlConfig} or discovered with
+ * {@link java.util.ServiceLoader}, and every registered content coding is advertised in the Accept-Encoding header
+ * of the requests that accept compressed responses.
+ *
+ * @since 1.6
+ */
+public interface ContentDecoder {
+
+    /**
+     * Returns the content coding name as it appears in the Content-Encoding header, e.g. {@code gzip}.
+     * The name is case-insensitive.
+     */
+    String getEncoding();
+
+    /**
+     * Returns the preference of the content coding advertised in the Accept-Encoding header,
+     * a value between {@code 0} and {@code 1}. The default value is {@code 1}.
+     */
+    default double getQuality() {
+        return 1.0;
+    }
+
+    /**
+     * Creates a new decoder for a single response body.
+     *
+     * @return a new instance of the {@link IncrementalDecoder} interface
+     */
+    IncrementalDecoder newDecoder();
+}
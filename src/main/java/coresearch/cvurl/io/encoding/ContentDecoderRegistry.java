@@ -0,0 +1,177 @@
+package coresearch.cvurl.io.encoding;
+
+import coresearch.cvurl.io.constant.HttpContentEncoding;
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * The immutable registry of the {@link ContentDecoder} instances used to decode compressed response bodies.
+ *
+ * @since 1.6
+ */
+public final class ContentDecoderRegistry {
+
+    private static final String X_GZIP = "x-gzip";
+
+    private final Map<String, ContentDecoder> contentDecoders;
+    private final String acceptEncoding;
+
+    private ContentDecoderRegistry(Collection<? extends ContentDecoder> contentDecoders) {
+        var decoders = new LinkedHashMap<String, ContentDecoder>();
+
+        for (ContentDecoder contentDecoder : contentDecoders) {
+            decoders.put(normalize(validate(contentDecoder).getEncoding()), contentDecoder);
+        }
+
+        this.contentDecoders = Collections.unmodifiableMap(decoders);
+        this.acceptEncoding = decoders.values().stream()
+                .sorted(Comparator.comparingDouble(ContentDecoder::getQuality).reversed())
+                .map(ContentDecoderRegistry::toAcceptEncodingValue)
+                .collect(joining(", "));
+    }
+
+    /**
+     * Returns the registry with the built-in {@code gzip} and {@code deflate} decoders and the decoders
+     * provided by the {@link ServiceLoader} for the {@link ContentDecoder} interface.
+     *
+     * @return the default registry
+     */
+    public static ContentDecoderRegistry defaultRegistry() {
+        return DefaultRegistryHolder.DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Creates a registry with the specified decoders. If several decoders have the same encoding, the last one wins.
+     *
+     * @param contentDecoders - the decoders
+     * @return a new instance of the {@link ContentDecoderRegistry} class
+     */
+    public static ContentDecoderRegistry of(Collection<? extends ContentDecoder> contentDecoders) {
+        notNullParam(contentDecoders, "contentDecoders");
+
+        return new ContentDecoderRegistry(contentDecoders);
+    }
+
+    /**
+     * Returns the registered decoders.
+     */
+    public Collection<ContentDecoder> getContentDecoders() {
+        return contentDecoders.values();
+    }
+
+    /**
+     * Returns the decoder registered for the specified content coding.
+     *
+     * @param encoding - the case-insensitive content coding name
+     */
+    public Optional<ContentDecoder> getContentDecoder(String encoding) {
+        return Optional.ofNullable(contentDecoders.get(normalize(encoding)));
+    }
+
+    /**
+     * Returns the value of the Accept-Encoding header that advertises all registered content codings,
+     * e.g. {@code gzip, deflate;q=0.9}.
+     */
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    /**
+     * Creates a decoder for the response body according to the Content-Encoding header.
+     * Stacked content codings are decoded in the reverse order of their application.
+     *
+     * @param headers - the response headers
+     * @return the decoder, or an empty {@link Optional} if the body is not encoded
+     * or any of its content codings is not registered
+     */
+    public Optional<IncrementalDecoder> newDecoder(HttpHeaders headers) {
+        List<ContentDecoder> decoders = new ArrayList<>();
+
+        for (String value : headers.allValues(HttpHeader.CONTENT_ENCODING)) {
+            for (String encoding : value.split(",")) {
+                String normalized = normalize(encoding);
+
+                if (normalized.isEmpty() || normalized.equals(HttpContentEncoding.IDENTITY)) {
+                    continue;
+                }
+
+                ContentDecoder decoder = contentDecoders.get(normalized);
+
+                if (decoder == null) {
+                    return Optional.empty();
+                }
+
+                decoders.add(decoder);
+            }
+        }
+
+        IncrementalDecoder result = null;
+
+        for (int i = decoders.size() - 1; i >= 0; i--) {
+            IncrementalDecoder decoder = decoders.get(i).newDecoder();
+            result = result == null ? decoder : new ChainedDecoder(result, decoder);
+        }
+
+        return Optional.ofNullable(result);
+    }
+
+    private static ContentDecoder validate(ContentDecoder contentDecoder) {
+        notNullParam(contentDecoder, "contentDecoder");
+        notNullParam(contentDecoder.getEncoding(), "encoding");
+
+        double quality = contentDecoder.getQuality();
+
+        if (!(quality >= 0 && quality <= 1)) {
+            throw new IllegalArgumentException(format("The quality of the %s encoding must be between 0 and 1",
+                    contentDecoder.getEncoding()));
+        }
+
+        return contentDecoder;
+    }
+
+    private static String normalize(String encoding) {
+        String normalized = encoding.trim().toLowerCase(Locale.ROOT);
+
+        return normalized.equals(X_GZIP) ? HttpContentEncoding.GZIP : normalized;
+    }
+
+    private static String toAcceptEncodingValue(ContentDecoder contentDecoder) {
+        String encoding = normalize(contentDecoder.getEncoding());
+        double quality = contentDecoder.getQuality();
+
+        if (quality == 1) {
+            return encoding;
+        }
+
+        String formatted = format(Locale.ROOT, "%.3f", quality).replaceAll("0+$", "");
+
+        return encoding + ";q=" + (formatted.endsWith(".") ? formatted + "0" : formatted);
+    }
+
+    private static final class DefaultRegistryHolder {
+
+        private static final ContentDecoderRegistry DEFAULT_REGISTRY = createDefaultRegistry();
+
+        private static ContentDecoderRegistry createDefaultRegistry() {
+            List<ContentDecoder> decoders = new ArrayList<>(List.of(new GZIPContentDecoder(), new DeflateContentDecoder()));
+            ServiceLoader.load(ContentDecoder.class, ContentDecoder.class.getClassLoader()).forEach(decoders::add);
+
+            return new ContentDecoderRegistry(decoders);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package coresearch.cvurl.io.encoding;
+
+import coresearch.cvurl.io.constant.HttpContentEncoding;
+
+/**
+ * The built-in decoder of the {@code deflate} content coding. Both the zlib format (RFC 1950),
+ * required by the HTTP specification, and the raw deflate format (RFC 1951), sent by some servers, are accepted.
+ *
+ * @since 1.6
+ */
+public class DeflateContentDecoder implements ContentDecoder {
+
+    private static final double QUALITY = 0.9;
+
+    @Override
+    public String getEncoding() {
+        return HttpContentEncoding.DEFLATE;
+    }
+
+    @Override
+    public double getQuality() {
+        return QUALITY;
+    }
+
+    @Override
+    public IncrementalDecoder newDecoder() {
+        return new DeflateDecoder();
+    }
+}
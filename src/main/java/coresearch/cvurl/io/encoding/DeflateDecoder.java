@@ -0,0 +1,114 @@
+package coresearch.cvurl.io.encoding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The incremental decoder of the deflate content coding. The first two bytes of the data are used to detect
+ * whether the data is wrapped in the zlib format or not.
+ *
+ * @since 1.6
+ */
+class DeflateDecoder implements IncrementalDecoder {
+
+    private static final int DEFLATE_METHOD = 8;
+    private static final int ZLIB_HEADER_CHECK = 31;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final byte[] header = new byte[2];
+
+    private ByteBuffer input = EMPTY;
+    private Inflater inflater;
+    private int headerLength;
+
+    @Override
+    public void setInput(ByteBuffer input) {
+        this.input = input;
+    }
+
+    @Override
+    public int decode(byte[] b, int off, int len) throws IOException {
+        if (inflater == null && !createInflater()) {
+            return 0;
+        }
+
+        while (true) {
+            if (inflater.finished()) {
+                input.position(input.limit());
+                return 0;
+            }
+
+            int n = inflate(b, off, len);
+
+            if (n > 0) {
+                return n;
+            }
+
+            if (!inflater.needsInput() || !input.hasRemaining()) {
+                return 0;
+            }
+
+            inflater.setInput(input);
+        }
+    }
+
+    @Override
+    public void finish() throws EOFException {
+        try {
+            boolean complete = inflater == null ? headerLength == 0 : inflater.finished();
+
+            if (!complete) {
+                throw new EOFException("Unexpected end of deflate stream");
+            }
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void end() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private boolean createInflater() {
+        int count = Math.min(header.length - headerLength, input.remaining());
+        input.get(header, headerLength, count);
+        headerLength += count;
+
+        if (headerLength < header.length) {
+            return false;
+        }
+
+        inflater = new Inflater(!isZlibHeader());
+        inflater.setInput(header);
+        return true;
+    }
+
+    private boolean isZlibHeader() {
+        int cmf = header[0] & 0xff;
+        int flg = header[1] & 0xff;
+
+        return (cmf & 0x0f) == DEFLATE_METHOD && (cmf << 8 | flg) % ZLIB_HEADER_CHECK == 0;
+    }
+
+    private int inflate(byte[] b, int off, int len) throws ZipException {
+        try {
+            int n = inflater.inflate(b, off, len);
+
+            if (inflater.needsDictionary()) {
+                throw new ZipException("Preset dictionaries are not supported");
+            }
+
+            return n;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid deflate data format");
+        }
+    }
+}
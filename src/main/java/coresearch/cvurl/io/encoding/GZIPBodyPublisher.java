@@ -0,0 +1,374 @@
+package coresearch.cvurl.io.encoding;
+
+import coresearch.cvurl.io.internal.util.DrainingSubscription;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The body publisher that compresses the data of another body publisher to the GZIP format as it is pulled
+ * by the HTTP client, so the whole body is never kept in memory. The length of the compressed body
+ * is unknown, so it is sent with the chunked transfer coding.
+ *
+ * <p> In the parallel mode, the data is split into blocks of {@value #BLOCK_SIZE} bytes that are compressed
+ * concurrently, each using the end of the previous block as the dictionary, and the compressed blocks
+ * are joined into a single deflate stream. At most {@code parallelism} blocks are compressed ahead of the client.
+ *
+ * @since 1.6
+ */
+public final class GZIPBodyPublisher implements HttpRequest.BodyPublisher {
+
+    static final int BLOCK_SIZE = 128 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int OUTPUT_CHUNK_SIZE = 16 * 1024;
+    private static final int TRAILER_SIZE = 8;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final HttpRequest.BodyPublisher delegate;
+    private final Executor executor;
+    private final int parallelism;
+
+    private GZIPBodyPublisher(HttpRequest.BodyPublisher delegate, Executor executor, int parallelism) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a publisher that compresses the data on the threads that publish it.
+     *
+     * @param delegate - the publisher of the data to compress
+     * @return a new instance of the {@link GZIPBodyPublisher} class
+     */
+    public static GZIPBodyPublisher of(HttpRequest.BodyPublisher delegate) {
+        return new GZIPBodyPublisher(notNullParam(delegate, "delegate"), null, 1);
+    }
+
+    /**
+     * Creates a publisher that compresses the blocks of the data concurrently.
+     *
+     * @param delegate - the publisher of the data to compress
+     * @param executor - the executor that compresses the blocks
+     * @param parallelism - the maximum number of the blocks compressed at the same time
+     * @return a new instance of the {@link GZIPBodyPublisher} class
+     */
+    public static GZIPBodyPublisher parallel(HttpRequest.BodyPublisher delegate, Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, got: " + parallelism);
+        }
+
+        return new GZIPBodyPublisher(notNullParam(delegate, "delegate"), notNullParam(executor, "executor"), parallelism);
+    }
+
+    @Override
+    public long contentLength() {
+        return -1;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        delegate.subscribe(new CompressingSubscription(subscriber));
+    }
+
+    private static ByteBuffer compressBlock(byte[] block, int length, byte[] dictionary, boolean last) {
+        var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+
+            deflater.setInput(block, 0, length);
+
+            var out = new ByteArrayOutputStream(length / 2 + 64);
+            var buffer = new byte[OUTPUT_CHUNK_SIZE];
+
+            if (last) {
+                deflater.finish();
+
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // The sync flush aligns the block to a byte boundary without ending the deflate stream.
+                int n;
+                do {
+                    n = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    out.write(buffer, 0, n);
+                } while (n == buffer.length);
+            }
+
+            return ByteBuffer.wrap(out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private final class CompressingSubscription extends DrainingSubscription implements Flow.Subscriber<ByteBuffer> {
+
+        private final Flow.Subscriber<? super ByteBuffer> downstream;
+        private final Queue<CompletableFuture<ByteBuffer>> outputs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingOutputs = new AtomicInteger();
+        private final CRC32 crc = new CRC32();
+
+        private volatile Flow.Subscription upstream;
+        private volatile ByteBuffer input;
+        private volatile boolean upstreamFinished;
+
+        // The input is consumed by the drain loop only, so the state below is confined to it.
+        private Deflater deflater;
+        private byte[] chunk;
+        private int chunkLength;
+        private byte[] block;
+        private int blockLength;
+        private byte[] dictionary;
+        private long size;
+        private boolean upstreamRequested;
+        private boolean upstreamCompleted;
+        private boolean done;
+
+        CompressingSubscription(Flow.Subscriber<? super ByteBuffer> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+
+            if (executor == null) {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                chunk = new byte[OUTPUT_CHUNK_SIZE];
+            } else {
+                block = new byte[BLOCK_SIZE];
+            }
+
+            addOutput(CompletableFuture.completedFuture(ByteBuffer.wrap(HEADER.clone())));
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            input = item;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            setError(throwable);
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamFinished = true;
+            drain();
+        }
+
+        /**
+         * Compresses the received input. In the parallel mode, a new block is started only while fewer than
+         * {@code parallelism} blocks are pending, so the rest of a large buffer waits until blocks are sent.
+         */
+        private void consumeInput() {
+            ByteBuffer item = input;
+
+            if (item != null) {
+                if (executor == null) {
+                    crc.update(item.duplicate());
+                    size += item.remaining();
+                    deflater.setInput(item);
+                    deflateAvailable(Deflater.NO_FLUSH);
+                } else {
+                    appendToBlock(item);
+                }
+
+                if (item.hasRemaining()) {
+                    return;
+                }
+
+                input = null;
+                upstreamRequested = false;
+            }
+
+            if (upstreamFinished && !upstreamCompleted) {
+                if (executor == null) {
+                    deflater.finish();
+                    deflateAvailable(Deflater.NO_FLUSH);
+                    flushChunk();
+                    endDeflater();
+                } else {
+                    submitBlock(true);
+                }
+
+                addOutput(CompletableFuture.completedFuture(trailer()));
+                upstreamCompleted = true;
+            }
+        }
+
+        private void deflateAvailable(int flush) {
+            while (true) {
+                int n = deflater.deflate(chunk, chunkLength, chunk.length - chunkLength, flush);
+                chunkLength += n;
+
+                if (chunkLength == chunk.length) {
+                    flushChunk();
+                } else if (n == 0 && (deflater.needsInput() || deflater.finished())) {
+                    return;
+                }
+            }
+        }
+
+        private void flushChunk() {
+            if (chunkLength > 0) {
+                addOutput(CompletableFuture.completedFuture(ByteBuffer.wrap(chunk, 0, chunkLength)));
+                chunk = new byte[OUTPUT_CHUNK_SIZE];
+                chunkLength = 0;
+            }
+        }
+
+        private void appendToBlock(ByteBuffer item) {
+            while (item.hasRemaining() && (blockLength > 0 || pendingOutputs.get() < parallelism)) {
+                int n = Math.min(item.remaining(), block.length - blockLength);
+                item.get(block, blockLength, n);
+                crc.update(block, blockLength, n);
+                size += n;
+                blockLength += n;
+
+                if (blockLength == block.length) {
+                    submitBlock(false);
+                }
+            }
+        }
+
+        private void submitBlock(boolean last) {
+            byte[] data = block;
+            int length = blockLength;
+            byte[] blockDictionary = dictionary;
+
+            if (!last) {
+                dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+                block = new byte[BLOCK_SIZE];
+                blockLength = 0;
+            }
+
+            addOutput(CompletableFuture.supplyAsync(() -> compressBlock(data, length, blockDictionary, last), executor));
+        }
+
+        private void addOutput(CompletableFuture<ByteBuffer> output) {
+            pendingOutputs.incrementAndGet();
+            outputs.add(output);
+            output.whenComplete((buffer, throwable) -> drain());
+        }
+
+        private ByteBuffer trailer() {
+            return ByteBuffer.allocate(TRAILER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt((int) crc.getValue())
+                    .putInt((int) size)
+                    .flip();
+        }
+
+        @Override
+        protected void drainOnce() {
+            if (done) {
+                return;
+            }
+
+            if (isCancelled()) {
+                terminate();
+                return;
+            }
+
+            Throwable throwable = getError();
+
+            if (throwable != null) {
+                terminate();
+                downstream.onError(throwable);
+                return;
+            }
+
+            boolean emitted;
+
+            do {
+                try {
+                    consumeInput();
+                } catch (RuntimeException e) {
+                    terminate();
+                    downstream.onError(e);
+                    return;
+                }
+
+                emitted = false;
+                CompletableFuture<ByteBuffer> head;
+
+                while (hasDemand() && (head = outputs.peek()) != null && head.isDone()) {
+                    outputs.poll();
+                    pendingOutputs.decrementAndGet();
+                    emitted = true;
+
+                    ByteBuffer buffer;
+                    try {
+                        buffer = head.join();
+                    } catch (RuntimeException e) {
+                        terminate();
+                        downstream.onError(e.getCause() != null ? e.getCause() : e);
+                        return;
+                    }
+
+                    if (buffer.hasRemaining()) {
+                        consumeDemand();
+                        downstream.onNext(buffer);
+                    }
+
+                    if (isCancelled()) {
+                        terminate();
+                        return;
+                    }
+                }
+                // Sending the pending blocks frees slots for the rest of the input.
+            } while (emitted && input != null);
+
+            if (upstreamCompleted) {
+                if (outputs.isEmpty()) {
+                    done = true;
+                    downstream.onComplete();
+                }
+            } else if (input == null && !upstreamFinished && !upstreamRequested && pendingOutputs.get() < parallelism
+                    && (executor != null || hasDemand())) {
+                upstreamRequested = true;
+                upstream.request(1);
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            input = null;
+            outputs.clear();
+            endDeflater();
+
+            if (!upstreamFinished) {
+                upstream.cancel();
+            }
+        }
+
+        private void endDeflater() {
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+    }
+}
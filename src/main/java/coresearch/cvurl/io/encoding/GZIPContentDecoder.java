@@ -0,0 +1,21 @@
+package coresearch.cvurl.io.encoding;
+
+import coresearch.cvurl.io.constant.HttpContentEncoding;
+
+/**
+ * The built-in decoder of the {@code gzip} content coding.
+ *
+ * @since 1.6
+ */
+public class GZIPContentDecoder implements ContentDecoder {
+
+    @Override
+    public String getEncoding() {
+        return HttpContentEncoding.GZIP;
+    }
+
+    @Override
+    public IncrementalDecoder newDecoder() {
+        return new GZIPDecoder();
+    }
+}
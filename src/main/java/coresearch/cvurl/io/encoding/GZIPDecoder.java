@@ -0,0 +1,244 @@
+package coresearch.cvurl.io.encoding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The incremental decoder of the GZIP data format (RFC 1952).
+ * Unlike {@link java.util.zip.GZIPInputStream}, it does not pull data from a stream,
+ * but accepts the compressed data chunk by chunk, so it can be fed directly with the buffers
+ * received by a {@link java.net.http.HttpResponse.BodySubscriber}.
+ *
+ * @since 1.6
+ */
+class GZIPDecoder implements IncrementalDecoder {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int DEFLATE_METHOD = 8;
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private enum State {
+        HEADER, EXTRA_LENGTH, EXTRA, NAME, COMMENT, HEADER_CRC, BODY, TRAILER, TRAILING
+    }
+
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] scratch = new byte[HEADER_SIZE];
+
+    private ByteBuffer input = EMPTY;
+    private State state = State.HEADER;
+    private boolean firstMember = true;
+    private int scratchLength;
+    private int flags;
+    private int extraRemaining;
+
+    @Override
+    public void setInput(ByteBuffer input) {
+        this.input = input;
+    }
+
+    @Override
+    public int decode(byte[] b, int off, int len) throws IOException {
+        while (true) {
+            switch (state) {
+                case BODY:
+                    int n = inflate(b, off, len);
+
+                    if (n > 0) {
+                        return n;
+                    }
+
+                    if (inflater.finished()) {
+                        state = State.TRAILER;
+                    } else if (input.hasRemaining()) {
+                        inflater.setInput(input);
+                    } else {
+                        return 0;
+                    }
+                    break;
+                case TRAILING:
+                    input.position(input.limit());
+                    return 0;
+                default:
+                    if (!input.hasRemaining()) {
+                        return 0;
+                    }
+                    readHeaderOrTrailer();
+            }
+        }
+    }
+
+    @Override
+    public void finish() throws EOFException {
+        try {
+            boolean complete = state == State.TRAILING
+                    || state == State.HEADER && (!firstMember || scratchLength == 0);
+
+            if (!complete) {
+                throw new EOFException("Unexpected end of GZIP stream");
+            }
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void end() {
+        inflater.end();
+    }
+
+    private int inflate(byte[] b, int off, int len) throws ZipException {
+        try {
+            int n = inflater.inflate(b, off, len);
+
+            if (inflater.needsDictionary()) {
+                throw new ZipException("Preset dictionaries are not supported in GZIP streams");
+            }
+
+            crc.update(b, off, n);
+            return n;
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid ZLIB data format");
+        }
+    }
+
+    private void readHeaderOrTrailer() throws ZipException {
+        switch (state) {
+            case HEADER:
+                if (fill(HEADER_SIZE)) {
+                    checkHeader();
+                    nextHeaderField();
+                }
+                break;
+            case EXTRA_LENGTH:
+                if (fill(2)) {
+                    extraRemaining = readUnsignedShort(0);
+                    state = State.EXTRA;
+                }
+                break;
+            case EXTRA:
+                int skipped = Math.min(extraRemaining, input.remaining());
+                input.position(input.position() + skipped);
+                extraRemaining -= skipped;
+
+                if (extraRemaining == 0) {
+                    flags &= ~FEXTRA;
+                    nextHeaderField();
+                }
+                break;
+            case NAME:
+            case COMMENT:
+                if (skipZeroTerminated()) {
+                    flags &= state == State.NAME ? ~FNAME : ~FCOMMENT;
+                    nextHeaderField();
+                }
+                break;
+            case HEADER_CRC:
+                if (fill(2)) {
+                    flags &= ~FHCRC;
+                    nextHeaderField();
+                }
+                break;
+            case TRAILER:
+                if (fill(TRAILER_SIZE)) {
+                    checkTrailer();
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected decoder state: " + state);
+        }
+    }
+
+    private void checkHeader() throws ZipException {
+        if (readUnsignedShort(0) != GZIP_MAGIC) {
+            if (firstMember) {
+                throw new ZipException("Not in GZIP format");
+            }
+
+            // Trailing garbage after a complete member is ignored, as GZIPInputStream does.
+            state = State.TRAILING;
+            return;
+        }
+
+        if ((scratch[2] & 0xff) != DEFLATE_METHOD) {
+            throw new ZipException("Unsupported compression method");
+        }
+
+        flags = scratch[3] & 0xff;
+    }
+
+    private void nextHeaderField() {
+        if (state == State.TRAILING) {
+            return;
+        }
+
+        scratchLength = 0;
+
+        if ((flags & FEXTRA) != 0) {
+            state = State.EXTRA_LENGTH;
+        } else if ((flags & FNAME) != 0) {
+            state = State.NAME;
+        } else if ((flags & FCOMMENT) != 0) {
+            state = State.COMMENT;
+        } else if ((flags & FHCRC) != 0) {
+            state = State.HEADER_CRC;
+        } else {
+            inflater.reset();
+            crc.reset();
+            state = State.BODY;
+        }
+    }
+
+    private void checkTrailer() throws ZipException {
+        if (readUnsignedInt(0) != crc.getValue()) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        if (readUnsignedInt(4) != (inflater.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        firstMember = false;
+        scratchLength = 0;
+        state = State.HEADER;
+    }
+
+    private boolean fill(int size) {
+        int count = Math.min(size - scratchLength, input.remaining());
+        input.get(scratch, scratchLength, count);
+        scratchLength += count;
+
+        return scratchLength == size;
+    }
+
+    private boolean skipZeroTerminated() {
+        while (input.hasRemaining()) {
+            if (input.get() == 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int readUnsignedShort(int offset) {
+        return (scratch[offset] & 0xff) | (scratch[offset + 1] & 0xff) << 8;
+    }
+
+    private long readUnsignedInt(int offset) {
+        return (readUnsignedShort(offset) | (long) readUnsignedShort(offset + 2) << 16) & 0xffffffffL;
+    }
+}
@@ -0,0 +1,49 @@
+package coresearch.cvurl.io.encoding;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The stateful decoder of a single response body encoded with some content coding.
+ * The encoded data is pushed to the decoder chunk by chunk as it is received.
+ *
+ * <p> Usage protocol: set the input with {@link #setInput(ByteBuffer)} and call {@link #decode(byte[], int, int)}
+ * until it returns {@code 0}, which means the input is fully consumed. When there is no more input,
+ * call {@link #finish()} to check that the encoded data is complete. If the decoding is abandoned,
+ * call {@link #end()} to release the resources held by the decoder.
+ *
+ * @since 1.6
+ */
+public interface IncrementalDecoder {
+
+    /**
+     * Sets the encoded input. The previous input must be fully consumed,
+     * i.e. {@link #decode(byte[], int, int)} must have returned {@code 0}.
+     *
+     * @param input - the encoded data, its position is advanced as the data is consumed
+     */
+    void setInput(ByteBuffer input);
+
+    /**
+     * Decodes the available input into the specified array.
+     *
+     * @param b - the buffer for the decoded data
+     * @param off - the start offset of the data
+     * @param len - the maximum number of bytes to decode, must be positive
+     * @return the actual number of decoded bytes, {@code 0} if the input is fully consumed
+     * @throws IOException if the data is malformed
+     */
+    int decode(byte[] b, int off, int len) throws IOException;
+
+    /**
+     * Checks that the whole encoded data has been decoded and releases the resources held by the decoder.
+     *
+     * @throws IOException if the encoded data is truncated
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases the resources held by the decoder. The decoder must not be used afterwards.
+     */
+    void end();
+}
@@ -0,0 +1,30 @@
+package coresearch.cvurl.io.exception;
+
+/**
+ * Thrown when the response body exceeds the maximum size allowed for the request.
+ *
+ * @since 1.6
+ */
+public class BodyTooLargeException extends ResponseBodyHandlingException {
+
+    private final long maxBodySize;
+
+    /**
+     * Constructs a new exception with the specified detailed message and the exceeded size.
+     *
+     * @param message - the detailed message is kept for later retrieval
+     *                by the {@link #getMessage()} method.
+     * @param maxBodySize - the maximum body size in bytes
+     */
+    public BodyTooLargeException(String message, long maxBodySize) {
+        super(message, null);
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Returns the maximum body size in bytes that was exceeded.
+     */
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+}
@@ -0,0 +1,19 @@
+package coresearch.cvurl.io.exception;
+
+/**
+ * Thrown when the digest of a downloaded file does not match the expected one.
+ *
+ * @since 1.6
+ */
+public class DigestMismatchException extends ResponseBodyHandlingException {
+
+    /**
+     * Constructs a new exception with the specified detailed message.
+     *
+     * @param message - the detailed message is kept for later retrieval
+     *                by the {@link #getMessage()} method.
+     */
+    public DigestMismatchException(String message) {
+        super(message, null);
+    }
+}
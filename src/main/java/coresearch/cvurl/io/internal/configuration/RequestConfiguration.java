@@ -2,6 +2,7 @@ package coresearch.cvurl.io.internal.configuration;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Configuration properties for the {@link coresearch.cvurl.io.request.RequestBuilder}
@@ -13,17 +14,27 @@ public class RequestConfiguration {
 
     private final Duration requestTimeout;
     private final boolean acceptCompressed;
+    private final long compressRequestThreshold;
+    private final boolean parallelCompression;
+    private final long maxBodySize;
     private boolean logEnabled;
 
     public RequestConfiguration() {
         this.requestTimeout = null;
         this.acceptCompressed = false;
+        this.compressRequestThreshold = -1;
+        this.parallelCompression = false;
+        this.maxBodySize = -1;
         this.logEnabled = false;
     }
 
-    private RequestConfiguration(Duration requestTimeout, boolean acceptCompressed, boolean logEnabled) {
+    private RequestConfiguration(Duration requestTimeout, boolean acceptCompressed, long compressRequestThreshold,
+                                 boolean parallelCompression, long maxBodySize, boolean logEnabled) {
         this.requestTimeout = requestTimeout;
         this.acceptCompressed = acceptCompressed;
+        this.compressRequestThreshold = compressRequestThreshold;
+        this.parallelCompression = parallelCompression;
+        this.maxBodySize = maxBodySize;
         this.logEnabled = logEnabled;
     }
 
@@ -35,6 +46,9 @@ public class RequestConfiguration {
         return builder()
                 .requestTimeout(requestTimeout)
                 .acceptCompressed(acceptCompressed)
+                .compressRequest(compressRequestThreshold)
+                .parallelCompression(parallelCompression)
+                .maxBodySize(maxBodySize)
                 .logEnabled(logEnabled);
     }
 
@@ -52,6 +66,35 @@ public class RequestConfiguration {
         return acceptCompressed;
     }
 
+    /**
+     * Returns the size above which the request body is compressed, or an empty {@link OptionalLong}
+     * if the compression is disabled.
+     *
+     * @since 1.6
+     */
+    public OptionalLong getCompressRequestThreshold() {
+        return compressRequestThreshold < 0 ? OptionalLong.empty() : OptionalLong.of(compressRequestThreshold);
+    }
+
+    /**
+     * Returns the {@code parallelCompression} value.
+     *
+     * @since 1.6
+     */
+    public boolean isParallelCompression() {
+        return parallelCompression;
+    }
+
+    /**
+     * Returns the maximum size of the response body received into memory, or an empty {@link OptionalLong}
+     * if the size is not limited.
+     *
+     * @since 1.6
+     */
+    public OptionalLong getMaxBodySize() {
+        return maxBodySize < 0 ? OptionalLong.empty() : OptionalLong.of(maxBodySize);
+    }
+
     /**
      * Returns the {@code logEnabled} value.
      */
@@ -92,6 +135,9 @@ public class RequestConfiguration {
 
         private Duration timeout;
         private boolean acceptCompressed;
+        private long compressRequestThreshold = -1;
+        private boolean parallelCompression;
+        private long maxBodySize = -1;
         private boolean logEnabled;
 
         /**
@@ -116,6 +162,39 @@ public class RequestConfiguration {
             return this;
         }
 
+        /**
+         * Sets the value of the {@code compressRequestThreshold} field.
+         * @param threshold - the value of the compressRequestThreshold field
+         * @return the builder
+         */
+        @Override
+        public Builder compressRequest(long threshold) {
+            this.compressRequestThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the value of the {@code parallelCompression} field.
+         * @param parallelCompression - the value of the parallelCompression field
+         * @return the builder
+         */
+        @Override
+        public Builder parallelCompression(boolean parallelCompression) {
+            this.parallelCompression = parallelCompression;
+            return this;
+        }
+
+        /**
+         * Sets the value of the {@code maxBodySize} field.
+         * @param maxBodySize - the value of the maxBodySize field
+         * @return the builder
+         */
+        @Override
+        public Builder maxBodySize(long maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
         /**
          * Sets the value of the {@code logEnabled} field.
          * @param logEnabled - the value of the logEnabled field
@@ -132,7 +211,8 @@ public class RequestConfiguration {
          * @return an instance of the {@link RequestConfiguration} class
          */
         public RequestConfiguration build() {
-            return new RequestConfiguration(timeout, acceptCompressed, logEnabled);
+            return new RequestConfiguration(timeout, acceptCompressed, compressRequestThreshold, parallelCompression,
+                    maxBodySize, logEnabled);
         }
     }
 }
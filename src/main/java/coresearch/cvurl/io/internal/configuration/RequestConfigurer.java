@@ -26,6 +26,36 @@ public interface RequestConfigurer<T> {
      */
     T acceptCompressed(boolean acceptCompressed);
 
+    /**
+     * Sets the size above which the request body is compressed with GZIP.
+     * The bodies of unknown size are always compressed. A negative value disables the compression.
+     *
+     * @param threshold - the body size in bytes
+     * @return the builder
+     * @since 1.6
+     */
+    T compressRequest(long threshold);
+
+    /**
+     * Sets whether the blocks of the compressed request body should be compressed on multiple cores or not.
+     *
+     * @param parallelCompression - whether to compress in parallel or not
+     * @return the builder
+     * @since 1.6
+     */
+    T parallelCompression(boolean parallelCompression);
+
+    /**
+     * Sets the maximum size of the response body, after decompression, however it is received: into memory,
+     * spilled to a file, as a stream or by a custom body handler. The exchange is aborted once the body exceeds
+     * the size, and a streamed body fails to be read further. A negative value disables the limit.
+     *
+     * @param maxBodySize - the body size in bytes
+     * @return the builder
+     * @since 1.6
+     */
+    T maxBodySize(long maxBodySize);
+
     /**
      * Sets whether the client should enable logging or not.
      *
@@ -0,0 +1,107 @@
+package coresearch.cvurl.io.internal.util;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Locale;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * This class consists of {@code static} utility methods for resolving charsets and decoding text.
+ *
+ * @since 1.6
+ */
+public final class Charsets {
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    /**
+     * Returns the charset specified in the Content-Type header, or UTF-8 if the header
+     * or its charset parameter is absent or the charset is not supported.
+     *
+     * @param headers - the response headers
+     * @return the charset of the response body
+     */
+    public static Charset fromHeaders(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.CONTENT_TYPE)
+                .map(Charsets::fromContentType)
+                .orElse(UTF_8);
+    }
+
+    /**
+     * Decodes the bytes using the specified charset. ASCII data in the ASCII-compatible charsets
+     * and ISO-8859-1 data are copied to the string as is, without running a charset decoder.
+     *
+     * @param bytes - the bytes to decode
+     * @param length - the number of bytes to decode
+     * @param charset - the charset of the bytes
+     * @return the decoded string
+     */
+    public static String decode(byte[] bytes, int length, Charset charset) {
+        if (ISO_8859_1.equals(charset)
+                || (UTF_8.equals(charset) || US_ASCII.equals(charset)) && isAscii(bytes, length)) {
+            return new String(bytes, 0, length, ISO_8859_1);
+        }
+
+        return new String(bytes, 0, length, charset);
+    }
+
+    /**
+     * Returns the bytes in the specified charset encoded in UTF-8. UTF-8 and US-ASCII bytes are returned as is,
+     * the bytes in other charsets are decoded and encoded again.
+     *
+     * @param bytes - the bytes to encode
+     * @param charset - the charset of the bytes
+     * @return the UTF-8 encoded bytes
+     */
+    public static byte[] toUtf8(byte[] bytes, Charset charset) {
+        if (UTF_8.equals(charset) || US_ASCII.equals(charset)) {
+            return bytes;
+        }
+
+        return new String(bytes, charset).getBytes(UTF_8);
+    }
+
+    private static Charset fromContentType(String contentType) {
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf(CHARSET_PARAMETER);
+
+        if (index < 0) {
+            return UTF_8;
+        }
+
+        String value = contentType.substring(index + CHARSET_PARAMETER.length());
+        int end = value.indexOf(';');
+        value = (end < 0 ? value : value.substring(0, end)).trim();
+
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        try {
+            return Charset.forName(value);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            return UTF_8;
+        }
+    }
+
+    private static boolean isAscii(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Charsets() {
+        throw new IllegalStateException(format("The creation of the %s class is prohibited", Charsets.class.getName()));
+    }
+}
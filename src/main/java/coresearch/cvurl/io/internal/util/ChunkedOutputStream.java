@@ -0,0 +1,83 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The output stream that collects the written bytes into a list of chunks instead of a single growing array,
+ * so the data is never copied on growth and no large contiguous array is allocated.
+ * The chunks are published as a request body with the exact Content-Length.
+ *
+ * @since 1.6
+ */
+public final class ChunkedOutputStream extends OutputStream {
+
+    private static final int INITIAL_CHUNK_SIZE = 512;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    private byte[] chunk = new byte[INITIAL_CHUNK_SIZE];
+    private int position;
+    private long size;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity();
+        chunk[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            ensureCapacity();
+
+            int n = Math.min(len, chunk.length - position);
+            System.arraycopy(b, off, chunk, position, n);
+            position += n;
+            off += n;
+            len -= n;
+            size += n;
+        }
+    }
+
+    /**
+     * Returns the number of the written bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Creates the publisher of the written bytes with the exact content length.
+     * The publisher can be subscribed multiple times, the bytes written afterwards are not published.
+     *
+     * @return a new instance of the {@link HttpRequest.BodyPublisher} class
+     */
+    public HttpRequest.BodyPublisher toBodyPublisher() {
+        if (size == 0) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+
+        List<byte[]> body = new ArrayList<>(chunks);
+        if (position > 0) {
+            body.add(Arrays.copyOf(chunk, position));
+        }
+
+        return HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofByteArrays(body), size);
+    }
+
+    private void ensureCapacity() {
+        if (position < chunk.length) {
+            return;
+        }
+
+        chunks.add(chunk);
+        chunk = new byte[Math.min(chunk.length * 2, MAX_CHUNK_SIZE)];
+        position = 0;
+    }
+}
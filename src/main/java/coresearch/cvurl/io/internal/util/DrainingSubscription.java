@@ -0,0 +1,118 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The base of the subscriptions that signal their subscriber from a drain loop. Every event that may let
+ * the subscription signal something, such as a request, a cancellation or the arrival of data, calls {@link #drain()}.
+ * The loop runs on one thread at a time and runs again if it was called while running, so the state touched only
+ * by {@link #drainOnce()} needs no locking, and no event is missed.
+ *
+ * <p> A request of a non-positive number of items is recorded as the error of the subscription,
+ * which is expected to be signalled by {@link #drainOnce()}.
+ *
+ * @since 1.6
+ */
+public abstract class DrainingSubscription implements Flow.Subscription {
+
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            error = new IllegalArgumentException("The number of requested items must be positive, got: " + n);
+        } else {
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+        }
+
+        drain();
+    }
+
+    @Override
+    public final void cancel() {
+        cancelled = true;
+        onCancel();
+        drain();
+    }
+
+    /**
+     * Runs the drain loop, or makes the running one run again.
+     */
+    protected final void drain() {
+        if (pendingDrains.getAndIncrement() == 0) {
+            runDrainLoop(this::drainLoop);
+        }
+    }
+
+    /**
+     * Runs the drain loop. The loop runs on the calling thread by default.
+     *
+     * @param drainLoop - the loop to run
+     */
+    protected void runDrainLoop(Runnable drainLoop) {
+        drainLoop.run();
+    }
+
+    /**
+     * Signals the subscriber whatever can be signalled. Called only from the drain loop.
+     */
+    protected abstract void drainOnce();
+
+    /**
+     * Called on the cancelling thread after the subscription is marked as cancelled and before it is drained.
+     */
+    protected void onCancel() {
+    }
+
+    /**
+     * Records the error to be signalled to the subscriber.
+     *
+     * @param throwable - the error
+     */
+    protected final void setError(Throwable throwable) {
+        error = throwable;
+    }
+
+    /**
+     * Returns the recorded error, or {@code null} if there is none.
+     */
+    protected final Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Returns whether the subscription is cancelled.
+     */
+    protected final boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns whether the subscriber has requested items that have not been signalled yet.
+     */
+    protected final boolean hasDemand() {
+        return demand.get() > 0;
+    }
+
+    /**
+     * Takes one item off the demand, called before the item is signalled.
+     */
+    protected final void consumeDemand() {
+        demand.decrementAndGet();
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+
+        do {
+            drainOnce();
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
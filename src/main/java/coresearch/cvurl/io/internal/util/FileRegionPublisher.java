@@ -0,0 +1,248 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static java.lang.String.format;
+
+/**
+ * The body publisher of a sequence of regions, each either the bytes kept in memory or a region of a file.
+ * The files are read lazily with positioned reads, in chunks of {@value #CHUNK_SIZE} bytes, as they are requested
+ * by the HTTP client, so the memory used does not depend on their size. The files given by their path are opened
+ * one at a time and closed once read, while the file channels given by the caller are left open, so several
+ * publishers can read the different regions of the same channel concurrently.
+ *
+ * @since 1.6
+ */
+public final class FileRegionPublisher implements HttpRequest.BodyPublisher {
+
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    private final List<Region> regions;
+    private final long contentLength;
+
+    private FileRegionPublisher(List<Region> regions) {
+        this.regions = List.copyOf(regions);
+        this.contentLength = regions.stream().mapToLong(Region::length).sum();
+    }
+
+    /**
+     * Creates a publisher of the regions in the given order.
+     *
+     * @param regions - the regions to publish
+     * @return a new instance of the {@link FileRegionPublisher} class
+     */
+    public static FileRegionPublisher of(List<Region> regions) {
+        return new FileRegionPublisher(regions);
+    }
+
+    /**
+     * Creates a publisher of a region of an open file channel, which is not closed by the publisher.
+     *
+     * @param channel - the channel to read
+     * @param position - the position of the region in the file
+     * @param length - the length of the region
+     * @return a new instance of the {@link FileRegionPublisher} class
+     */
+    public static FileRegionPublisher of(FileChannel channel, long position, long length) {
+        return new FileRegionPublisher(List.of(Region.ofChannel(channel, position, length)));
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        subscriber.onSubscribe(new RegionSubscription(subscriber));
+    }
+
+    /**
+     * The region of the body, either the bytes kept in memory or a region of a file.
+     */
+    public static final class Region {
+
+        private final byte[] bytes;
+        private final Path file;
+        private final FileChannel channel;
+        private final long position;
+        private final long length;
+
+        private Region(byte[] bytes, Path file, FileChannel channel, long position, long length) {
+            this.bytes = bytes;
+            this.file = file;
+            this.channel = channel;
+            this.position = position;
+            this.length = length;
+        }
+
+        public static Region ofBytes(byte[] bytes) {
+            return new Region(bytes, null, null, 0, bytes.length);
+        }
+
+        /**
+         * Creates the region of the first {@code length} bytes of a file, which is opened when the region is read.
+         */
+        public static Region ofFile(Path file, long length) {
+            return new Region(null, file, null, 0, length);
+        }
+
+        /**
+         * Creates the region of an open file channel, which is not closed when the region is read.
+         */
+        public static Region ofChannel(FileChannel channel, long position, long length) {
+            return new Region(null, null, channel, position, length);
+        }
+
+        public long length() {
+            return length;
+        }
+
+        /**
+         * Reads the whole region into memory.
+         *
+         * @return the bytes of the region
+         * @throws IOException if the file cannot be read or is shorter than the region
+         */
+        public byte[] toByteArray() throws IOException {
+            if (bytes != null) {
+                return bytes;
+            }
+
+            var buffer = ByteBuffer.allocate(Math.toIntExact(length));
+
+            if (channel != null) {
+                readFully(channel, buffer, position);
+            } else {
+                try (var fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    readFully(fileChannel, buffer, position);
+                }
+            }
+
+            return buffer.array();
+        }
+
+        private void readFully(FileChannel source, ByteBuffer buffer, long from) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (source.read(buffer, from + buffer.position()) < 0) {
+                    throw new IOException(format("The file%s was truncated while being sent, " +
+                            "expected %d bytes from position %d", file != null ? " " + file : "", length, position));
+                }
+            }
+        }
+    }
+
+    private final class RegionSubscription extends DrainingSubscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+        private int index;
+        private FileChannel openedChannel;
+        private long sent;
+        private boolean done;
+
+        RegionSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        protected void drainOnce() {
+            if (done) {
+                return;
+            }
+
+            Throwable throwable = getError();
+
+            if (throwable != null) {
+                terminate();
+                subscriber.onError(throwable);
+                return;
+            }
+
+            while (!isCancelled() && hasDemand()) {
+                ByteBuffer buffer;
+                try {
+                    buffer = nextBuffer();
+                } catch (IOException e) {
+                    terminate();
+                    subscriber.onError(e);
+                    return;
+                }
+
+                if (buffer == null) {
+                    done = true;
+                    subscriber.onComplete();
+                    return;
+                }
+
+                consumeDemand();
+                subscriber.onNext(buffer);
+            }
+
+            if (isCancelled()) {
+                terminate();
+            }
+        }
+
+        private ByteBuffer nextBuffer() throws IOException {
+            while (index < regions.size()) {
+                Region region = regions.get(index);
+
+                if (sent == region.length) {
+                    closeOpenedChannel();
+                    sent = 0;
+                    index++;
+                    continue;
+                }
+
+                if (region.bytes != null) {
+                    sent = region.length;
+                    return ByteBuffer.wrap(region.bytes);
+                }
+
+                FileChannel channel = region.channel;
+
+                if (channel == null) {
+                    if (openedChannel == null) {
+                        openedChannel = FileChannel.open(region.file, StandardOpenOption.READ);
+                    }
+
+                    channel = openedChannel;
+                }
+
+                var buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, region.length - sent));
+                region.readFully(channel, buffer, region.position + sent);
+                sent += buffer.capacity();
+                return buffer.flip();
+            }
+
+            return null;
+        }
+
+        private void terminate() {
+            done = true;
+            closeOpenedChannel();
+        }
+
+        private void closeOpenedChannel() {
+            if (openedChannel == null) {
+                return;
+            }
+
+            try {
+                openedChannel.close();
+            } catch (IOException e) {
+                // Nothing was written to the channel, so there is nothing to lose.
+            } finally {
+                openedChannel = null;
+            }
+        }
+    }
+}
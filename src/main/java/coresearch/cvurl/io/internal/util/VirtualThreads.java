@@ -0,0 +1,59 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+/**
+ * This class consists of {@code static} utility methods that create the executors of the virtual-thread mode.
+ *
+ * <p> This is the Java 11 version of the class, which is replaced by the one in the Java 21 layer
+ * of the multi-release jar. Virtual threads are not supported here, so only platform threads are created.
+ *
+ * @since 1.6
+ */
+public final class VirtualThreads {
+
+    /**
+     * Returns whether the running virtual machine supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Returns the shared executor that starts a new virtual thread for each task, which is never shut down.
+     *
+     * @return the shared executor
+     * @throws UnsupportedOperationException if virtual threads are not supported
+     */
+    public static ExecutorService sharedExecutor() {
+        throw unsupported();
+    }
+
+    /**
+     * Creates an executor that starts a new thread for each task, which is a virtual thread if requested.
+     * The executor must be shut down once its tasks are done.
+     *
+     * @param virtual - whether the threads are virtual
+     * @return the executor
+     * @throws UnsupportedOperationException if virtual threads are requested but not supported
+     */
+    public static ExecutorService newThreadPerTaskExecutor(boolean virtual) {
+        if (virtual) {
+            throw unsupported();
+        }
+
+        return Executors.newCachedThreadPool();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Virtual threads require Java 21 or newer, running on Java "
+                + Runtime.version().feature());
+    }
+
+    private VirtualThreads() {
+        throw new IllegalStateException(format("The creation of the %s class is prohibited", VirtualThreads.class.getName()));
+    }
+}
@@ -4,6 +4,15 @@ import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.model.Response;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Provides functionality for reading and writing JSON, either to and from basic POJOs (Plain Old Java Objects).
  * Used by the {@link coresearch.cvurl.io.request.Request} and {@link coresearch.cvurl.io.request.RequestBuilder} classes.
@@ -66,6 +75,125 @@ public abstract class GenericMapper {
      */
     public abstract <T> T readValue(String value, BodyType<T> valueType);
 
+    /**
+     * Deserializes UTF-8 encoded JSON to an object of specified type.
+     * The default implementation decodes the bytes as UTF-8 and calls {@link #readValue(String, Class)},
+     * implementations are encouraged to override it to parse the bytes directly.
+     *
+     * @param value - the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(byte[] value, Class<T> valueType) {
+        return readValue(new String(value, UTF_8), valueType);
+    }
+
+    /**
+     * Deserializes UTF-8 encoded JSON to an object of specified type.
+     * It should be used when you need to deserialize a generic type.
+     * The default implementation decodes the bytes as UTF-8 and calls {@link #readValue(String, BodyType)},
+     * implementations are encouraged to override it to parse the bytes directly.
+     *
+     * @param value - the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(byte[] value, BodyType<T> valueType) {
+        return readValue(new String(value, UTF_8), valueType);
+    }
+
+    /**
+     * Deserializes the remaining bytes of the buffer to an object of specified type.
+     *
+     * @param value - the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(ByteBuffer value, Class<T> valueType) {
+        return readValue(toByteArray(value), valueType);
+    }
+
+    /**
+     * Deserializes the remaining bytes of the buffer to an object of specified type.
+     * It should be used when you need to deserialize a generic type.
+     *
+     * @param value - the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(ByteBuffer value, BodyType<T> valueType) {
+        return readValue(toByteArray(value), valueType);
+    }
+
+    /**
+     * Deserializes the content of the stream to an object of specified type. The stream is not closed.
+     *
+     * @param value - the stream with the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(InputStream value, Class<T> valueType) {
+        return readValue(readAllBytes(value), valueType);
+    }
+
+    /**
+     * Deserializes the content of the stream to an object of specified type. The stream is not closed.
+     * It should be used when you need to deserialize a generic type.
+     *
+     * @param value - the stream with the value to be converted.
+     * @param valueType - the type to convert the value to.
+     * @param <T> - the concrete type
+     * @return a value converted to the specified type
+     * @since 1.6
+     */
+    public <T> T readValue(InputStream value, BodyType<T> valueType) {
+        return readValue(readAllBytes(value), valueType);
+    }
+
+    /**
+     * Lazily deserializes the elements of the JSON array at the root of the stream one by one.
+     *
+     * @param value - the stream with the JSON array, it is closed when the returned stream is closed
+     * @param elementType - the type to convert the array elements to.
+     * @param <T> - the concrete type
+     * @return a stream of the array elements converted to the specified type
+     * @since 1.6
+     */
+    public <T> Stream<T> readValues(InputStream value, Class<T> elementType) {
+        return readValues(value, "", elementType);
+    }
+
+    /**
+     * Lazily deserializes the elements of the JSON array located by the JSON pointer (RFC 6901) one by one,
+     * so that only one element is kept in memory at a time.
+     * The default implementation does not support streaming and throws {@link UnsupportedOperationException},
+     * mappers built on a streaming parser are expected to override it.
+     *
+     * @param value - the stream with the JSON document, it is closed when the returned stream is closed
+     * @param pointer - the JSON pointer to the array, an empty string points to the root
+     * @param elementType - the type to convert the array elements to.
+     * @param <T> - the concrete type
+     * @return a stream of the array elements converted to the specified type
+     * @throws MappingException lazily, when the stream is consumed, in case of malformed JSON or
+     * if there is no array at the specified location
+     * @throws UnsupportedOperationException if the mapper does not support streaming deserialization
+     * @since 1.6
+     */
+    public <T> Stream<T> readValues(InputStream value, String pointer, Class<T> elementType) {
+        throw new UnsupportedOperationException(format("%s does not support streaming deserialization",
+                getClass().getName()));
+    }
+
     /**
      * Serializes an object to String.
      *
@@ -73,4 +201,46 @@ public abstract class GenericMapper {
      * @return the resulted String value.
      */
     public abstract String writeValue(Object value);
+
+    /**
+     * Serializes an object to UTF-8 encoded bytes.
+     * The default implementation encodes the result of {@link #writeValue(Object)}.
+     *
+     * @param value - the object to be serialized
+     * @return the resulted bytes.
+     * @since 1.6
+     */
+    public byte[] writeValueAsBytes(Object value) {
+        return writeValue(value).getBytes(UTF_8);
+    }
+
+    /**
+     * Serializes an object as UTF-8 encoded bytes to the output stream, which is not closed.
+     * The default implementation writes the result of {@link #writeValueAsBytes(Object)}.
+     *
+     * @param value - the object to be serialized
+     * @param out - the stream to write the bytes to
+     * @since 1.6
+     */
+    public void writeValue(Object value, OutputStream out) {
+        try {
+            out.write(writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    private static byte[] toByteArray(ByteBuffer buffer) {
+        var bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) {
+        try {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
 }
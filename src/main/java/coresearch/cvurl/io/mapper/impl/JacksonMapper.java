@@ -1,12 +1,27 @@
 package coresearch.cvurl.io.mapper.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.mapper.GenericMapper;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The default implementation of the {@link GenericMapper} class. It uses an instance of {@link ObjectMapper} as a converter.
@@ -33,8 +48,89 @@ public class JacksonMapper extends GenericMapper {
     @Override
     public <T> T readValue(String value, BodyType<T> valueType) {
         try {
-            return this.objectMapper.readValue(value,
-                    this.objectMapper.getTypeFactory().constructType(valueType.getType()));
+            return this.objectMapper.readValue(value, constructType(valueType));
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(byte[] value, Class<T> valueType) {
+        try {
+            return this.objectMapper.readValue(value, valueType);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(byte[] value, BodyType<T> valueType) {
+        try {
+            return this.objectMapper.readValue(value, constructType(valueType));
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(ByteBuffer value, Class<T> valueType) {
+        try {
+            return value.hasArray() ?
+                    this.objectMapper.readValue(value.array(), value.arrayOffset() + value.position(), value.remaining(), valueType) :
+                    this.objectMapper.readValue(new ByteBufferBackedInputStream(value.duplicate()), valueType);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(ByteBuffer value, BodyType<T> valueType) {
+        try {
+            return value.hasArray() ?
+                    this.objectMapper.readValue(value.array(), value.arrayOffset() + value.position(), value.remaining(),
+                            constructType(valueType)) :
+                    this.objectMapper.readValue(new ByteBufferBackedInputStream(value.duplicate()), constructType(valueType));
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(InputStream value, Class<T> valueType) {
+        try {
+            return this.objectMapper.readerFor(valueType)
+                    .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                    .readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T readValue(InputStream value, BodyType<T> valueType) {
+        try {
+            return this.objectMapper.readerFor(constructType(valueType))
+                    .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                    .readValue(value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> Stream<T> readValues(InputStream value, String pointer, Class<T> elementType) {
+        try {
+            JsonParser parser = this.objectMapper.getFactory().createParser(value);
+
+            if (!pointer.isEmpty()) {
+                parser = new FilteringParserDelegate(parser, new JsonPointerBasedFilter(JsonPointer.compile(pointer)),
+                        TokenFilter.Inclusion.ONLY_INCLUDE_ALL, false);
+            }
+
+            var iterator = new JsonArrayIterator<T>(parser, this.objectMapper.readerFor(elementType));
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(iterator::close);
         } catch (IOException e) {
             throw new MappingException(e.getMessage(), e);
         }
@@ -48,4 +144,26 @@ public class JacksonMapper extends GenericMapper {
             throw new MappingException(e.getMessage(), e);
         }
     }
+
+    @Override
+    public byte[] writeValueAsBytes(Object value) {
+        try {
+            return this.objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void writeValue(Object value, OutputStream out) {
+        try {
+            this.objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, value);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    private JavaType constructType(BodyType<?> valueType) {
+        return this.objectMapper.getTypeFactory().constructType(valueType.getType());
+    }
 }
@@ -0,0 +1,86 @@
+package coresearch.cvurl.io.mapper.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import coresearch.cvurl.io.exception.MappingException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The iterator that reads the elements of a JSON array from a streaming parser one by one.
+ *
+ * @param <T> the type of the elements
+ * @since 1.6
+ */
+class JsonArrayIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+
+    private boolean started;
+    private boolean finished;
+    private boolean hasNext;
+
+    JsonArrayIterator(JsonParser parser, ObjectReader reader) {
+        this.parser = parser;
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished || hasNext) {
+            return hasNext;
+        }
+
+        try {
+            if (!started) {
+                started = true;
+
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new MappingException("JSON array is expected at the specified location", null);
+                }
+            }
+
+            JsonToken token = parser.nextToken();
+
+            if (token == null || token == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+
+            hasNext = true;
+            return true;
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            hasNext = false;
+            return reader.readValue(parser);
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        hasNext = false;
+
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+}
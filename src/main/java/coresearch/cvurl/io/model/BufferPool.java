@@ -0,0 +1,122 @@
+package coresearch.cvurl.io.model;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread-safe pool of heap byte buffers of the same size that keeps the response bodies of
+ * {@link coresearch.cvurl.io.request.Request#asPooledBody()} requests, so that they can be reused once released
+ * instead of allocating new arrays for every response.
+ *
+ * <p> A buffer is allocated when the pool is empty, so acquiring one never blocks. At most {@code maxPooledBuffers}
+ * released buffers are kept for reuse, the rest are left to the garbage collector.
+ *
+ * @since 1.6
+ */
+public final class BufferPool {
+
+    /**
+     * The size of the buffers of the default pool, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The maximum number of buffers kept by the default pool.
+     */
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 1024;
+
+    private static final BufferPool DEFAULT_POOL = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_POOLED_BUFFERS);
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    private BufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Returns the pool shared by all configurations that do not specify their own, which keeps up to
+     * {@value #DEFAULT_MAX_POOLED_BUFFERS} buffers of {@value #DEFAULT_BUFFER_SIZE} bytes.
+     *
+     * @return the default pool
+     */
+    public static BufferPool defaultPool() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * Creates a new instance of the {@link BufferPool} class.
+     *
+     * @param bufferSize - the size of the buffers in bytes
+     * @param maxPooledBuffers - the maximum number of released buffers kept for reuse
+     * @return an instance of the {@link BufferPool} class
+     */
+    public static BufferPool of(int bufferSize, int maxPooledBuffers) {
+        if (bufferSize < 1 || maxPooledBuffers < 0) {
+            throw new IllegalArgumentException(String.format("The buffer size must be positive and the maximum " +
+                    "number of pooled buffers must not be negative, got: %d and %d", bufferSize, maxPooledBuffers));
+        }
+
+        return new BufferPool(bufferSize, maxPooledBuffers);
+    }
+
+    /**
+     * Takes a buffer from the pool, or allocates a new one if the pool is empty.
+     *
+     * @return the cleared buffer
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferSize);
+        }
+
+        pooledBuffers.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Returns the buffer to the pool unless the pool is full. The buffer must not be used after it is released.
+     *
+     * @param buffer - the buffer acquired from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || buffer.isReadOnly()) {
+            return;
+        }
+
+        if (pooledBuffers.incrementAndGet() > maxPooledBuffers) {
+            pooledBuffers.decrementAndGet();
+            return;
+        }
+
+        buffers.offer(buffer);
+    }
+
+    /**
+     * Returns the {@code bufferSize} value.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the {@code maxPooledBuffers} value.
+     */
+    public int getMaxPooledBuffers() {
+        return maxPooledBuffers;
+    }
+
+    /**
+     * Returns the number of buffers currently kept for reuse.
+     */
+    public int getPooledBuffers() {
+        return pooledBuffers.get();
+    }
+}
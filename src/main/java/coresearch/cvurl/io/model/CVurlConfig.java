@@ -1,12 +1,15 @@
 package coresearch.cvurl.io.model;
 
 import coresearch.cvurl.io.constant.HttpClientMode;
+import coresearch.cvurl.io.constant.ShardSelection;
+import coresearch.cvurl.io.encoding.ContentDecoder;
+import coresearch.cvurl.io.encoding.ContentDecoderRegistry;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.internal.configuration.RequestConfigurer;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.mapper.GenericMapper;
 import coresearch.cvurl.io.mapper.MapperFactory;
 import coresearch.cvurl.io.request.proxy.CVurlProxySelector;
-import coresearch.cvurl.io.internal.util.HttpClientSingleton;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -19,8 +22,13 @@ import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
 import static coresearch.cvurl.io.internal.util.Validation.notNullParams;
@@ -30,7 +38,7 @@ import static coresearch.cvurl.io.internal.util.Validation.notNullParams;
  *
  * @since 0.9
  */
-public class CVurlConfig {
+public class CVurlConfig implements AutoCloseable {
 
     private final HttpClient httpClient;
 
@@ -40,14 +48,34 @@ public class CVurlConfig {
 
     private final RequestConfiguration globalRequestConfiguration;
 
+    private final ContentDecoderRegistry contentDecoderRegistry;
+
+    private final BufferPool bufferPool;
+
+    private final MemoryBudget memoryBudget;
+
+    private final boolean virtualThreads;
+
+    private final MappingExecutor mappingExecutor;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     private CVurlConfig(HttpClient httpClient, GenericMapper genericMapper, HttpClientMode httpClientMode,
-                        RequestConfiguration globalRequestConfiguration) {
-        notNullParams(httpClient, genericMapper, globalRequestConfiguration);
+                        RequestConfiguration globalRequestConfiguration, ContentDecoderRegistry contentDecoderRegistry,
+                        BufferPool bufferPool, MemoryBudget memoryBudget, boolean virtualThreads,
+                        MappingExecutor mappingExecutor) {
+        notNullParams(httpClient, genericMapper, globalRequestConfiguration, contentDecoderRegistry, bufferPool,
+                memoryBudget);
 
         this.httpClient = httpClient;
         this.genericMapper = genericMapper;
         this.globalRequestConfiguration = globalRequestConfiguration;
         this.httpClientMode = httpClientMode;
+        this.contentDecoderRegistry = contentDecoderRegistry;
+        this.bufferPool = bufferPool;
+        this.memoryBudget = memoryBudget;
+        this.virtualThreads = virtualThreads;
+        this.mappingExecutor = mappingExecutor;
     }
 
     public CVurlConfig() {
@@ -55,6 +83,11 @@ public class CVurlConfig {
         this.genericMapper = MapperFactory.createDefault();
         this.globalRequestConfiguration = RequestConfiguration.defaultConfiguration();
         this.httpClientMode = HttpClientMode.PROTOTYPE;
+        this.contentDecoderRegistry = ContentDecoderRegistry.defaultRegistry();
+        this.bufferPool = BufferPool.defaultPool();
+        this.memoryBudget = MemoryBudget.unlimited();
+        this.virtualThreads = false;
+        this.mappingExecutor = null;
     }
 
     /**
@@ -103,9 +136,20 @@ public class CVurlConfig {
      * @return an instance of the {@link ConfigurationBuilder} class
      */
     public ConfigurationBuilder preconfiguredBuilder() {
-        return new ConfigurationBuilder(getHttpClient())
+        var builder = new ConfigurationBuilder(getHttpClient())
                 .genericMapper(getGenericMapper())
+                .bufferPool(getBufferPool())
+                .memoryBudget(getMemoryBudget())
+                .virtualThreads(isVirtualThreads())
                 .requestTimeout(getGlobalRequestConfiguration().getRequestTimeout().orElse(null));
+
+        getMappingExecutor().ifPresent(builder::mappingExecutor);
+
+        if (getContentDecoderRegistry() != ContentDecoderRegistry.defaultRegistry()) {
+            getContentDecoderRegistry().getContentDecoders().forEach(builder::contentDecoder);
+        }
+
+        return builder;
     }
 
     /**
@@ -199,6 +243,60 @@ public class CVurlConfig {
         return httpClientMode;
     }
 
+    /**
+     * Returns the {@code contentDecoderRegistry} value.
+     */
+    public ContentDecoderRegistry getContentDecoderRegistry() {
+        return contentDecoderRegistry;
+    }
+
+    /**
+     * Returns the {@code bufferPool} value.
+     *
+     * @since 1.6
+     */
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Returns the {@code memoryBudget} value.
+     *
+     * @since 1.6
+     */
+    public MemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns whether the blocking tasks run by {@link coresearch.cvurl.io.request.CVurl#runAll} are run
+     * on virtual threads.
+     *
+     * @since 1.6
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns the executor of the decompression and the mapping of the response bodies, or an empty {@link Optional}
+     * if that work is done on the threads of the client.
+     *
+     * @since 1.6
+     */
+    public Optional<MappingExecutor> getMappingExecutor() {
+        return Optional.ofNullable(mappingExecutor);
+    }
+
+    /**
+     * Returns whether the running virtual machine supports virtual threads, which requires Java 21 or newer.
+     *
+     * @since 1.6
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
     /**
      * Sets the value of the {@code logEnabled} field.
      * @param enabled - the value of the logEnabled field
@@ -217,6 +315,20 @@ public class CVurlConfig {
         this.getGlobalRequestConfiguration().setLogEnabled(isEnabled);
     }
 
+    /**
+     * Releases the reference to the client taken from the {@link HttpClientRegistry#shared()} registry
+     * in the {@link HttpClientMode#SINGLETON} mode, so the client is evicted once no configuration uses it.
+     * The configuration must not be used afterwards. Subsequent calls and calls in other modes have no effect.
+     *
+     * @since 1.6
+     */
+    @Override
+    public void close() {
+        if (httpClientMode == HttpClientMode.SINGLETON && closed.compareAndSet(false, true)) {
+            HttpClientRegistry.shared().release(httpClient);
+        }
+    }
+
     /**
      * Creates an instance of the {@link HttpClient} class with the default settings and the CVurl proxy selector.
      * @return an instance of the {@link HttpClient} class with the CVurl proxy selector
@@ -237,8 +349,15 @@ public class CVurlConfig {
         private GenericMapper genericMapper;
         private HttpClient httpClient;
         private HttpClientMode httpClientMode = HttpClientMode.PROTOTYPE;
+        private BufferPool bufferPool = BufferPool.defaultPool();
+        private MemoryBudget memoryBudget = MemoryBudget.unlimited();
+        private boolean virtualThreads;
+        private MappingExecutor mappingExecutor;
+        private int shards = Runtime.getRuntime().availableProcessors();
+        private ShardSelection shardSelection = ShardSelection.LEAST_OUTSTANDING;
 
         private final RequestConfiguration.Builder requestConfigurationBuilder = RequestConfiguration.builder();
+        private final List<ContentDecoder> contentDecoders = new ArrayList<>();
 
         private ConfigurationBuilder() {
         }
@@ -269,6 +388,114 @@ public class CVurlConfig {
             return (T) this;
         }
 
+        /**
+         * Sets the number of the clients of the {@link HttpClientMode#SHARDED} mode and the strategy
+         * that dispatches the requests among them. By default, there is one client per available processor,
+         * and every request is sent through the client with the fewest requests in flight.
+         *
+         * @param shards - the number of clients, which must be positive
+         * @param shardSelection - the strategy that selects the client of a request
+         * @return the builder
+         * @since 1.6
+         */
+        @SuppressWarnings("unchecked")
+        public T shards(int shards, ShardSelection shardSelection) {
+            if (shards < 1) {
+                throw new IllegalArgumentException("The number of shards must be positive, got: " + shards);
+            }
+
+            this.shards = shards;
+            this.shardSelection = notNullParam(shardSelection);
+            return (T) this;
+        }
+
+        /**
+         * Sets the pool of the buffers that keep the response bodies received as {@link PooledBody}.
+         * The value must not be null. By default, the pool returned by {@link BufferPool#defaultPool()} is used.
+         *
+         * @param bufferPool - the buffer pool
+         * @return the builder
+         * @since 1.6
+         */
+        @SuppressWarnings("unchecked")
+        public T bufferPool(BufferPool bufferPool) {
+            this.bufferPool = notNullParam(bufferPool);
+            return (T) this;
+        }
+
+        /**
+         * Sets the budget of bytes that the response bodies received into memory, such as strings, byte arrays
+         * and {@link PooledBody} instances, may keep at once across all in-flight requests. The bodies that are
+         * streamed, spilled to a file or received by a custom body handler do not take from the budget, since
+         * they are not kept in memory as a whole. The value must not be null. By default, the budget
+         * returned by {@link MemoryBudget#unlimited()} is used.
+         *
+         * @param memoryBudget - the memory budget
+         * @return the builder
+         * @since 1.6
+         */
+        @SuppressWarnings("unchecked")
+        public T memoryBudget(MemoryBudget memoryBudget) {
+            this.memoryBudget = notNullParam(memoryBudget);
+            return (T) this;
+        }
+
+        /**
+         * Sets whether the virtual-thread mode is enabled, in which the blocking tasks run by
+         * {@link coresearch.cvurl.io.request.CVurl#runAll} are run on virtual threads, and the client built
+         * by the {@link ConfigurationWithClientPropertiesBuilder} runs its asynchronous and dependent tasks
+         * on virtual threads unless an executor is set. The client specified by the caller keeps its executor.
+         * The mode is disabled by default.
+         *
+         * @param virtualThreads - whether the virtual-thread mode is enabled
+         * @return the builder
+         * @throws UnsupportedOperationException if the mode is enabled on a virtual machine
+         *                                       that does not support virtual threads
+         * @see CVurlConfig#isVirtualThreadsSupported()
+         * @since 1.6
+         */
+        @SuppressWarnings("unchecked")
+        public T virtualThreads(boolean virtualThreads) {
+            if (virtualThreads && !VirtualThreads.isSupported()) {
+                throw new UnsupportedOperationException("The virtual-thread mode requires Java 21 or newer");
+            }
+
+            this.virtualThreads = virtualThreads;
+            return (T) this;
+        }
+
+        /**
+         * Sets the executor to which the decompression of the response bodies and the mapping of the bodies
+         * to objects by the {@link GenericMapper} of the asynchronous requests are dispatched, so that the threads
+         * of the client only do I/O. The value must not be null. By default, that work is done on the threads
+         * of the client.
+         *
+         * @param mappingExecutor - the mapping executor
+         * @return the builder
+         * @see MappingExecutor#newForkJoinPool(int)
+         * @since 1.6
+         */
+        @SuppressWarnings("unchecked")
+        public T mappingExecutor(MappingExecutor mappingExecutor) {
+            this.mappingExecutor = notNullParam(mappingExecutor);
+            return (T) this;
+        }
+
+        /**
+         * Registers a decoder for a content coding in addition to the built-in {@code gzip} and {@code deflate} ones.
+         * A decoder registered for an already known content coding replaces the previous one.
+         * All registered content codings are advertised in the Accept-Encoding header
+         * when the compressed response body is accepted.
+         *
+         * @param contentDecoder - the content decoder
+         * @return the builder
+         */
+        @SuppressWarnings("unchecked")
+        public T contentDecoder(ContentDecoder contentDecoder) {
+            this.contentDecoders.add(notNullParam(contentDecoder));
+            return (T) this;
+        }
+
         /**
          * Sets the value of the global timeout.
          * The effect of no timeout is the same as setting the infinite duration.
@@ -297,6 +524,52 @@ public class CVurlConfig {
             return (T) this;
         }
 
+        /**
+         * Sets the global size above which the request body is compressed with GZIP
+         * and the Content-Encoding header is added to the request.
+         * The bodies of unknown size are always compressed. A negative value disables the compression.
+         *
+         * @param threshold - the body size in bytes
+         * @return the builder
+         * @since 1.6
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T compressRequest(long threshold) {
+            this.requestConfigurationBuilder.compressRequest(threshold);
+            return (T) this;
+        }
+
+        /**
+         * Sets whether the blocks of the compressed request body should be compressed on multiple cores.
+         *
+         * @param parallelCompression - the value of the parallel compression flag
+         * @return the builder
+         * @since 1.6
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T parallelCompression(boolean parallelCompression) {
+            this.requestConfigurationBuilder.parallelCompression(parallelCompression);
+            return (T) this;
+        }
+
+        /**
+         * Sets the global maximum size of the response body, after decompression, above which the exchange
+         * is aborted with {@link coresearch.cvurl.io.exception.BodyTooLargeException}, however the body
+         * is received. A negative value disables the limit.
+         *
+         * @param maxBodySize - the body size in bytes
+         * @return the builder
+         * @since 1.6
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public T maxBodySize(long maxBodySize) {
+            this.requestConfigurationBuilder.maxBodySize(maxBodySize);
+            return (T) this;
+        }
+
         /**
          * Sets the value of the global logging. If enabled, then each request is logged.
          *
@@ -314,6 +587,45 @@ public class CVurlConfig {
             return this.httpClient;
         }
 
+        /**
+         * Returns the identically configured clients of the {@link HttpClientMode#SHARDED} mode,
+         * which are the client returned by the {@link #getHttpClient()} method and its copies.
+         * The copies share the settings of the client, except for the priority of the HTTP/2 requests,
+         * which cannot be read from the client.
+         *
+         * @param count - the number of clients
+         * @return the clients
+         * @since 1.6
+         */
+        protected List<HttpClient> getHttpClients(int count) {
+            var client = getHttpClient();
+            var builder = HttpClient.newBuilder()
+                    .followRedirects(client.followRedirects())
+                    .sslContext(client.sslContext())
+                    .sslParameters(client.sslParameters())
+                    .version(client.version());
+
+            client.connectTimeout().ifPresent(builder::connectTimeout);
+            client.authenticator().ifPresent(builder::authenticator);
+            client.cookieHandler().ifPresent(builder::cookieHandler);
+            client.executor().ifPresent(builder::executor);
+            client.proxy().ifPresent(builder::proxy);
+
+            return Stream.concat(Stream.of(client), Stream.generate(builder::build).limit(count - 1L))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Returns the key of the settings of the client returned by the {@link #getHttpClient()} method,
+         * which identifies the client shared in the {@link HttpClientMode#SINGLETON} mode.
+         *
+         * @return the key of the client settings
+         * @since 1.6
+         */
+        protected HttpClientRegistry.Key getHttpClientKey() {
+            return HttpClientRegistry.Key.of(this.httpClient);
+        }
+
         /**
          * Builds the CVurl configuration.
          * @return an instance of the {@link CVurlConfig} class
@@ -323,10 +635,32 @@ public class CVurlConfig {
                 genericMapper = MapperFactory.createDefault();
             }
 
-            var client = httpClientMode == HttpClientMode.PROTOTYPE ?
-                    this.getHttpClient() : HttpClientSingleton.getClient(this.getHttpClient());
+            HttpClient client;
+
+            switch (httpClientMode) {
+                case SINGLETON:
+                    client = HttpClientRegistry.shared().acquire(getHttpClientKey(), this::getHttpClient);
+                    break;
+                case SHARDED:
+                    client = ShardedHttpClient.of(getHttpClients(shards), shardSelection);
+                    break;
+                default:
+                    client = this.getHttpClient();
+            }
 
-            return new CVurlConfig(client, genericMapper, httpClientMode, requestConfigurationBuilder.build());
+            return new CVurlConfig(client, genericMapper, httpClientMode, requestConfigurationBuilder.build(),
+                    buildContentDecoderRegistry(), bufferPool, memoryBudget, virtualThreads, mappingExecutor);
+        }
+
+        private ContentDecoderRegistry buildContentDecoderRegistry() {
+            if (contentDecoders.isEmpty()) {
+                return ContentDecoderRegistry.defaultRegistry();
+            }
+
+            var decoders = new ArrayList<>(ContentDecoderRegistry.defaultRegistry().getContentDecoders());
+            decoders.addAll(contentDecoders);
+
+            return ContentDecoderRegistry.of(decoders);
         }
     }
 
@@ -336,7 +670,7 @@ public class CVurlConfig {
     public static class ConfigurationWithClientPropertiesBuilder
             extends ConfigurationBuilder<ConfigurationWithClientPropertiesBuilder> {
 
-        private static final int NO_PRIORITY = -1;
+        private static final int NO_PRIORITY = HttpClientRegistry.Key.NO_PRIORITY;
 
         private Authenticator authenticator;
         private Duration connectTimeout;
@@ -519,8 +853,29 @@ public class CVurlConfig {
             return this;
         }
 
+        @Override
+        protected HttpClientRegistry.Key getHttpClientKey() {
+            return new HttpClientRegistry.Key(connectTimeout, authenticator, cookieHandler, getExecutor(),
+                    followRedirects, priority, proxySelector, sslContext, sslParameters, version);
+        }
+
         @Override
         protected HttpClient getHttpClient() {
+            return newHttpClientBuilder().build();
+        }
+
+        @Override
+        protected List<HttpClient> getHttpClients(int count) {
+            // The clients share the proxy selector, which keeps the proxies of the requests.
+            return Stream.generate(newHttpClientBuilder()::build).limit(count).collect(Collectors.toList());
+        }
+
+        private Executor getExecutor() {
+            // The executor is shared, so the clients of the virtual-thread mode can still be shared by their settings.
+            return executor == null && super.virtualThreads ? VirtualThreads.sharedExecutor() : executor;
+        }
+
+        private HttpClient.Builder newHttpClientBuilder() {
             var builder = HttpClient.newBuilder();
 
             if (connectTimeout != null) {
@@ -535,8 +890,9 @@ public class CVurlConfig {
                 builder.cookieHandler(cookieHandler);
             }
 
-            if (executor != null) {
-                builder.executor(executor);
+            Executor clientExecutor = getExecutor();
+            if (clientExecutor != null) {
+                builder.executor(clientExecutor);
             }
 
             if (priority != NO_PRIORITY) {
@@ -561,7 +917,7 @@ public class CVurlConfig {
                 builder.version(version);
             }
 
-            return builder.build();
+            return builder;
         }
     }
 }
\ No newline at end of file
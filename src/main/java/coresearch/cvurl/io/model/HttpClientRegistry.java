@@ -0,0 +1,267 @@
+package coresearch.cvurl.io.model;
+
+import coresearch.cvurl.io.request.proxy.CVurlProxySelector;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The thread-safe registry of the {@link HttpClient} instances keyed by their effective settings, so that
+ * the configurations with the same settings share one client, along with its selector thread and connection pool,
+ * while the configurations with different settings get their own clients.
+ *
+ * <p> Every {@link #acquire(Key, Supplier)} call takes a reference to the client, and every {@link #release(HttpClient)}
+ * call returns it. The client is evicted from the registry once it has no references left, so the next acquisition
+ * builds a new client, and the evicted one is shut down by the garbage collector after its last exchange.
+ *
+ * @since 1.6
+ */
+public final class HttpClientRegistry {
+
+    private static final HttpClientRegistry SHARED = new HttpClientRegistry();
+
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty registry, which is independent of the shared one.
+     */
+    public HttpClientRegistry() {
+    }
+
+    /**
+     * Returns the registry used by the configurations in the
+     * {@link coresearch.cvurl.io.constant.HttpClientMode#SINGLETON} mode.
+     *
+     * @return the shared registry
+     */
+    public static HttpClientRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Takes a reference to the client with the specified settings, and builds the client if there is none.
+     *
+     * @param key - the effective settings of the client
+     * @param clientFactory - the factory that builds the client with these settings
+     * @return the registered client
+     */
+    public HttpClient acquire(Key key, Supplier<HttpClient> clientFactory) {
+        notNullParam(key, "key");
+        notNullParam(clientFactory, "clientFactory");
+
+        return entries.compute(key, (k, entry) -> {
+            Entry acquired = entry == null ? new Entry(notNullParam(clientFactory.get(), "client")) : entry;
+            acquired.references++;
+            return acquired;
+        }).client;
+    }
+
+    /**
+     * Returns a reference to the client, and evicts the client if it has no references left.
+     * Releasing the client that is not registered has no effect.
+     *
+     * @param client - the registered client
+     * @return {@code true} if the client was evicted, otherwise {@code false}
+     */
+    public boolean release(HttpClient client) {
+        var evicted = new AtomicBoolean();
+
+        keyOf(client).ifPresent(key -> entries.computeIfPresent(key, (k, entry) -> {
+            if (entry.client != client) {
+                return entry;
+            }
+
+            evicted.set(--entry.references == 0);
+            return evicted.get() ? null : entry;
+        }));
+
+        return evicted.get();
+    }
+
+    /**
+     * Evicts the client regardless of its references, so the next acquisition of its settings builds a new client.
+     * The holders of the references keep using the evicted client.
+     *
+     * @param client - the registered client
+     * @return {@code true} if the client was evicted, otherwise {@code false}
+     */
+    public boolean evict(HttpClient client) {
+        return keyOf(client)
+                .map(key -> entries.computeIfPresent(key, (k, entry) -> entry.client == client ? null : entry) == null)
+                .orElse(false);
+    }
+
+    /**
+     * Returns the number of references to the client, which is zero if the client is not registered.
+     *
+     * @param client - the client
+     * @return the number of references
+     */
+    public int getReferenceCount(HttpClient client) {
+        return entries.values().stream()
+                .filter(entry -> entry.client == client)
+                .mapToInt(entry -> entry.references)
+                .findFirst()
+                .orElse(0);
+    }
+
+    /**
+     * Returns the number of registered clients.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private Optional<Key> keyOf(HttpClient client) {
+        return entries.entrySet().stream()
+                .filter(entry -> entry.getValue().client == client)
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private static final class Entry {
+
+        private final HttpClient client;
+
+        // Changed only within the atomic computations of the map.
+        private volatile int references;
+
+        private Entry(HttpClient client) {
+            this.client = client;
+        }
+    }
+
+    /**
+     * The fingerprint of the effective settings of a client. The unset settings are replaced with the defaults
+     * of the {@link HttpClient} class, so the key of a client is equal to the key of the settings it was built with.
+     * The authenticator, cookie handler, executor, proxy selector and SSL context are compared by identity,
+     * the SSL parameters by their values.
+     *
+     * @since 1.6
+     */
+    public static final class Key {
+
+        /**
+         * The priority of the client that does not set the priority of the HTTP/2 requests.
+         */
+        public static final int NO_PRIORITY = -1;
+
+        private final Duration connectTimeout;
+        private final Authenticator authenticator;
+        private final CookieHandler cookieHandler;
+        private final Executor executor;
+        private final HttpClient.Redirect followRedirects;
+        private final int priority;
+        private final ProxySelector proxySelector;
+        private final SSLContext sslContext;
+        private final List<Object> sslParameters;
+        private final HttpClient.Version version;
+
+        Key(Duration connectTimeout, Authenticator authenticator, CookieHandler cookieHandler, Executor executor,
+            HttpClient.Redirect followRedirects, int priority, ProxySelector proxySelector, SSLContext sslContext,
+            SSLParameters sslParameters, HttpClient.Version version) {
+            this.connectTimeout = connectTimeout;
+            this.authenticator = authenticator;
+            this.cookieHandler = cookieHandler;
+            this.executor = executor;
+            this.followRedirects = followRedirects == null ? HttpClient.Redirect.NEVER : followRedirects;
+            this.priority = priority;
+            this.proxySelector = proxySelector instanceof CVurlProxySelector ?
+                    ((CVurlProxySelector) proxySelector).getProxySelector() : proxySelector;
+            this.sslContext = sslContext == null ? defaultSslContext() : sslContext;
+            this.sslParameters = fingerprintOf(sslParameters != null || this.sslContext == null ?
+                    sslParameters : this.sslContext.getDefaultSSLParameters());
+            this.version = version == null ? HttpClient.Version.HTTP_2 : version;
+        }
+
+        /**
+         * Returns the key of the settings of the client. The priority of the client cannot be read,
+         * so the key does not take it into account.
+         *
+         * @param client - the client
+         * @return the key
+         */
+        public static Key of(HttpClient client) {
+            notNullParam(client, "client");
+
+            return new Key(client.connectTimeout().orElse(null), client.authenticator().orElse(null),
+                    client.cookieHandler().orElse(null), client.executor().orElse(null), client.followRedirects(),
+                    NO_PRIORITY, client.proxy().orElse(null), client.sslContext(), client.sslParameters(),
+                    client.version());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return priority == key.priority &&
+                    Objects.equals(connectTimeout, key.connectTimeout) &&
+                    authenticator == key.authenticator &&
+                    cookieHandler == key.cookieHandler &&
+                    executor == key.executor &&
+                    followRedirects == key.followRedirects &&
+                    proxySelector == key.proxySelector &&
+                    sslContext == key.sslContext &&
+                    Objects.equals(sslParameters, key.sslParameters) &&
+                    version == key.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectTimeout, System.identityHashCode(authenticator),
+                    System.identityHashCode(cookieHandler), System.identityHashCode(executor), followRedirects,
+                    priority, System.identityHashCode(proxySelector), System.identityHashCode(sslContext),
+                    sslParameters, version);
+        }
+
+        private static SSLContext defaultSslContext() {
+            try {
+                return SSLContext.getDefault();
+            } catch (NoSuchAlgorithmException e) {
+                return null;
+            }
+        }
+
+        private static List<Object> fingerprintOf(SSLParameters parameters) {
+            if (parameters == null) {
+                return null;
+            }
+
+            return Arrays.asList(
+                    asList(parameters.getCipherSuites()),
+                    asList(parameters.getProtocols()),
+                    parameters.getWantClientAuth(),
+                    parameters.getNeedClientAuth(),
+                    parameters.getEndpointIdentificationAlgorithm(),
+                    parameters.getServerNames(),
+                    parameters.getSNIMatchers(),
+                    parameters.getUseCipherSuitesOrder(),
+                    parameters.getEnableRetransmissions(),
+                    parameters.getMaximumPacketSize(),
+                    asList(parameters.getApplicationProtocols()));
+        }
+
+        private static List<String> asList(String[] values) {
+            return values == null ? null : Arrays.asList(values);
+        }
+    }
+}
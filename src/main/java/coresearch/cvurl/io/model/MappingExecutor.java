@@ -0,0 +1,108 @@
+package coresearch.cvurl.io.model;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The executor of the CPU-bound work on the response bodies, such as the decompression and the mapping
+ * of the bodies to objects, which keeps that work off the threads of the {@link java.net.http.HttpClient},
+ * so that they only do I/O.
+ *
+ * <p> The executor counts its tasks, so the depth of its queue can be monitored. A task is queued from its
+ * submission until it starts, and active until it completes.
+ *
+ * @since 1.6
+ */
+public final class MappingExecutor implements Executor {
+
+    private final Executor executor;
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    private MappingExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a new instance of the {@link MappingExecutor} class that runs the tasks on the specified executor.
+     *
+     * @param executor - the executor that runs the tasks
+     * @return an instance of the {@link MappingExecutor} class
+     */
+    public static MappingExecutor of(Executor executor) {
+        return new MappingExecutor(notNullParam(executor, "executor"));
+    }
+
+    /**
+     * Creates a new instance of the {@link MappingExecutor} class that runs the tasks on a new {@link ForkJoinPool}
+     * of the specified parallelism, which runs the tasks in the order of their submission.
+     *
+     * @param parallelism - the number of threads, which must be positive
+     * @return an instance of the {@link MappingExecutor} class
+     */
+    public static MappingExecutor newForkJoinPool(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, got: " + parallelism);
+        }
+
+        return new MappingExecutor(new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null, true));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        notNullParam(task, "task");
+        queuedTasks.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                queuedTasks.decrementAndGet();
+                activeTasks.incrementAndGet();
+
+                try {
+                    task.run();
+                } finally {
+                    activeTasks.decrementAndGet();
+                    completedTasks.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedTasks.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the {@code executor} value.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the number of tasks submitted but not started yet.
+     */
+    public int getQueuedTasks() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Returns the number of tasks that are running.
+     */
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Returns the number of tasks completed since the executor was created.
+     */
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+}
@@ -0,0 +1,197 @@
+package coresearch.cvurl.io.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The thread-safe budget of bytes that the response bodies received into memory may keep at once,
+ * shared by all requests of a {@link CVurlConfig}.
+ *
+ * <p> Every body takes a {@link Lease} and reserves the bytes as they arrive. Once the reserved bytes exceed
+ * the budget, the bodies stop requesting more data from the connection until the bytes reserved by other bodies
+ * are returned, which happens when those bodies are received completely or fail. If every body that keeps bytes
+ * is stopped, the one that was stopped first is resumed, so that the bodies larger than the budget are still
+ * received one at a time instead of stalling each other forever.
+ *
+ * @since 1.6
+ */
+public final class MemoryBudget {
+
+    private static final MemoryBudget UNLIMITED = new MemoryBudget(Long.MAX_VALUE);
+
+    private final long maxBytes;
+    private final Deque<Lease> stopped = new ArrayDeque<>();
+
+    private long reservedBytes;
+    private int holders;
+
+    private MemoryBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the budget that never stops the bodies, which is used by the configurations that do not specify
+     * their own.
+     *
+     * @return the unlimited budget
+     */
+    public static MemoryBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Creates a new instance of the {@link MemoryBudget} class.
+     *
+     * @param maxBytes - the number of bytes above which the bodies stop requesting more data
+     * @return an instance of the {@link MemoryBudget} class
+     */
+    public static MemoryBudget of(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The budget must be positive, got: " + maxBytes);
+        }
+
+        return new MemoryBudget(maxBytes);
+    }
+
+    /**
+     * Creates a new lease that reserves the bytes of a single body.
+     *
+     * @return the lease, which must be closed once the body no longer needs the bytes
+     */
+    public Lease newLease() {
+        return new Lease();
+    }
+
+    /**
+     * Returns whether the budget is unlimited, in which case the bodies do not need to reserve bytes.
+     */
+    public boolean isUnlimited() {
+        return maxBytes == Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the {@code maxBytes} value.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of bytes currently reserved by all leases.
+     */
+    public synchronized long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    private List<Runnable> resumeStopped() {
+        List<Runnable> resumed = new ArrayList<>();
+
+        if (reservedBytes <= maxBytes) {
+            while (!stopped.isEmpty()) {
+                resumed.add(stopped.poll().takeResume());
+            }
+        } else if (!stopped.isEmpty() && stopped.size() == holders) {
+            resumed.add(stopped.poll().takeResume());
+        }
+
+        return resumed;
+    }
+
+    /**
+     * The bytes reserved by a single body.
+     *
+     * @since 1.6
+     */
+    public final class Lease implements AutoCloseable {
+
+        private long bytes;
+        private Runnable resume;
+        private boolean closed;
+
+        private Lease() {
+        }
+
+        /**
+         * Reserves the bytes that arrived. If the budget is exceeded afterwards, the body must not request
+         * more data until the callback is run, which may happen on another thread, or before this method returns.
+         *
+         * @param n - the number of bytes
+         * @param resume - the callback run once the body may request more data
+         * @return {@code true} if the body may request more data at once, otherwise {@code false}
+         */
+        public boolean reserve(long n, Runnable resume) {
+            boolean available;
+            List<Runnable> resumed;
+
+            synchronized (MemoryBudget.this) {
+                if (closed) {
+                    return true;
+                }
+
+                if (bytes == 0 && n > 0) {
+                    holders++;
+                }
+
+                bytes += n;
+                reservedBytes += n;
+                available = reservedBytes <= maxBytes;
+
+                if (!available) {
+                    this.resume = resume;
+                    stopped.add(this);
+                }
+
+                resumed = resumeStopped();
+            }
+
+            resumed.forEach(Runnable::run);
+            return available;
+        }
+
+        /**
+         * Returns the number of bytes reserved by this lease.
+         */
+        public long getBytes() {
+            synchronized (MemoryBudget.this) {
+                return bytes;
+            }
+        }
+
+        /**
+         * Returns the reserved bytes to the budget and resumes the stopped bodies if the budget allows it.
+         * Subsequent calls have no effect.
+         */
+        @Override
+        public void close() {
+            List<Runnable> resumed;
+
+            synchronized (MemoryBudget.this) {
+                if (closed) {
+                    return;
+                }
+
+                closed = true;
+                reservedBytes -= bytes;
+
+                if (bytes > 0) {
+                    holders--;
+                }
+
+                bytes = 0;
+                resume = null;
+                stopped.remove(this);
+                resumed = resumeStopped();
+            }
+
+            resumed.forEach(Runnable::run);
+        }
+
+        private Runnable takeResume() {
+            Runnable callback = resume;
+            resume = null;
+            return callback;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package coresearch.cvurl.io.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The response body kept in buffers acquired from a {@link BufferPool}. The body can be read through
+ * any number of views, such as {@link #inputStream()} or {@link #channel()}, that read the buffers
+ * without copying them. The body must be released once it is no longer needed, so that the buffers are returned
+ * to the pool, and it must not be read afterwards.
+ *
+ * @since 1.6
+ */
+public final class PooledBody implements AutoCloseable {
+
+    private final List<ByteBuffer> buffers;
+    private final BufferPool pool;
+    private final long size;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * Creates an instance of the {@link PooledBody} class.
+     *
+     * @param buffers - the buffers that contain the body between their positions and limits
+     * @param pool - the pool the buffers are returned to on release
+     */
+    public PooledBody(List<ByteBuffer> buffers, BufferPool pool) {
+        notNullParam(buffers, "buffers");
+        notNullParam(pool, "pool");
+
+        this.buffers = List.copyOf(buffers);
+        this.pool = pool;
+        this.size = buffers.stream().mapToLong(ByteBuffer::remaining).sum();
+    }
+
+    /**
+     * Returns the size of the body in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the read-only views of the buffers that contain the body.
+     *
+     * @return the list of buffers
+     * @throws IllegalStateException if the body was released
+     */
+    public List<ByteBuffer> buffers() {
+        checkNotReleased();
+
+        List<ByteBuffer> views = new ArrayList<>(buffers.size());
+        for (ByteBuffer buffer : buffers) {
+            views.add(buffer.asReadOnlyBuffer());
+        }
+
+        return views;
+    }
+
+    /**
+     * Returns the input stream that reads the body from the start.
+     *
+     * @return the input stream, which throws {@link IOException} if the body is released
+     * @throws IllegalStateException if the body was released
+     */
+    public InputStream inputStream() {
+        checkNotReleased();
+        return new BodyInputStream();
+    }
+
+    /**
+     * Returns the channel that reads the body from the start.
+     *
+     * @return the channel, which is closed when the body is released
+     * @throws IllegalStateException if the body was released
+     */
+    public ReadableByteChannel channel() {
+        checkNotReleased();
+        return new BodyChannel();
+    }
+
+    /**
+     * Copies the body to a new byte array.
+     *
+     * @return the byte array
+     * @throws IllegalStateException if the body was released
+     */
+    public byte[] toByteArray() {
+        checkNotReleased();
+
+        byte[] bytes = new byte[Math.toIntExact(size)];
+        int offset = 0;
+
+        for (ByteBuffer buffer : buffers) {
+            int length = buffer.remaining();
+            buffer.duplicate().get(bytes, offset, length);
+            offset += length;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the buffers to the pool. Subsequent calls have no effect.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            buffers.forEach(pool::release);
+        }
+    }
+
+    /**
+     * Returns whether the body was released.
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Releases the body.
+     *
+     * @see #release()
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    private void checkNotReleased() {
+        if (released.get()) {
+            throw new IllegalStateException("The body was released");
+        }
+    }
+
+    /**
+     * The reader of the duplicates of the buffers, which leave the buffers themselves intact for other views.
+     */
+    private final class BodyReader {
+
+        private int index;
+        private ByteBuffer current;
+
+        ByteBuffer next() throws IOException {
+            if (released.get()) {
+                throw new IOException("The body was released");
+            }
+
+            while (current == null || !current.hasRemaining()) {
+                if (index == buffers.size()) {
+                    return null;
+                }
+
+                current = buffers.get(index++).duplicate();
+            }
+
+            return current;
+        }
+
+        long remaining() {
+            long remaining = current == null ? 0 : current.remaining();
+
+            for (int i = index; i < buffers.size(); i++) {
+                remaining += buffers.get(i).remaining();
+            }
+
+            return remaining;
+        }
+    }
+
+    private final class BodyInputStream extends InputStream {
+
+        private final BodyReader reader = new BodyReader();
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer buffer = reader.next();
+            return buffer == null ? -1 : buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+
+            if (len == 0) {
+                return 0;
+            }
+
+            ByteBuffer buffer = reader.next();
+            if (buffer == null) {
+                return -1;
+            }
+
+            int length = Math.min(len, buffer.remaining());
+            buffer.get(b, off, length);
+            return length;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(reader.remaining(), Integer.MAX_VALUE);
+        }
+    }
+
+    private final class BodyChannel implements ReadableByteChannel {
+
+        private final BodyReader reader = new BodyReader();
+
+        private volatile boolean open = true;
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!isOpen()) {
+                throw new ClosedChannelException();
+            }
+
+            int read = 0;
+
+            while (dst.hasRemaining()) {
+                ByteBuffer buffer = reader.next();
+                if (buffer == null) {
+                    return read == 0 ? -1 : read;
+                }
+
+                int length = Math.min(dst.remaining(), buffer.remaining());
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(slice.position() + length);
+                dst.put(slice);
+                buffer.position(buffer.position() + length);
+                read += length;
+            }
+
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open && !released.get();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
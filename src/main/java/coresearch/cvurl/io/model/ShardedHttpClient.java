@@ -0,0 +1,317 @@
+package coresearch.cvurl.io.model;
+
+import coresearch.cvurl.io.constant.ShardSelection;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiFunction;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The {@link HttpClient} that dispatches the requests among several identically configured clients, the shards,
+ * so that the I/O of the requests is spread over the selector threads of all shards instead of one.
+ * The settings of the client are the settings of its first shard.
+ *
+ * <p> The number of requests in flight is counted per shard, from sending a request until its response body
+ * is received, its body subscription is cancelled, such as by closing the stream of the body, or the request fails.
+ * So a response whose body is streamed is counted until the stream is read to the end or closed.
+ *
+ * @since 1.6
+ */
+public final class ShardedHttpClient extends HttpClient {
+
+    private final List<HttpClient> shards;
+    private final ShardSelection shardSelection;
+    private final AtomicIntegerArray inFlightRequests;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private ShardedHttpClient(List<HttpClient> shards, ShardSelection shardSelection) {
+        this.shards = shards;
+        this.shardSelection = shardSelection;
+        this.inFlightRequests = new AtomicIntegerArray(shards.size());
+    }
+
+    /**
+     * Creates a new instance of the {@link ShardedHttpClient} class.
+     *
+     * @param shards - the identically configured clients
+     * @param shardSelection - the strategy that selects the client of a request
+     * @return an instance of the {@link ShardedHttpClient} class
+     */
+    public static ShardedHttpClient of(List<HttpClient> shards, ShardSelection shardSelection) {
+        notNullParam(shards, "shards");
+        notNullParam(shardSelection, "shardSelection");
+
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+
+        return new ShardedHttpClient(List.copyOf(shards), shardSelection);
+    }
+
+    /**
+     * Returns the {@code shards} value.
+     */
+    public List<HttpClient> getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the {@code shardSelection} value.
+     */
+    public ShardSelection getShardSelection() {
+        return shardSelection;
+    }
+
+    /**
+     * Returns the number of requests in flight on the shard.
+     *
+     * @param shard - the index of the shard
+     * @return the number of requests in flight
+     */
+    public int getInFlightRequests(int shard) {
+        return inFlightRequests.get(shard);
+    }
+
+    /**
+     * Returns the total number of requests in flight on all shards.
+     */
+    public int getInFlightRequests() {
+        int total = 0;
+
+        for (int i = 0; i < inFlightRequests.length(); i++) {
+            total += inFlightRequests.get(i);
+        }
+
+        return total;
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return shards.get(0).cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return shards.get(0).connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return shards.get(0).followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return shards.get(0).proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return shards.get(0).sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return shards.get(0).sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return shards.get(0).authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return shards.get(0).version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return shards.get(0).executor();
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        int shard = selectShard(request.uri());
+        inFlightRequests.incrementAndGet(shard);
+        Runnable release = releaser(shard);
+
+        try {
+            return shards.get(shard).send(request, countingHandler(responseBodyHandler, release));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return dispatch(request, responseBodyHandler, (client, handler) -> client.sendAsync(request, handler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return dispatch(request, responseBodyHandler,
+                (client, handler) -> client.sendAsync(request, handler, pushPromiseHandler));
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size())).newWebSocketBuilder();
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> dispatch(
+            HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+            BiFunction<HttpClient, HttpResponse.BodyHandler<T>, CompletableFuture<HttpResponse<T>>> sender) {
+        int shard = selectShard(request.uri());
+        inFlightRequests.incrementAndGet(shard);
+        Runnable release = releaser(shard);
+
+        CompletableFuture<HttpResponse<T>> response;
+
+        try {
+            response = sender.apply(shards.get(shard), countingHandler(bodyHandler, release));
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+
+        // The body subscriber releases the request once the body is received, and a failed exchange, whose body
+        // may never be subscribed, is released here. The action of a dependent is skipped once the dependent
+        // is cancelled, so cancelling the returned future releases the request itself, and then cancels the exchange.
+        CompletableFuture<HttpResponse<T>> counted = response.whenComplete((r, t) -> {
+            if (t != null) {
+                release.run();
+            }
+        });
+        counted.whenComplete((r, t) -> {
+            if (counted.isCancelled()) {
+                release.run();
+                response.cancel(true);
+            }
+        });
+
+        return counted;
+    }
+
+    private Runnable releaser(int shard) {
+        var released = new AtomicBoolean();
+
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlightRequests.decrementAndGet(shard);
+            }
+        };
+    }
+
+    private static <T> HttpResponse.BodyHandler<T> countingHandler(HttpResponse.BodyHandler<T> bodyHandler,
+                                                                   Runnable release) {
+        return responseInfo -> new CountingBodySubscriber<>(bodyHandler.apply(responseInfo), release);
+    }
+
+    private int selectShard(URI uri) {
+        int count = shards.size();
+
+        if (count == 1) {
+            return 0;
+        }
+
+        if (shardSelection == ShardSelection.HOST_AFFINITY) {
+            return Math.floorMod(Objects.hash(uri.getHost(), uri.getPort()), count);
+        }
+
+        // The scan starts at a rotating shard, so the ties are spread evenly.
+        int start = Math.floorMod(nextShard.getAndIncrement(), count);
+        int selected = start;
+
+        for (int i = 1; i < count; i++) {
+            int shard = (start + i) % count;
+
+            if (inFlightRequests.get(shard) < inFlightRequests.get(selected)) {
+                selected = shard;
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * The body subscriber that releases the counted request once the body is received, fails or is cancelled,
+     * before the delegate is signalled, so a buffered response is no longer counted when it is completed.
+     */
+    private static final class CountingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final Runnable release;
+
+        CountingBodySubscriber(HttpResponse.BodySubscriber<T> delegate, Runnable release) {
+            this.delegate = delegate;
+            this.release = release;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    release.run();
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            delegate.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            release.run();
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            release.run();
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package coresearch.cvurl.io.model;
+
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The response body kept in memory while it is small, or in a temporary file once it exceeds a threshold.
+ * The body can be read through any number of views, such as {@link #inputStream()} or {@link #mappedBuffer()},
+ * regardless of where it is kept. The body must be closed once it is no longer needed, so that the temporary file
+ * is deleted, and it must not be read afterwards.
+ *
+ * @since 1.6
+ */
+public final class SpillableBody implements AutoCloseable {
+
+    /**
+     * The size in bytes above which the body is written to a temporary file by default.
+     */
+    public static final long DEFAULT_THRESHOLD = 1024 * 1024;
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long size;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private SpillableBody(byte[] bytes, Path file, long size) {
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Creates an instance of the {@link SpillableBody} class kept in memory.
+     *
+     * @param bytes - the array that contains the body from its start
+     * @param length - the length of the body
+     * @return an instance of the {@link SpillableBody} class
+     */
+    public static SpillableBody ofBytes(byte[] bytes, int length) {
+        notNullParam(bytes, "bytes");
+
+        if (length < 0 || length > bytes.length) {
+            throw new IllegalArgumentException(String.format("The length must be between 0 and %d, got: %d",
+                    bytes.length, length));
+        }
+
+        return new SpillableBody(bytes, null, length);
+    }
+
+    /**
+     * Creates an instance of the {@link SpillableBody} class kept in a temporary file,
+     * which is deleted when the body is closed.
+     *
+     * @param file - the file that contains the body
+     * @param size - the size of the body
+     * @return an instance of the {@link SpillableBody} class
+     */
+    public static SpillableBody ofFile(Path file, long size) {
+        return new SpillableBody(null, notNullParam(file, "file"), size);
+    }
+
+    /**
+     * Returns the size of the body in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the body was written to a temporary file.
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Returns the temporary file that contains the body, or an empty {@link Optional} if the body is kept in memory.
+     */
+    public Optional<Path> file() {
+        return Optional.ofNullable(file);
+    }
+
+    /**
+     * Returns the input stream that reads the body from the start.
+     *
+     * @return the input stream
+     * @throws IllegalStateException if the body was closed
+     * @throws ResponseBodyHandlingException if the temporary file cannot be opened
+     */
+    public InputStream inputStream() {
+        checkNotClosed();
+
+        if (file == null) {
+            return new ByteArrayInputStream(bytes, 0, (int) size);
+        }
+
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new ResponseBodyHandlingException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the read-only buffer that contains the whole body, which wraps the array of the body kept in memory
+     * or maps the temporary file to memory.
+     *
+     * @return the read-only buffer
+     * @throws IllegalStateException if the body was closed or is too large to be kept in a single buffer
+     * @throws ResponseBodyHandlingException if the temporary file cannot be mapped
+     */
+    public ByteBuffer mappedBuffer() {
+        checkNotClosed();
+
+        if (file == null) {
+            return ByteBuffer.wrap(bytes, 0, (int) size).slice().asReadOnlyBuffer();
+        }
+
+        checkFitsArray();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new ResponseBodyHandlingException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies the body to a new byte array.
+     *
+     * @return the byte array
+     * @throws IllegalStateException if the body was closed or is too large to be kept in an array
+     * @throws ResponseBodyHandlingException if the temporary file cannot be read
+     */
+    public byte[] toByteArray() {
+        checkNotClosed();
+
+        if (file == null) {
+            byte[] copy = new byte[(int) size];
+            System.arraycopy(bytes, 0, copy, 0, copy.length);
+            return copy;
+        }
+
+        checkFitsArray();
+
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new ResponseBodyHandlingException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns whether the body was closed.
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Deletes the temporary file of the body, if any. Subsequent calls have no effect.
+     * The file is deleted on exit of the virtual machine if it cannot be deleted at once,
+     * e.g. because a view of the body still keeps it open.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true) || file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private void checkNotClosed() {
+        if (closed.get()) {
+            throw new IllegalStateException("The body was closed");
+        }
+    }
+
+    private void checkFitsArray() {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException(String.format("The body of %d bytes is too large to be kept " +
+                    "in a single buffer, use the input stream instead", size));
+        }
+    }
+}
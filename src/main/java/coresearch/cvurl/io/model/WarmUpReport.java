@@ -0,0 +1,220 @@
+package coresearch.cvurl.io.model;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The report of the warm-up of the connections to several hosts, which contains the timings of every host.
+ *
+ * @see coresearch.cvurl.io.request.CVurl#warmUp(java.util.Collection, int)
+ * @since 1.6
+ */
+public final class WarmUpReport {
+
+    private final List<HostWarmUp> hosts;
+    private final Duration duration;
+
+    private WarmUpReport(List<HostWarmUp> hosts, Duration duration) {
+        this.hosts = hosts;
+        this.duration = duration;
+    }
+
+    /**
+     * Creates a new instance of the {@link WarmUpReport} class.
+     *
+     * @param hosts - the warm-ups of the hosts
+     * @param duration - the duration of the whole warm-up
+     * @return an instance of the {@link WarmUpReport} class
+     */
+    public static WarmUpReport of(List<HostWarmUp> hosts, Duration duration) {
+        notNullParam(hosts, "hosts");
+        notNullParam(duration, "duration");
+
+        return new WarmUpReport(List.copyOf(hosts), duration);
+    }
+
+    /**
+     * Returns the warm-ups of the hosts, in the order of their first appearance among the warmed-up URIs.
+     */
+    public List<HostWarmUp> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * Returns the warm-up of the host with the specified origin, or an empty {@link Optional} if the host
+     * was not warmed up.
+     *
+     * @param origin - the scheme, host and port of the host, e.g. {@code https://example.com:443}
+     * @return the warm-up of the host
+     */
+    public Optional<HostWarmUp> getHost(URI origin) {
+        notNullParam(origin, "origin");
+
+        return hosts.stream().filter(host -> host.getOrigin().equals(origin)).findFirst();
+    }
+
+    /**
+     * Returns the {@code duration} value.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns whether at least one connection to every host was opened.
+     */
+    public boolean isSuccessful() {
+        return hosts.stream().allMatch(HostWarmUp::isWarmedUp);
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{" +
+                "hosts=" + hosts +
+                ", duration=" + duration +
+                '}';
+    }
+
+    /**
+     * The warm-up of the connections to a single host.
+     *
+     * @since 1.6
+     */
+    public static final class HostWarmUp {
+
+        private final URI origin;
+        private final Duration dnsResolution;
+        private final Duration firstResponse;
+        private final Duration duration;
+        private final int connections;
+        private final HttpClient.Version version;
+        private final Throwable failure;
+
+        private HostWarmUp(URI origin, Duration dnsResolution, Duration firstResponse, Duration duration,
+                           int connections, HttpClient.Version version, Throwable failure) {
+            this.origin = origin;
+            this.dnsResolution = dnsResolution;
+            this.firstResponse = firstResponse;
+            this.duration = duration;
+            this.connections = connections;
+            this.version = version;
+            this.failure = failure;
+        }
+
+        /**
+         * Creates a new instance of the {@link HostWarmUp} class for the host to which at least one connection
+         * was opened.
+         *
+         * @param origin - the scheme, host and port of the host
+         * @param dnsResolution - the duration of the resolution of the host name, or {@code null} if the host
+         *                      was reached through a proxy
+         * @param firstResponse - the duration from sending the requests until the first response, which includes
+         *                      opening the connection, the TLS handshake and the protocol negotiation
+         * @param duration - the duration of the whole warm-up of the host
+         * @param connections - the number of requests that received a response
+         * @param version - the HTTP protocol version negotiated with the host
+         * @param failure - the failure of the requests that did not receive a response, or {@code null}
+         * @return an instance of the {@link HostWarmUp} class
+         */
+        public static HostWarmUp of(URI origin, Duration dnsResolution, Duration firstResponse, Duration duration,
+                                    int connections, HttpClient.Version version, Throwable failure) {
+            return new HostWarmUp(notNullParam(origin, "origin"), dnsResolution,
+                    notNullParam(firstResponse, "firstResponse"), notNullParam(duration, "duration"), connections,
+                    notNullParam(version, "version"), failure);
+        }
+
+        /**
+         * Creates a new instance of the {@link HostWarmUp} class for the host to which no connection was opened.
+         *
+         * @param origin - the scheme, host and port of the host
+         * @param dnsResolution - the duration of the resolution of the host name, or {@code null} if it failed
+         *                      or the host was reached through a proxy
+         * @param duration - the duration of the whole warm-up of the host
+         * @param failure - the failure
+         * @return an instance of the {@link HostWarmUp} class
+         */
+        public static HostWarmUp failed(URI origin, Duration dnsResolution, Duration duration, Throwable failure) {
+            return new HostWarmUp(notNullParam(origin, "origin"), dnsResolution, null,
+                    notNullParam(duration, "duration"), 0, null, notNullParam(failure, "failure"));
+        }
+
+        /**
+         * Returns the {@code origin} value.
+         */
+        public URI getOrigin() {
+            return origin;
+        }
+
+        /**
+         * Returns the duration of the resolution of the host name, or an empty {@link Optional} if it failed
+         * or the host was reached through a proxy, which resolves the name itself.
+         */
+        public Optional<Duration> getDnsResolution() {
+            return Optional.ofNullable(dnsResolution);
+        }
+
+        /**
+         * Returns the duration from sending the requests until the first response, which includes opening
+         * the connection, the TLS handshake and the protocol negotiation, or an empty {@link Optional}
+         * if no connection was opened.
+         */
+        public Optional<Duration> getFirstResponse() {
+            return Optional.ofNullable(firstResponse);
+        }
+
+        /**
+         * Returns the {@code duration} value.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the number of requests that received a response.
+         */
+        public int getConnections() {
+            return connections;
+        }
+
+        /**
+         * Returns the HTTP protocol version negotiated with the host, or an empty {@link Optional}
+         * if no connection was opened.
+         */
+        public Optional<HttpClient.Version> getVersion() {
+            return Optional.ofNullable(version);
+        }
+
+        /**
+         * Returns the failure of the requests that did not receive a response, or an empty {@link Optional}
+         * if all of them did.
+         */
+        public Optional<Throwable> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+
+        /**
+         * Returns whether at least one connection to the host was opened.
+         */
+        public boolean isWarmedUp() {
+            return connections > 0;
+        }
+
+        @Override
+        public String toString() {
+            return "HostWarmUp{" +
+                    "origin=" + origin +
+                    ", dnsResolution=" + dnsResolution +
+                    ", firstResponse=" + firstResponse +
+                    ", duration=" + duration +
+                    ", connections=" + connections +
+                    ", version=" + version +
+                    ", failure=" + failure +
+                    '}';
+        }
+    }
+}
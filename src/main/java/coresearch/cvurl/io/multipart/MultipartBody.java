@@ -2,15 +2,17 @@ package coresearch.cvurl.io.multipart;
 
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.MultipartType;
+import coresearch.cvurl.io.exception.MultipartFileFormException;
+import coresearch.cvurl.io.internal.util.FileRegionPublisher;
 
+import java.io.IOException;
+import java.net.http.HttpRequest;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * The class for building a multipart request body.
@@ -21,7 +23,9 @@ public class MultipartBody {
 
     private static final String CONTENT_DISPOSITION_TEMPLATE = "form-data; name=\"%s\"";
     private static final String CONTENT_DISPOSITION_WITH_FILENAME_TEMPLATE = CONTENT_DISPOSITION_TEMPLATE + "; filename=\"%s\"";
-    private static final String BOUNDARY_DELIMITER = "--";
+    private static final int BOUNDARY_LENGTH = 32;
+    private static final char[] BOUNDARY_CHARS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
 
     private final String boundary;
     private String multipartType;
@@ -35,11 +39,13 @@ public class MultipartBody {
 
     /**
      * Creates a new instance of the {@link MultipartBody} class with a randomly generated boundary.
+     * The boundary is generated by a non-blocking thread-local random source, as it only has to be unlikely
+     * to occur in the content, not unpredictable.
      *
      * @return an instance of the {@link MultipartBody} class
      */
     public static MultipartBody create() {
-        return create(UUID.randomUUID().toString());
+        return create(randomBoundary());
     }
 
     /**
@@ -56,17 +62,27 @@ public class MultipartBody {
 
     /**
      * Generates a multipart body as a list of byte arrays.
+     * The content of the file parts is read into memory, use {@link #asBodyPublisher()} to send large files.
      *
      * @return the list of byte arrays
      */
     public List<byte[]> asByteArrays() {
-        var result = parts.stream()
-                .flatMap(part -> (Stream<byte[]>) part.asByteArrays(boundary).stream())
+        return MultipartEncoder.encode(boundary, parts).stream()
+                .map(MultipartBody::readRegion)
                 .collect(Collectors.toList());
+    }
 
-        result.add((BOUNDARY_DELIMITER + boundary + BOUNDARY_DELIMITER).getBytes(UTF_8));
-
-        return result;
+    /**
+     * Creates the publisher of the multipart body with the exact content length, so the request is not sent
+     * with the chunked transfer coding. The content of the file parts
+     * is streamed from the files in fixed-size chunks when the body is sent, so it is never loaded into memory
+     * as a whole. The publisher can be subscribed multiple times.
+     *
+     * @return a new instance of the {@link HttpRequest.BodyPublisher} class
+     * @since 1.6
+     */
+    public HttpRequest.BodyPublisher asBodyPublisher() {
+        return FileRegionPublisher.of(MultipartEncoder.encode(boundary, parts));
     }
 
     /**
@@ -141,6 +157,25 @@ public class MultipartBody {
         return this;
     }
 
+    private static String randomBoundary() {
+        var random = ThreadLocalRandom.current();
+        var boundary = new char[BOUNDARY_LENGTH];
+
+        for (int i = 0; i < boundary.length; i++) {
+            boundary[i] = BOUNDARY_CHARS[random.nextInt(BOUNDARY_CHARS.length)];
+        }
+
+        return new String(boundary);
+    }
+
+    private static byte[] readRegion(FileRegionPublisher.Region region) {
+        try {
+            return region.toByteArray();
+        } catch (IOException e) {
+            throw new MultipartFileFormException(e.getMessage(), e);
+        }
+    }
+
     private String getContentDispositionHeader(String name) {
         return String.format(CONTENT_DISPOSITION_TEMPLATE, name);
     }
@@ -0,0 +1,128 @@
+package coresearch.cvurl.io.multipart;
+
+import coresearch.cvurl.io.internal.util.FileRegionPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The encoder that writes a multipart body in a single pass. The delimiters, the headers and the small contents
+ * between two large contents are written into one reused scratch buffer and emitted as a single region,
+ * while the large contents and the files are referenced as they are, so the total length is known
+ * without copying or reading them.
+ *
+ * @since 1.6
+ */
+final class MultipartEncoder {
+
+    static final int INLINE_CONTENT_LIMIT = 1024;
+
+    private static final int INITIAL_FRAME_CAPACITY = 512;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] BOUNDARY_DELIMITER = {'-', '-'};
+    private static final byte[] HEADER_SEPARATOR = {':'};
+
+    private final String boundary;
+    private final List<FileRegionPublisher.Region> regions = new ArrayList<>();
+
+    private byte[] frame = new byte[INITIAL_FRAME_CAPACITY];
+    private int frameLength;
+
+    private MultipartEncoder(String boundary) {
+        this.boundary = boundary;
+    }
+
+    /**
+     * Encodes the parts into the regions of the body.
+     *
+     * @param boundary - the boundary of the body
+     * @param parts - the parts of the body
+     * @return the regions of the body in the order they are sent
+     */
+    static List<FileRegionPublisher.Region> encode(String boundary, List<Part> parts) {
+        var encoder = new MultipartEncoder(boundary);
+
+        parts.forEach(encoder::writePart);
+        encoder.writeClosingDelimiter();
+
+        return encoder.regions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePart(Part part) {
+        write(BOUNDARY_DELIMITER);
+        write(boundary);
+        write(CRLF);
+
+        Map<String, String> headers = part.getHeaders();
+
+        headers.forEach((name, value) -> {
+            write(name);
+            write(HEADER_SEPARATOR);
+            write(value);
+            write(CRLF);
+        });
+
+        write(CRLF);
+
+        byte[] content = part.getContent();
+
+        if (content != null && content.length <= INLINE_CONTENT_LIMIT) {
+            write(content);
+        } else {
+            flushFrame();
+            regions.add(content != null ?
+                    FileRegionPublisher.Region.ofBytes(content) :
+                    FileRegionPublisher.Region.ofFile(part.getFile(), part.getContentLength()));
+        }
+
+        write(CRLF);
+    }
+
+    private void writeClosingDelimiter() {
+        write(BOUNDARY_DELIMITER);
+        write(boundary);
+        write(BOUNDARY_DELIMITER);
+        flushFrame();
+    }
+
+    private void write(String value) {
+        int start = frameLength;
+        ensureCapacity(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c >= 0x80) {
+                frameLength = start;
+                write(value.getBytes(UTF_8));
+                return;
+            }
+
+            frame[frameLength++] = (byte) c;
+        }
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, frame, frameLength, bytes.length);
+        frameLength += bytes.length;
+    }
+
+    private void ensureCapacity(int length) {
+        if (frameLength + length > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(frame.length * 2, frameLength + length));
+        }
+    }
+
+    private void flushFrame() {
+        if (frameLength > 0) {
+            regions.add(FileRegionPublisher.Region.ofBytes(Arrays.copyOf(frame, frameLength)));
+            frameLength = 0;
+        }
+    }
+}
@@ -4,13 +4,12 @@ import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.exception.MultipartFileFormException;
 
 import java.io.IOException;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 
 import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 
 /**
@@ -20,15 +19,24 @@ import static java.util.stream.Collectors.toMap;
  */
 public class Part<T extends Part<T>> {
 
-    private static final String CRLF = "\r\n";
-    private static final String BOUNDARY_DELIMITER = "--";
     private static final String CONTENT_ARGUMENT = "content";
     private final Map<String, String> headers;
     private final byte[] content;
+    private final Path file;
+    private final long contentLength;
 
     protected Part(byte[] content) {
         this.headers = new HashMap<>();
         this.content = content;
+        this.file = null;
+        this.contentLength = content.length;
+    }
+
+    Part(Path file, long contentLength) {
+        this.headers = new HashMap<>();
+        this.content = null;
+        this.file = file;
+        this.contentLength = contentLength;
     }
 
     /**
@@ -57,12 +65,13 @@ public class Part<T extends Part<T>> {
 
     /**
      * Creates a new instance of the {@link Part} class using the file at the specified path.
-     * If the content type of the file can be detected automatically, it will be added to headers.
+     * The file is not read until the body is sent, and then it is streamed in chunks.
+     * If the content type of the file can be detected from its name, it will be added to headers.
      * Otherwise, the part will not have the Content-Type header.
      *
      * @param filePath - the path to the file to be used as content
      * @return an instance of the {@link Part} class
-     * @throws MultipartFileFormException in case {@link IOException} happens while reading from the file.
+     * @throws MultipartFileFormException in case {@link IOException} happens while reading the file size.
      */
     public static PartWithFileContent of(Path filePath) {
         return of(filePath.getFileName().toString(), filePath);
@@ -70,21 +79,22 @@ public class Part<T extends Part<T>> {
 
     /**
      * Creates a new instance of the {@link Part} class using the file at the specified path.
-     * If the content type of the file can be detected automatically, it will be added to headers.
+     * The file is not read until the body is sent, and then it is streamed in chunks.
+     * If the content type of the file can be detected from its name, it will be added to headers.
      * Otherwise, the part will not have the Content-Type header.
      *
      * @param fileName - the name of the file
      * @param filePath - the path to the file to be used as content
      * @return an instance of the {@link Part} class
-     * @throws MultipartFileFormException in case {@link IOException} happens while reading from the file.
+     * @throws MultipartFileFormException in case {@link IOException} happens while reading the file size.
      */
     public static PartWithFileContent of(String fileName, Path filePath) {
         notNullParam(fileName, "fileName");
         notNullParam(filePath, "filePath");
 
         try {
-            PartWithFileContent part = new PartWithFileContent(fileName, Files.readAllBytes(filePath));
-            Optional.ofNullable(Files.probeContentType(filePath))
+            PartWithFileContent part = new PartWithFileContent(fileName, filePath, Files.size(filePath));
+            Optional.ofNullable(URLConnection.guessContentTypeFromName(filePath.getFileName().toString()))
                     .ifPresent(part::contentType);
 
             return part;
@@ -161,24 +171,19 @@ public class Part<T extends Part<T>> {
         return this.headers.containsKey(HttpHeader.CONTENT_TYPE.toLowerCase());
     }
 
-    List<byte[]> asByteArrays(String boundary) {
-        var result = new ArrayList<byte[]>();
-
-        result.add((BOUNDARY_DELIMITER + boundary + CRLF).getBytes());
+    Map<String, String> getHeaders() {
+        return headers;
+    }
 
-        if (!headers.isEmpty()) {
-            result.add(headers.entrySet()
-                    .stream()
-                    .map(entry -> entry.getKey() + ":" + entry.getValue())
-                    .collect(joining(CRLF, "", CRLF))
-                    .getBytes(UTF_8));
-        }
+    byte[] getContent() {
+        return content;
+    }
 
-        result.add(CRLF.getBytes());
-        result.add(content);
-        result.add(CRLF.getBytes(UTF_8));
+    Path getFile() {
+        return file;
+    }
 
-        return result;
+    long getContentLength() {
+        return contentLength;
     }
 }
-
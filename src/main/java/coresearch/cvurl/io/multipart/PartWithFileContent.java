@@ -1,5 +1,7 @@
 package coresearch.cvurl.io.multipart;
 
+import java.nio.file.Path;
+
 /**
  * Represents a part of the content of multipart data.
  *
@@ -14,6 +16,11 @@ public class PartWithFileContent extends Part<PartWithFileContent> {
         this.fileName = fileName;
     }
 
+    PartWithFileContent(String fileName, Path file, long contentLength) {
+        super(file, contentLength);
+        this.fileName = fileName;
+    }
+
     /**
      * Returns the name of the file.
      */
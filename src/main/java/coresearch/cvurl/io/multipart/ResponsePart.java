@@ -0,0 +1,52 @@
+package coresearch.cvurl.io.multipart;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.util.Optional;
+
+/**
+ * Represents a part of a multipart response body, such as a {@code multipart/mixed} batch response
+ * or a {@code multipart/byteranges} response. The body of the part is read as it is received
+ * and is only available until the next part is requested.
+ *
+ * @since 1.6
+ */
+public final class ResponsePart {
+
+    private final HttpHeaders headers;
+    private final InputStream body;
+
+    /**
+     * Creates an instance of the {@link ResponsePart} class.
+     *
+     * @param headers - the headers of the part
+     * @param body - the body of the part
+     */
+    public ResponsePart(HttpHeaders headers, InputStream body) {
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Returns the headers of the part.
+     */
+    public HttpHeaders headers() {
+        return headers;
+    }
+
+    /**
+     * Returns the value of the Content-Type header of the part, if present.
+     */
+    public Optional<String> contentType() {
+        return headers.firstValue(HttpHeader.CONTENT_TYPE);
+    }
+
+    /**
+     * Returns the body of the part, which ends at the boundary of the next part.
+     */
+    public InputStream body() {
+        return body;
+    }
+}
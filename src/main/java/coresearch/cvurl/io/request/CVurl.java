@@ -1,14 +1,31 @@
 package coresearch.cvurl.io.request;
 
 import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.internal.util.VirtualThreads;
 import coresearch.cvurl.io.mapper.MapperFactory;
 import coresearch.cvurl.io.model.CVurlConfig;
 import coresearch.cvurl.io.model.CVurlProxy;
+import coresearch.cvurl.io.model.WarmUpReport;
 import coresearch.cvurl.io.request.proxy.CVurlProxySelector;
 
 import java.net.ProxySelector;
+import java.net.URI;
 import java.net.URL;
 import java.net.http.HttpClient;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
 
@@ -206,6 +223,130 @@ public class CVurl {
         return createRequestWithoutBody(url.toString(), HttpMethod.OPTIONS);
     }
 
+    /**
+     * Opens the read-only channel over the resource with the specified URL that fetches only the parts
+     * of the resource that are read, with HTTP GET range requests.
+     *
+     * @param url - the specified URL.
+     * @return the channel
+     * @see Request#openChannel()
+     * @since 1.6
+     */
+    public SeekableByteChannel openChannel(String url) {
+        return get(url).openChannel();
+    }
+
+    /**
+     * Opens the read-only channel over the resource with the specified URL that fetches only the parts
+     * of the resource that are read, with HTTP GET range requests.
+     *
+     * @param url - the specified URL.
+     * @return the channel
+     * @see Request#openChannel()
+     * @since 1.6
+     */
+    public SeekableByteChannel openChannel(URL url) {
+        return get(url).openChannel();
+    }
+
+    /**
+     * Runs the blocking tasks, such as the requests sent with the synchronous API, concurrently, each on its own
+     * thread, and waits until all of them are done. The threads are virtual in the virtual-thread mode
+     * of the configuration, see {@link CVurlConfig#isVirtualThreads()}, and platform threads otherwise.
+     * The tasks are waited for in the order they complete, so as soon as any task fails, the tasks that are
+     * still running are interrupted.
+     *
+     * @param tasks - the tasks
+     * @param <T> - the type of the task results
+     * @return the results of the tasks, in the order of the tasks
+     * @throws RequestExecutionException if a task throws a checked exception or the waiting thread is interrupted
+     * @since 1.6
+     */
+    public <T> List<T> runAll(Collection<? extends Callable<? extends T>> tasks) {
+        notNullParam(tasks, "tasks");
+
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor(cVurlConfig.isVirtualThreads());
+
+        try {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+            Map<Future<T>, Integer> indexes = new HashMap<>();
+            for (Callable<? extends T> task : tasks) {
+                notNullParam(task, "task");
+                indexes.put(completionService.submit(task::call), indexes.size());
+            }
+
+            List<T> results = new ArrayList<>(Collections.nCopies(indexes.size(), null));
+            for (int i = 0; i < indexes.size(); i++) {
+                Future<T> future = completionService.take();
+                results.set(indexes.get(future), future.get());
+            }
+
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RequestExecutionException(ie.getMessage(), ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new RequestExecutionException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Warms up the connections of the client to the hosts of the URIs, one connection per host,
+     * and waits until it is done.
+     *
+     * @param uris - the URIs
+     * @return the report of the warm-up
+     * @see #warmUp(Collection, int)
+     * @since 1.6
+     */
+    public WarmUpReport warmUp(Collection<URI> uris) {
+        return warmUp(uris, 1);
+    }
+
+    /**
+     * Warms up the connections of the client to the hosts of the URIs before the traffic arrives, and waits
+     * until it is done, so that the first requests to the hosts do not pay for the name resolution,
+     * the connection, the TLS handshake and the protocol negotiation.
+     *
+     * <p> The requests are sent asynchronously, and a bounded number of them is pending at once. Unless the host
+     * is reached through a proxy of the client, its name is resolved first, and then {@code concurrency} HEAD requests
+     * to the first URI of the host are sent at once, so that the client keeps that many open connections
+     * to the host in its pool. Any response counts as a warmed-up connection, whatever its status code.
+     * The requests are subject to the global request timeout of the configuration.
+     * The failures of the hosts are reported instead of being thrown.
+     *
+     * @param uris - the absolute http or https URIs, only the first URI of every host is requested
+     * @param concurrency - the number of connections per host, which must be positive
+     * @return the report of the warm-up, with the timings of every host
+     * @throws IllegalArgumentException if a URI is not an absolute http or https URI
+     * @throws RequestExecutionException if the waiting thread is interrupted
+     * @since 1.6
+     */
+    public WarmUpReport warmUp(Collection<URI> uris, int concurrency) {
+        notNullParam(uris, "uris");
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be positive, got: " + concurrency);
+        }
+
+        try {
+            return new WarmUp(cVurlConfig.getHttpClient(),
+                    cVurlConfig.getGlobalRequestConfiguration().getRequestTimeout().orElse(null), concurrency)
+                    .run(uris);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RequestExecutionException(ie.getMessage(), ie);
+        }
+    }
+
     private RequestBuilder<?> createRequestWithoutBody(String url, HttpMethod httpMethod) {
         return new RequestBuilder<>(url, httpMethod, cVurlConfig);
     }
@@ -1,25 +1,53 @@
 package coresearch.cvurl.io.request;
 
+import coresearch.cvurl.io.constant.DigestAlgorithm;
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.UploadProtocol;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.exception.UnexpectedResponseException;
 import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.model.CVurlConfig;
+import coresearch.cvurl.io.model.MemoryBudget;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.model.PooledBody;
 import coresearch.cvurl.io.model.Response;
-import coresearch.cvurl.io.request.handler.CompressedInputStreamBodyHandler;
+import coresearch.cvurl.io.model.SpillableBody;
+import coresearch.cvurl.io.multipart.ResponsePart;
 import coresearch.cvurl.io.request.handler.CompressedStringBodyHandler;
+import coresearch.cvurl.io.request.handler.DecompressingBodyHandler;
+import coresearch.cvurl.io.request.handler.LimitingBodyHandler;
+import coresearch.cvurl.io.request.handler.MultipartBodySubscriber;
+import coresearch.cvurl.io.request.handler.NdjsonBodySubscriber;
+import coresearch.cvurl.io.request.handler.PooledBodySubscriber;
+import coresearch.cvurl.io.request.handler.SpillingBodySubscriber;
+import coresearch.cvurl.io.sse.EventStreamPublisher;
+import coresearch.cvurl.io.sse.ServerSentEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+import static coresearch.cvurl.io.internal.util.Validation.notNullParams;
 
 /**
  * The class is responsible for sending HTTP requests and parsing HTTP responses.
@@ -47,26 +75,26 @@ public final class CVurlRequest implements Request {
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(Class<T> type, int statusCode) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> parseResponse(response, type, statusCode)));
+        return thenMap(httpClient.sendAsync(httpRequest, getByteArrayBodyHandler()),
+                response -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(BodyType<T> type, int statusCode) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> parseResponse(response, type, statusCode)));
+        return thenMap(httpClient.sendAsync(httpRequest, getByteArrayBodyHandler()),
+                response -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(Class<T> type) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> cvurlConfig.getGenericMapper().readResponseBody(new Response<>(response), type)));
+        return thenMap(httpClient.sendAsync(httpRequest, getByteArrayBodyHandler()),
+                response -> readResponseBody(response, type));
     }
 
     @Override
     public <T> CompletableFuture<T> asyncAsObject(BodyType<T> type) {
-        return httpClient.sendAsync(httpRequest, getStringBodyHandler())
-                .thenApply((response -> cvurlConfig.getGenericMapper().readResponseBody(new Response<>(response), type)));
+        return thenMap(httpClient.sendAsync(httpRequest, getByteArrayBodyHandler()),
+                response -> readResponseBody(response, type));
     }
 
     @Override
@@ -89,36 +117,218 @@ public final class CVurlRequest implements Request {
         return httpClient.sendAsync(httpRequest, getStreamBodyHandler(), pph).thenApply(Response::new);
     }
 
+    @Override
+    public CompletableFuture<Response<PooledBody>> asyncAsPooledBody() {
+        return httpClient.sendAsync(httpRequest, getPooledBodyHandler()).thenApply(Response::new);
+    }
+
+    @Override
+    public CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody() {
+        return asyncAsSpillableBody(SpillableBody.DEFAULT_THRESHOLD);
+    }
+
+    @Override
+    public CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody(long threshold) {
+        return httpClient.sendAsync(httpRequest, getSpillableBodyHandler(threshold)).thenApply(Response::new);
+    }
+
     @Override
     public <T> CompletableFuture<Response<T>> asyncAs(HttpResponse.BodyHandler<T> bodyHandler) {
-        return httpClient.sendAsync(httpRequest, bodyHandler).thenApply(Response::new);
+        return httpClient.sendAsync(httpRequest, getUnbufferedBodyHandler(bodyHandler)).thenApply(Response::new);
     }
 
     @Override
     public <T> CompletableFuture<Response<T>> asyncAs(HttpResponse.BodyHandler<T> bodyHandler, HttpResponse.PushPromiseHandler<T> pph) {
-        return httpClient.sendAsync(httpRequest, bodyHandler, pph).thenApply(Response::new);
+        return httpClient.sendAsync(httpRequest, getUnbufferedBodyHandler(bodyHandler), pph).thenApply(Response::new);
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> asyncAsPublisherOf(Class<T> type) {
+        return asyncAsPublisherOf(type, "");
+    }
+
+    @Override
+    public <T> Flow.Publisher<T> asyncAsPublisherOf(Class<T> type, String pointer) {
+        notNullParams(type, pointer);
+
+        // The body is read on the thread of the publisher, the mapping executor may be needed to decompress it.
+        return new StreamPublisher<>(() -> httpClient.sendAsync(httpRequest, getStreamBodyHandler())
+                .thenApply(HttpResponse::body), body -> readValues(body, type, pointer));
+    }
+
+    @Override
+    public Flow.Publisher<ServerSentEvent<String>> asyncAsEventStream() {
+        return new EventStreamPublisher<>(httpClient, httpRequest, cvurlConfig.getContentDecoderRegistry(),
+                Function.identity());
+    }
+
+    @Override
+    public <T> Flow.Publisher<ServerSentEvent<T>> asyncAsEventStream(Class<T> type) {
+        notNullParam(type, "type");
+
+        return new EventStreamPublisher<>(httpClient, httpRequest, cvurlConfig.getContentDecoderRegistry(),
+                data -> cvurlConfig.getGenericMapper().readValue(data, type));
     }
 
     @Override
     public <T> Optional<T> asObject(Class<T> type, int statusCode) {
-        return sendRequestAndWrapInOptional(getStringBodyHandler(),
+        return sendRequestAndWrapInOptional(getByteArrayBodyHandler(),
                 response -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> Optional<T> asObject(BodyType<T> type, int statusCode) {
-        return sendRequestAndWrapInOptional(getStringBodyHandler(),
+        return sendRequestAndWrapInOptional(getByteArrayBodyHandler(),
                 response -> parseResponse(response, type, statusCode));
     }
 
     @Override
     public <T> T asObject(Class<T> type) {
-        return asObject(response -> cvurlConfig.getGenericMapper().readResponseBody(new Response<>(response), type));
+        return sendRequestOrThrow(getByteArrayBodyHandler(), response -> readResponseBody(response, type));
     }
 
     @Override
     public <T> T asObject(BodyType<T> type) {
-        return asObject(response -> cvurlConfig.getGenericMapper().readResponseBody(new Response<>(response), type));
+        return sendRequestOrThrow(getByteArrayBodyHandler(), response -> readResponseBody(response, type));
+    }
+
+    @Override
+    public <T> Stream<T> asStreamOf(Class<T> type) {
+        return asStreamOf(type, "");
+    }
+
+    @Override
+    public <T> Stream<T> asStreamOf(Class<T> type, String pointer) {
+        notNullParams(type, pointer);
+
+        return sendRequestOrThrow(getStreamBodyHandler(), response -> readValues(response.body(), type, pointer));
+    }
+
+    @Override
+    public <T> Stream<T> asNdjson(Class<T> type) {
+        notNullParam(type, "type");
+
+        return sendRequestOrThrow(getUnbufferedBodyHandler(responseInfo ->
+                new NdjsonBodySubscriber<>(cvurlConfig.getGenericMapper(), type)), HttpResponse::body);
+    }
+
+    @Override
+    public <T> Stream<T> asNdjson(Class<T> type, BiConsumer<String, MappingException> errorHandler) {
+        notNullParams(type, errorHandler);
+
+        return sendRequestOrThrow(getUnbufferedBodyHandler(responseInfo ->
+                new NdjsonBodySubscriber<>(cvurlConfig.getGenericMapper(), type, errorHandler)), HttpResponse::body);
+    }
+
+    @Override
+    public Stream<ResponsePart> asMultipart() {
+        return sendRequestOrThrow(
+                getUnbufferedBodyHandler(responseInfo -> getMultipartBodySubscriber(responseInfo.headers())),
+                this::readParts);
+    }
+
+    @Override
+    public Response<Path> download(Path file) {
+        return download(file, SegmentedDownload.DEFAULT_PARALLELISM);
+    }
+
+    @Override
+    public Response<Path> download(Path file, int parallelism) {
+        notNullParam(file, "file");
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism must be positive, got: " + parallelism);
+        }
+
+        if (requestConfiguration.isLogEnabled()) {
+            LOGGER.info("Downloading {} to {}", this.httpRequest, file);
+        }
+
+        var download = new SegmentedDownload(httpClient, httpRequest, file, parallelism);
+        return await(download.start(), download::cancel);
+    }
+
+    @Override
+    public Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm) {
+        notNullParam(file, "file");
+        notNullParam(algorithm, "algorithm");
+        return resumableDownload(file, algorithm, (byte[]) null);
+    }
+
+    @Override
+    public Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm, String expectedDigest) {
+        notNullParam(file, "file");
+        notNullParam(algorithm, "algorithm");
+        notNullParam(expectedDigest, "expectedDigest");
+        return resumableDownload(file, algorithm, ResumableDownload.parseHex(expectedDigest));
+    }
+
+    @Override
+    public SeekableByteChannel openChannel() {
+        return openChannel(RangeByteChannel.DEFAULT_BLOCK_SIZE, RangeByteChannel.DEFAULT_MAX_CACHED_BLOCKS);
+    }
+
+    @Override
+    public SeekableByteChannel openChannel(int blockSize, int maxCachedBlocks) {
+        if (blockSize < 1 || maxCachedBlocks < 1) {
+            throw new IllegalArgumentException(String.format("The block size and the maximum number of cached blocks " +
+                    "must be positive, got: %d and %d", blockSize, maxCachedBlocks));
+        }
+
+        if (requestConfiguration.isLogEnabled()) {
+            LOGGER.info("Opening the channel over {}", this.httpRequest);
+        }
+
+        return new RangeByteChannel(httpClient, httpRequest, blockSize, maxCachedBlocks);
+    }
+
+    private Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm, byte[] expectedDigest) {
+        if (requestConfiguration.isLogEnabled()) {
+            LOGGER.info("Downloading {} to {} with the {} digest", this.httpRequest, file, algorithm.getName());
+        }
+
+        var download = new ResumableDownload(httpClient, httpRequest, file, algorithm, expectedDigest);
+        return await(download.start(), download::cancel);
+    }
+
+    /**
+     * Uploads the file in chunks with the specified protocol instead of sending the body of the request.
+     *
+     * @see RequestWithBodyBuilder#upload(Path, UploadProtocol, int, int)
+     */
+    Response<String> upload(Path file, UploadProtocol protocol, int chunkSize, int parallelism) {
+        notNullParam(file, "file");
+        notNullParam(protocol, "protocol");
+
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException(String.format("The chunk size and the parallelism must be positive, " +
+                    "got: %d and %d", chunkSize, parallelism));
+        }
+
+        if (requestConfiguration.isLogEnabled()) {
+            LOGGER.info("Uploading {} with {} in chunks of {} bytes", file, this.httpRequest, chunkSize);
+        }
+
+        var upload = new ChunkedUpload(httpClient, httpRequest, file, protocol, chunkSize, parallelism);
+        return await(upload.start(), upload::cancel);
+    }
+
+    private <T> Response<T> await(CompletableFuture<HttpResponse<T>> result, Runnable cancel) {
+        try {
+            return new Response<>(result.get());
+        } catch (InterruptedException ie) {
+            cancel.run();
+            Thread.currentThread().interrupt();
+            throw new RequestExecutionException(ie.getMessage(), ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new RequestExecutionException(cause.getMessage(), cause);
+        }
     }
 
     @Override
@@ -131,22 +341,120 @@ public final class CVurlRequest implements Request {
         return sendRequestAndWrapInOptional(getStreamBodyHandler(), Response::new);
     }
 
+    @Override
+    public Optional<Response<PooledBody>> asPooledBody() {
+        return sendRequestAndWrapInOptional(getPooledBodyHandler(), Response::new);
+    }
+
+    @Override
+    public Optional<Response<SpillableBody>> asSpillableBody() {
+        return asSpillableBody(SpillableBody.DEFAULT_THRESHOLD);
+    }
+
+    @Override
+    public Optional<Response<SpillableBody>> asSpillableBody(long threshold) {
+        return sendRequestAndWrapInOptional(getSpillableBodyHandler(threshold), Response::new);
+    }
+
     @Override
     public <T> Optional<Response<T>> as(HttpResponse.BodyHandler<T> bodyHandler) {
-        return sendRequestAndWrapInOptional(bodyHandler, Response::new);
+        return sendRequestAndWrapInOptional(getUnbufferedBodyHandler(bodyHandler), Response::new);
     }
 
     private HttpResponse.BodyHandler<String> getStringBodyHandler() {
-        return requestConfiguration.isAcceptCompressed() ? new CompressedStringBodyHandler() : BodyHandlers.ofString();
+        if (isBodyLimited() || cvurlConfig.getMappingExecutor().isPresent()) {
+            // The limits apply to the decompressed body, and the decompression is dispatched to the mapping executor,
+            // neither of which the single-pass string decoding supports.
+            return getBufferedBodyHandler(BodyHandlers.ofString());
+        }
+
+        return requestConfiguration.isAcceptCompressed() ?
+                new CompressedStringBodyHandler(cvurlConfig.getContentDecoderRegistry()) : BodyHandlers.ofString();
     }
 
     private HttpResponse.BodyHandler<InputStream> getStreamBodyHandler() {
-        return requestConfiguration.isAcceptCompressed() ? new CompressedInputStreamBodyHandler() : BodyHandlers.ofInputStream();
+        return getUnbufferedBodyHandler(BodyHandlers.ofInputStream());
+    }
+
+    private HttpResponse.BodyHandler<byte[]> getByteArrayBodyHandler() {
+        return getBufferedBodyHandler(BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse.BodyHandler<PooledBody> getPooledBodyHandler() {
+        return getBufferedBodyHandler(responseInfo -> new PooledBodySubscriber(cvurlConfig.getBufferPool()));
+    }
+
+    private HttpResponse.BodyHandler<SpillableBody> getSpillableBodyHandler(long threshold) {
+        return getUnbufferedBodyHandler(responseInfo -> new SpillingBodySubscriber(threshold,
+                responseInfo.headers().firstValueAsLong(HttpHeader.CONTENT_LENGTH).orElse(-1)));
     }
 
-    private <T> T asObject(Function<HttpResponse<String>, T> responseMapper) {
+    /**
+     * Returns the handler of the body kept in memory until it is received completely, which is limited
+     * by the maximum body size of the request and the memory budget of the configuration.
+     */
+    private <T> HttpResponse.BodyHandler<T> getBufferedBodyHandler(HttpResponse.BodyHandler<T> bodyHandler) {
+        return getBodyHandler(isBodyLimited() ? new LimitingBodyHandler<>(bodyHandler,
+                requestConfiguration.getMaxBodySize().orElse(-1), cvurlConfig.getMemoryBudget()) : bodyHandler);
+    }
+
+    /**
+     * Returns the handler of the body that is streamed, spilled to a file or received by a handler of the caller,
+     * which is limited by the maximum body size of the request only, since the body is not kept in memory
+     * as a whole.
+     */
+    private <T> HttpResponse.BodyHandler<T> getUnbufferedBodyHandler(HttpResponse.BodyHandler<T> bodyHandler) {
+        OptionalLong maxBodySize = requestConfiguration.getMaxBodySize();
+
+        return getBodyHandler(maxBodySize.isPresent() ? new LimitingBodyHandler<>(bodyHandler,
+                maxBodySize.getAsLong(), MemoryBudget.unlimited()) : bodyHandler);
+    }
+
+    private <T> HttpResponse.BodyHandler<T> getBodyHandler(HttpResponse.BodyHandler<T> bodyHandler) {
+        return requestConfiguration.isAcceptCompressed() ? new DecompressingBodyHandler<>(bodyHandler,
+                cvurlConfig.getContentDecoderRegistry(), cvurlConfig.getMappingExecutor().orElse(null)) : bodyHandler;
+    }
+
+    /**
+     * Maps the response on the mapping executor of the configuration, if any, instead of the thread
+     * that completes the response.
+     */
+    private <T, U> CompletableFuture<U> thenMap(CompletableFuture<T> response, Function<? super T, ? extends U> mapper) {
+        return cvurlConfig.getMappingExecutor()
+                .map(executor -> response.<U>thenApplyAsync(mapper, executor))
+                .orElseGet(() -> response.thenApply(mapper));
+    }
+
+    private boolean isBodyLimited() {
+        return requestConfiguration.getMaxBodySize().isPresent() || !cvurlConfig.getMemoryBudget().isUnlimited();
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse.BodySubscriber<Object> getMultipartBodySubscriber(HttpHeaders headers) {
+        // The body that is not multipart is read to be reported along with the exception.
+        return (HttpResponse.BodySubscriber<Object>) MultipartBodySubscriber.boundaryOf(headers)
+                .<HttpResponse.BodySubscriber<?>>map(MultipartBodySubscriber::new)
+                .orElseGet(HttpResponse.BodySubscribers::ofByteArray);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<ResponsePart> readParts(HttpResponse<Object> response) {
+        if (response.body() instanceof byte[]) {
+            var stringResponse = new StringBodyHttpResponse((HttpResponse<byte[]>) (HttpResponse<?>) response);
+
+            throw new UnexpectedResponseException("Received response with Content-Type: " +
+                    response.headers().firstValue(HttpHeader.CONTENT_TYPE).orElse("none") +
+                    ",expected: multipart with boundary;Response: " + stringResponse.body(),
+                    new Response<>(stringResponse));
+        }
+
+        return (Stream<ResponsePart>) response.body();
+    }
+
+    private <T, U> T sendRequestOrThrow(HttpResponse.BodyHandler<U> bodyHandler,
+                                        Function<HttpResponse<U>, T> responseMapper) {
         try {
-            return sendRequest(getStringBodyHandler(), responseMapper);
+            return sendRequest(bodyHandler, responseMapper);
         } catch (InterruptedException ie) {
             Thread.currentThread().interrupt();
             throw new RequestExecutionException(ie.getMessage(), ie);
@@ -169,21 +477,64 @@ public final class CVurlRequest implements Request {
         }
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, Class<T> type, int statusCode) {
+    private <T> T parseResponse(HttpResponse<byte[]> response, Class<T> type, int statusCode) {
         checkIfStatusCodesAreEqual(response, statusCode);
-        return cvurlConfig.getGenericMapper().readValue(response.body(), type);
+        return cvurlConfig.getGenericMapper().readValue(getUtf8Body(response), type);
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, BodyType<T> type, int statusCode) {
+    private <T> T parseResponse(HttpResponse<byte[]> response, BodyType<T> type, int statusCode) {
         checkIfStatusCodesAreEqual(response, statusCode);
-        return cvurlConfig.getGenericMapper().readValue(response.body(), type);
+        return cvurlConfig.getGenericMapper().readValue(getUtf8Body(response), type);
     }
 
-    private void checkIfStatusCodesAreEqual(HttpResponse<String> response, int statusCode) {
+    private <T> T readResponseBody(HttpResponse<byte[]> response, Class<T> type) {
+        try {
+            return cvurlConfig.getGenericMapper().readValue(getUtf8Body(response), type);
+        } catch (MappingException e) {
+            throw new ResponseMappingException(e.getMessage(), e, new Response<>(new StringBodyHttpResponse(response)));
+        }
+    }
+
+    private <T> T readResponseBody(HttpResponse<byte[]> response, BodyType<T> type) {
+        try {
+            return cvurlConfig.getGenericMapper().readValue(getUtf8Body(response), type);
+        } catch (MappingException e) {
+            throw new ResponseMappingException(e.getMessage(), e, new Response<>(new StringBodyHttpResponse(response)));
+        }
+    }
+
+    /**
+     * Returns the body encoded in UTF-8, the encoding that the mappers accept in bytes,
+     * transcoding it from the charset of the Content-Type header if needed.
+     */
+    private static byte[] getUtf8Body(HttpResponse<byte[]> response) {
+        return Charsets.toUtf8(response.body(), Charsets.fromHeaders(response.headers()));
+    }
+
+    private <T> Stream<T> readValues(InputStream body, Class<T> type, String pointer) {
+        try {
+            return cvurlConfig.getGenericMapper().readValues(body, pointer, type);
+        } catch (RuntimeException e) {
+            closeQuietly(body);
+            throw e;
+        }
+    }
+
+    private void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error while closing response body: {}", e.getMessage());
+        }
+    }
+
+    private void checkIfStatusCodesAreEqual(HttpResponse<byte[]> response, int statusCode) {
         if (response.statusCode() != statusCode) {
+            var stringResponse = new StringBodyHttpResponse(response);
+
             throw new UnexpectedResponseException("Received response with status code: " + response.statusCode() +
-                    ",expected: " + statusCode + ";Response: " + response.body(),
-                    new Response<>(response));
+                    ",expected: " + statusCode + ";Response: " + stringResponse.body(),
+                    new Response<>(stringResponse));
         }
     }
 
@@ -0,0 +1,322 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.constant.MIMEType;
+import coresearch.cvurl.io.constant.UploadProtocol;
+import coresearch.cvurl.io.exception.UnexpectedResponseException;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.internal.util.FileRegionPublisher;
+import coresearch.cvurl.io.model.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import static java.lang.String.format;
+
+/**
+ * The upload of a file in chunks of a fixed size that are sent concurrently with the specified {@link UploadProtocol}.
+ *
+ * <p> Up to {@code parallelism} chunks are sent at a time, every one of them read from the file as it is sent.
+ * A chunk that fails with an I/O error or a transient error response is sent again, up to {@value #MAX_ATTEMPTS}
+ * times. With the tus protocol only the rest of the chunk that the server has not received is sent again.
+ * Once all the chunks are uploaded, the upload is committed with one more request.
+ *
+ * @since 1.6
+ */
+final class ChunkedUpload {
+
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    static final int DEFAULT_PARALLELISM = 4;
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedUpload.class);
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String PARTIAL_CONCAT = "partial";
+    private static final String FINAL_CONCAT_PREFIX = "final;";
+    // The resumable upload protocols reuse 308, registered as Permanent Redirect, as Resume Incomplete.
+    private static final int RESUME_INCOMPLETE = HttpStatus.PERMANENT_REDIRECT;
+
+    private final HttpClient httpClient;
+    private final HttpRequest httpRequest;
+    private final Path file;
+    private final UploadProtocol protocol;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final List<CompletableFuture<?>> exchanges = new CopyOnWriteArrayList<>();
+
+    private FileChannel channel;
+    private long size;
+    private int chunkCount;
+    private URI[] partialUploads;
+    private volatile boolean failed;
+
+    ChunkedUpload(HttpClient httpClient, HttpRequest httpRequest, Path file, UploadProtocol protocol,
+                  int chunkSize, int parallelism) {
+        this.httpClient = httpClient;
+        this.httpRequest = httpRequest;
+        this.file = file;
+        this.protocol = protocol;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Starts the upload.
+     *
+     * @return the future that completes with the response to the commit request
+     */
+    CompletableFuture<HttpResponse<String>> start() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            size = channel.size();
+        } catch (IOException e) {
+            closeChannel();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+
+        if (protocol == UploadProtocol.TUS) {
+            // An empty file is still uploaded as one empty partial upload to be concatenated.
+            chunkCount = Math.max(chunkCount, 1);
+            partialUploads = new URI[chunkCount];
+        }
+
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(parallelism, chunkCount); i++) {
+            workers.add(nextChunk());
+        }
+
+        // The file is closed before the upload is reported as completed.
+        return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> commit())
+                .whenComplete((response, throwable) -> closeChannel());
+    }
+
+    /**
+     * Cancels the upload. The chunks that were sent are not committed.
+     */
+    void cancel() {
+        failed = true;
+        exchanges.forEach(exchange -> exchange.cancel(true));
+    }
+
+    private CompletableFuture<Void> nextChunk() {
+        int index = nextChunk.getAndIncrement();
+
+        if (index >= chunkCount || failed) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return uploadChunk(index, 1).thenCompose(ignored -> nextChunk());
+    }
+
+    private CompletableFuture<Void> uploadChunk(int index, int attempt) {
+        long offset = (long) index * chunkSize;
+        long length = Math.min(chunkSize, size - offset);
+
+        CompletableFuture<Void> upload = protocol == UploadProtocol.TUS ?
+                uploadTusChunk(index, offset, length) :
+                uploadRangeChunk(offset, length);
+
+        return upload.handle((ignored, throwable) -> {
+            if (throwable == null) {
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                    throwable.getCause() : throwable;
+
+            if (failed || attempt >= MAX_ATTEMPTS || !isRetryable(cause)) {
+                // The other chunks are not sent once the upload has failed.
+                failed = true;
+                return CompletableFuture.<Void>failedFuture(cause);
+            }
+
+            LOGGER.warn("Attempt {} to upload the chunk {} of {} failed, retrying: {}", attempt, index, file,
+                    cause.getMessage());
+
+            return CompletableFuture.runAsync(() -> { },
+                            CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS * attempt, TimeUnit.MILLISECONDS))
+                    .thenCompose(delayed -> failed ?
+                            CompletableFuture.failedFuture(new CancellationException()) : uploadChunk(index, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Void> uploadRangeChunk(long offset, long length) {
+        HttpRequest request = copy(httpRequest.uri(), httpRequest.method(),
+                FileRegionPublisher.of(channel, offset, length))
+                .header(HttpHeader.CONTENT_RANGE, format("bytes %d-%d/%d", offset, offset + length - 1, size))
+                .build();
+
+        // The servers that keep the upload open until it is committed respond with Resume Incomplete.
+        return send(request, status -> isSuccessful(status) || status == RESUME_INCOMPLETE)
+                .thenAccept(response -> { });
+    }
+
+    private CompletableFuture<Void> uploadTusChunk(int index, long offset, long length) {
+        URI partialUpload = partialUploads[index];
+
+        CompletableFuture<Long> received;
+
+        if (partialUpload == null) {
+            HttpRequest creation = tusRequest(httpRequest.uri(), HttpMethod.POST.name(),
+                    HttpRequest.BodyPublishers.noBody())
+                    .header(HttpHeader.UPLOAD_CONCAT, PARTIAL_CONCAT)
+                    .header(HttpHeader.UPLOAD_LENGTH, String.valueOf(length))
+                    .build();
+
+            received = send(creation, status -> status == HttpStatus.CREATED).thenApply(response -> {
+                partialUploads[index] = location(response);
+                return 0L;
+            });
+        } else {
+            // The server reports how much of the chunk it received before the failure.
+            HttpRequest status = tusRequest(partialUpload, HttpMethod.HEAD.name(), HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+            received = send(status, ChunkedUpload::isSuccessful).thenApply(response -> uploadOffset(response, length));
+        }
+
+        return received.thenCompose(done -> {
+            if (done == length) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            HttpRequest patch = tusRequest(partialUploads[index], HttpMethod.PATCH.name(),
+                    FileRegionPublisher.of(channel, offset + done, length - done))
+                    .header(HttpHeader.UPLOAD_OFFSET, String.valueOf(done))
+                    .setHeader(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_OFFSET_OCTET_STREAM)
+                    .build();
+
+            return send(patch, status -> status == HttpStatus.NO_CONTENT).thenAccept(response -> {
+                if (uploadOffset(response, length) != length) {
+                    throw new UnexpectedResponseException(format("The server received %s bytes of the chunk " +
+                                    "of %d bytes", response.headers().firstValue(HttpHeader.UPLOAD_OFFSET).orElse(null),
+                            length), new Response<>(response));
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> commit() {
+        HttpRequest request;
+
+        if (protocol == UploadProtocol.TUS) {
+            StringBuilder concat = new StringBuilder(FINAL_CONCAT_PREFIX);
+            for (int i = 0; i < partialUploads.length; i++) {
+                concat.append(i == 0 ? "" : " ").append(partialUploads[i]);
+            }
+
+            request = tusRequest(httpRequest.uri(), HttpMethod.POST.name(), HttpRequest.BodyPublishers.noBody())
+                    .header(HttpHeader.UPLOAD_CONCAT, concat.toString())
+                    .build();
+        } else {
+            request = copy(httpRequest.uri(), httpRequest.method(), HttpRequest.BodyPublishers.noBody())
+                    .header(HttpHeader.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        return send(request, ChunkedUpload::isSuccessful);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, IntPredicate expectedStatus) {
+        CompletableFuture<HttpResponse<String>> exchange = httpClient.sendAsync(request,
+                responseInfo -> HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(responseInfo.headers())));
+        exchanges.add(exchange);
+
+        return exchange.whenComplete((response, throwable) -> exchanges.remove(exchange)).thenApply(response -> {
+            if (!expectedStatus.test(response.statusCode())) {
+                throw new UnexpectedResponseException(format("Received response with status code: %d to the %s " +
+                                "request to %s", response.statusCode(), request.method(), request.uri()),
+                        new Response<>(response));
+            }
+
+            return response;
+        });
+    }
+
+    private HttpRequest.Builder tusRequest(URI uri, String method, HttpRequest.BodyPublisher bodyPublisher) {
+        return copy(uri, method, bodyPublisher).header(HttpHeader.TUS_RESUMABLE, TUS_VERSION);
+    }
+
+    private HttpRequest.Builder copy(URI uri, String method, HttpRequest.BodyPublisher bodyPublisher) {
+        // The headers of the request, such as the credentials, are sent with every request of the upload.
+        return ContentRange.copyWithoutRange(httpRequest)
+                .uri(uri)
+                .method(method, bodyPublisher);
+    }
+
+    private URI location(HttpResponse<String> response) {
+        return response.headers().firstValue(HttpHeader.LOCATION)
+                .map(location -> httpRequest.uri().resolve(location))
+                .orElseThrow(() -> new UnexpectedResponseException(
+                        "The response to the creation of the upload has no Location header", new Response<>(response)));
+    }
+
+    private static long uploadOffset(HttpResponse<String> response, long length) {
+        try {
+            long offset = response.headers().firstValue(HttpHeader.UPLOAD_OFFSET).map(Long::parseLong).orElse(-1L);
+
+            if (offset >= 0 && offset <= length) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // The offset is reported as invalid below.
+        }
+
+        throw new UnexpectedResponseException("The response has no valid Upload-Offset header",
+                new Response<>(response));
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof IOException) {
+            return true;
+        }
+
+        if (cause instanceof UnexpectedResponseException) {
+            int status = ((UnexpectedResponseException) cause).getResponse().status();
+            return status == HttpStatus.REQUEST_TIMEOUT || status >= HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+
+        return false;
+    }
+
+    private static boolean isSuccessful(int status) {
+        return status >= HttpStatus.OK && status < HttpStatus.MULTIPLE_CHOICES;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error while closing the uploaded file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.util.Optional;
+
+/**
+ * The byte range of the representation enclosed in a partial response, as specified by the Content-Range header.
+ *
+ * @since 1.6
+ */
+final class ContentRange {
+
+    private static final String BYTES_UNIT = "bytes ";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final String UNKNOWN_LENGTH = "*";
+
+    private final long first;
+    private final long last;
+    private final long length;
+
+    private ContentRange(long first, long last, long length) {
+        this.first = first;
+        this.last = last;
+        this.length = length;
+    }
+
+    /**
+     * Parses the Content-Range header of a partial response, e.g. {@code bytes 0-499/1234} or {@code bytes 0-499/*}.
+     *
+     * @param headers - the response headers
+     * @return the range, or empty {@link Optional} if the header is absent or is not a valid byte range
+     */
+    static Optional<ContentRange> fromHeaders(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.CONTENT_RANGE).flatMap(ContentRange::parse);
+    }
+
+    /**
+     * Returns the strong entity tag of the response, the weak ones cannot be used to validate ranges.
+     *
+     * @param headers - the response headers
+     * @return the entity tag, or empty {@link Optional} if the header is absent or the tag is weak
+     */
+    static Optional<String> strongEtag(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.ETAG).filter(etag -> !etag.startsWith(WEAK_ETAG_PREFIX));
+    }
+
+    /**
+     * Returns the validator of the response that can be used in the If-Range header,
+     * i.e. its strong entity tag or, if there is none, its modification date.
+     *
+     * @param headers - the response headers
+     * @return the validator, or empty {@link Optional} if the response has none
+     */
+    static Optional<String> validator(HttpHeaders headers) {
+        return strongEtag(headers).or(() -> headers.firstValue(HttpHeader.LAST_MODIFIED));
+    }
+
+    /**
+     * Formats the value of the Range header that requests the bytes from the first to the last one inclusive,
+     * or to the end of the representation if the last one is negative.
+     */
+    static String rangeHeader(long first, long last) {
+        return "bytes=" + first + "-" + (last < 0 ? "" : String.valueOf(last));
+    }
+
+    /**
+     * Creates the builder of a copy of the request to which range headers can be added. The range and compression
+     * headers are not copied, as the ranges of a compressed representation are not the ranges of the resource.
+     */
+    static HttpRequest.Builder copyWithoutRange(HttpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), request.bodyPublisher().orElseGet(HttpRequest.BodyPublishers::noBody))
+                .expectContinue(request.expectContinue());
+
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+        request.headers().map().forEach((name, values) -> {
+            if (!name.equalsIgnoreCase(HttpHeader.RANGE) && !name.equalsIgnoreCase(HttpHeader.IF_RANGE)
+                    && !name.equalsIgnoreCase(HttpHeader.ACCEPT_ENCODING)) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+
+        return builder;
+    }
+
+    /**
+     * Returns the position of the first byte of the range.
+     */
+    long getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the position of the last byte of the range inclusive.
+     */
+    long getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the length of the complete representation, or a negative value if it is unknown.
+     */
+    long getLength() {
+        return length;
+    }
+
+    private static Optional<ContentRange> parse(String value) {
+        String trimmed = value.trim();
+
+        if (!trimmed.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return Optional.empty();
+        }
+
+        String range = trimmed.substring(BYTES_UNIT.length()).trim();
+        int dash = range.indexOf('-');
+        int slash = range.indexOf('/');
+
+        if (dash <= 0 || slash < dash) {
+            return Optional.empty();
+        }
+
+        try {
+            long first = Long.parseLong(range.substring(0, dash).trim());
+            long last = Long.parseLong(range.substring(dash + 1, slash).trim());
+            String lengthValue = range.substring(slash + 1).trim();
+            long length = UNKNOWN_LENGTH.equals(lengthValue) ? -1 : Long.parseLong(lengthValue);
+
+            if (first < 0 || last < first || length >= 0 && last >= length) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new ContentRange(first, last, length));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
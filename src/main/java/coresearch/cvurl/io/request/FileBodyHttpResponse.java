@@ -0,0 +1,72 @@
+package coresearch.cvurl.io.request;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * The view of an {@link HttpResponse} whose body was written to a file by other means than its body subscriber,
+ * such as a download that combines several responses, that exposes the path to the file as the body.
+ *
+ * @since 1.6
+ */
+final class FileBodyHttpResponse implements HttpResponse<Path> {
+
+    private final HttpResponse<?> response;
+    private final Path file;
+
+    FileBodyHttpResponse(HttpResponse<?> response, Path file) {
+        this.response = response;
+        this.file = file;
+    }
+
+    @Override
+    public int statusCode() {
+        return response.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return response.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<Path>> previousResponse() {
+        return response.previousResponse().map(previous -> new FileBodyHttpResponse(previous, null));
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return response.headers();
+    }
+
+    @Override
+    public Path body() {
+        return file;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return response.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return response.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return response.version();
+    }
+
+    @Override
+    public String toString() {
+        return response.toString();
+    }
+}
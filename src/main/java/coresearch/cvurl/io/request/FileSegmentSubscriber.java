@@ -0,0 +1,109 @@
+package coresearch.cvurl.io.request;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * The body subscriber that writes the body to a file channel with positioned writes, starting at the specified
+ * position. Several subscribers can write the different segments of the same file concurrently.
+ * The body is {@code null}, the subscriber only completes when the data is written.
+ * The written data can be observed, e.g. to compute its digest, without reading it back.
+ *
+ * @since 1.6
+ */
+final class FileSegmentSubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final FileChannel channel;
+    private final long end;
+    private final Consumer<ByteBuffer> listener;
+
+    private Flow.Subscription subscription;
+    private long position;
+
+    /**
+     * Creates an instance of the {@link FileSegmentSubscriber} class.
+     *
+     * @param channel - the channel to write to
+     * @param position - the position of the first byte of the body in the file
+     * @param end - the position after the last byte of the body in the file, or a negative value if unknown
+     */
+    FileSegmentSubscriber(FileChannel channel, long position, long end) {
+        this(channel, position, end, buffer -> { });
+    }
+
+    /**
+     * Creates an instance of the {@link FileSegmentSubscriber} class.
+     *
+     * @param channel - the channel to write to
+     * @param position - the position of the first byte of the body in the file
+     * @param end - the position after the last byte of the body in the file, or a negative value if unknown
+     * @param listener - the listener that receives every buffer once it is written completely, in order
+     */
+    FileSegmentSubscriber(FileChannel channel, long position, long end, Consumer<ByteBuffer> listener) {
+        this.channel = channel;
+        this.position = position;
+        this.end = end;
+        this.listener = listener;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        try {
+            for (ByteBuffer buffer : item) {
+                if (end >= 0 && position + buffer.remaining() > end) {
+                    throw new IOException(format("The segment exceeds its expected end at %d", end));
+                }
+
+                ByteBuffer written = buffer.duplicate();
+
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+
+                listener.accept(written);
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (end >= 0 && position != end) {
+            result.completeExceptionally(new IOException(
+                    format("The segment ended at %d before its expected end at %d", position, end)));
+        } else {
+            result.complete(null);
+        }
+    }
+}
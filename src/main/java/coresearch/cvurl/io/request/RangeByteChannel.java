@@ -0,0 +1,408 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.BodyTooLargeException;
+import coresearch.cvurl.io.model.MemoryBudget;
+import coresearch.cvurl.io.request.handler.LimitingBodySubscriber;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.lang.String.format;
+
+/**
+ * The read-only channel over a remote resource that fetches the blocks of the resource with range requests
+ * when they are read.
+ *
+ * <p> The fetched blocks are kept in a least recently used cache of a fixed size. The missing blocks needed by a read
+ * are fetched with a single range request, together with the following blocks when the resource is read
+ * sequentially. The number of blocks read ahead doubles with every sequential read up to
+ * {@value #MAX_READ_AHEAD_BLOCKS} and drops to none on a random read. The resource is expected to stay the same
+ * while the channel is open, every request after the first one is conditional on its validator.
+ * If the server ignores the range and sends the whole resource, the channel keeps it and sends no more requests,
+ * provided that it fits in the cache, i.e. it is no larger than the block size multiplied by the maximum number
+ * of cached blocks. A larger resource fails the read with {@link IOException} as soon as its length is known.
+ *
+ * <p> The channel can be closed by another thread while a read waits for a range, which aborts the request
+ * and fails the read with {@link AsynchronousCloseException}.
+ *
+ * @since 1.6
+ */
+final class RangeByteChannel implements SeekableByteChannel {
+
+    static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    static final int DEFAULT_MAX_CACHED_BLOCKS = 64;
+
+    private static final int MAX_READ_AHEAD_BLOCKS = 16;
+    private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final HttpClient httpClient;
+    private final HttpRequest httpRequest;
+    private final int blockSize;
+    private final int maxCachedBlocks;
+    private final long maxResourceSize;
+    private final Map<Long, byte[]> cache;
+
+    private byte[] resource;
+
+    // A lock instead of a monitor, so that a virtual thread blocked on a range request does not pin its carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean open = true;
+    private volatile CompletableFuture<HttpResponse<byte[]>> exchange;
+
+    private long position;
+    private long size = -1;
+    private long lastReadEnd = -1;
+    private int readAhead;
+    private String etag;
+    private String lastModified;
+
+    RangeByteChannel(HttpClient httpClient, HttpRequest httpRequest, int blockSize, int maxCachedBlocks) {
+        this.httpClient = httpClient;
+        this.httpRequest = httpRequest;
+        this.blockSize = blockSize;
+        this.maxCachedBlocks = maxCachedBlocks;
+        this.maxResourceSize = Math.min((long) blockSize * maxCachedBlocks, MAX_ARRAY_SIZE);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        lock.lock();
+
+        try {
+            return readLocked(dst);
+        } finally {
+            releaseIfClosed();
+            lock.unlock();
+        }
+    }
+
+    private int readLocked(ByteBuffer dst) throws IOException {
+        ensureOpen();
+
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        readAhead = position == lastReadEnd ? Math.min(Math.max(readAhead * 2, 1), MAX_READ_AHEAD_BLOCKS) : 0;
+        int read = 0;
+
+        while (dst.hasRemaining() && (size < 0 || position < size)) {
+            if (resource != null) {
+                int length = (int) Math.min(resource.length - position, dst.remaining());
+                dst.put(resource, (int) position, length);
+                position += length;
+                read += length;
+                break;
+            }
+
+            long index = position / blockSize;
+            byte[] block = cache.get(index);
+
+            if (block == null) {
+                long lastNeeded = (position + dst.remaining() - 1) / blockSize;
+                fetch(index, (int) Math.min(lastNeeded - index + 1 + readAhead, maxCachedBlocks));
+
+                if (resource != null) {
+                    continue;
+                }
+
+                block = cache.get(index);
+
+                if (block == null) {
+                    // The resource ends before the position.
+                    break;
+                }
+            }
+
+            int offset = (int) (position - index * blockSize);
+            if (offset >= block.length) {
+                break;
+            }
+
+            int length = Math.min(block.length - offset, dst.remaining());
+            dst.put(block, offset, length);
+            position += length;
+            read += length;
+        }
+
+        lastReadEnd = position;
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        lock.lock();
+
+        try {
+            ensureOpen();
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        lock.lock();
+
+        try {
+            ensureOpen();
+
+            if (newPosition < 0) {
+                throw new IllegalArgumentException("The position must not be negative, got: " + newPosition);
+            }
+
+            position = newPosition;
+            return this;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        lock.lock();
+
+        try {
+            ensureOpen();
+
+            if (size < 0) {
+                // The first byte is enough to learn the length from the Content-Range header.
+                store(send(0, 0), 0, 1);
+            }
+
+            if (size < 0) {
+                throw new IOException("The server did not report the length of the resource " + httpRequest.uri());
+            }
+
+            return size;
+        } finally {
+            releaseIfClosed();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Closes the channel without waiting for a read in progress, whose request is cancelled.
+     */
+    @Override
+    public void close() {
+        open = false;
+
+        CompletableFuture<HttpResponse<byte[]>> current = exchange;
+        if (current != null) {
+            current.cancel(true);
+        }
+
+        // A read in progress releases the data itself when it fails.
+        if (lock.tryLock()) {
+            try {
+                releaseIfClosed();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void fetch(long index, int count) throws IOException {
+        long first = index * blockSize;
+
+        // The blocks that are already cached are not fetched again, and neither are the ones past the end.
+        int missing = 1;
+        while (missing < count && !cache.containsKey(index + missing)
+                && (size < 0 || (index + missing) * blockSize < size)) {
+            missing++;
+        }
+
+        long last = first + (long) missing * blockSize - 1;
+        if (size >= 0) {
+            last = Math.min(last, size - 1);
+        }
+
+        store(send(first, last), index, missing);
+
+        if (resource == null && !cache.containsKey(index) && (size < 0 || first < size)) {
+            throw new IOException(format("The server returned less than a block of the range %s of the resource %s",
+                    ContentRange.rangeHeader(first, last), httpRequest.uri()));
+        }
+    }
+
+    private HttpResponse<byte[]> send(long first, long last) throws IOException {
+        HttpRequest.Builder builder = ContentRange.copyWithoutRange(httpRequest)
+                .header(HttpHeader.RANGE, ContentRange.rangeHeader(first, last));
+
+        // A range of a different version of the resource would corrupt the data read before.
+        if (etag != null) {
+            builder.header(HttpHeader.IF_MATCH, etag);
+        } else if (lastModified != null) {
+            builder.header(HttpHeader.IF_UNMODIFIED_SINCE, lastModified);
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> current = httpClient.sendAsync(builder.build(), this::bodySubscriber);
+        exchange = current;
+
+        try {
+            // Closed before the exchange was published, so close() could not cancel it.
+            if (!open) {
+                current.cancel(true);
+            }
+
+            return current.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new ClosedByInterruptException();
+        } catch (CancellationException e) {
+            throw new AsynchronousCloseException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (!open) {
+                throw new AsynchronousCloseException();
+            }
+
+            if (cause instanceof BodyTooLargeException) {
+                throw new IOException(format("The server does not support ranges, and the resource %s is larger " +
+                        "than the %d bytes the channel can keep", httpRequest.uri(), maxResourceSize), cause);
+            }
+
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        } finally {
+            exchange = null;
+        }
+    }
+
+    private HttpResponse.BodySubscriber<byte[]> bodySubscriber(HttpResponse.ResponseInfo responseInfo) {
+        HttpResponse.BodySubscriber<byte[]> subscriber = HttpResponse.BodySubscribers.ofByteArray();
+
+        if (responseInfo.statusCode() != HttpStatus.OK) {
+            return subscriber;
+        }
+
+        // The whole resource is kept only if it fits in the cache, and fails as soon as its length is known.
+        return new LimitingBodySubscriber<>(subscriber, maxResourceSize, MemoryBudget.unlimited(),
+                responseInfo.headers().firstValueAsLong(HttpHeader.CONTENT_LENGTH).orElse(-1));
+    }
+
+    private void store(HttpResponse<byte[]> response, long index, int count) throws IOException {
+        byte[] body = response.body();
+        long first = index * blockSize;
+
+        switch (response.statusCode()) {
+            case HttpStatus.PARTIAL_CONTENT:
+                Optional<ContentRange> range = ContentRange.fromHeaders(response.headers());
+
+                if (range.isEmpty() || range.get().getFirst() != first) {
+                    throw new IOException(format("Received the range %s instead of the requested one starting at %d",
+                            response.headers().firstValue(HttpHeader.CONTENT_RANGE).orElse(null), first));
+                }
+
+                if (range.get().getLength() >= 0) {
+                    size = range.get().getLength();
+                }
+
+                rememberValidator(response.headers());
+                cacheBlocks(body, index, count);
+                break;
+            case HttpStatus.OK:
+                // The server does not support ranges and sent the whole resource, which is kept as a whole,
+                // since any other part of it would have to be downloaded whole again.
+                size = body.length;
+                resource = body;
+                cache.clear();
+                break;
+            case HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE:
+                response.headers().firstValue(HttpHeader.CONTENT_RANGE)
+                        .map(value -> value.substring(value.lastIndexOf('/') + 1).trim())
+                        .ifPresent(length -> {
+                            try {
+                                size = Long.parseLong(length);
+                            } catch (NumberFormatException e) {
+                                // The length stays unknown, and so the resource is considered to end here.
+                            }
+                        });
+                size = size < 0 ? first : size;
+                break;
+            case HttpStatus.PRECONDITION_FAILED:
+                throw new IOException("The resource " + httpRequest.uri() + " has changed since it was first read");
+            default:
+                throw new IOException(format("Received response with status code: %d to the request of the range " +
+                        "starting at %d of the resource %s", response.statusCode(), first, httpRequest.uri()));
+        }
+    }
+
+    private void cacheBlocks(byte[] body, long index, int count) {
+        for (int i = 0; i < count; i++) {
+            long from = (long) i * blockSize;
+            long to = Math.min(from + blockSize, body.length);
+
+            // A block cut short is only complete if it is the last one of the resource.
+            if (from >= body.length || to - from < blockSize && (index + i) * blockSize + (to - from) != size) {
+                break;
+            }
+
+            cache.put(index + i, Arrays.copyOfRange(body, (int) from, (int) to));
+        }
+    }
+
+    private void rememberValidator(HttpHeaders headers) {
+        if (etag == null && lastModified == null) {
+            etag = ContentRange.strongEtag(headers).orElse(null);
+            lastModified = etag == null ? headers.firstValue(HttpHeader.LAST_MODIFIED).orElse(null) : null;
+        }
+    }
+
+    private void releaseIfClosed() {
+        if (!open) {
+            resource = null;
+            cache.clear();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
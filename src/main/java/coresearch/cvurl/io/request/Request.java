@@ -1,14 +1,25 @@
 package coresearch.cvurl.io.request;
 
+import coresearch.cvurl.io.constant.DigestAlgorithm;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.exception.UnexpectedResponseException;
 import coresearch.cvurl.io.mapper.BodyType;
+import coresearch.cvurl.io.model.PooledBody;
 import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.model.SpillableBody;
+import coresearch.cvurl.io.multipart.ResponsePart;
+import coresearch.cvurl.io.sse.ServerSentEvent;
 
 import java.io.InputStream;
 import java.net.http.HttpResponse;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * The interface describes a protocol for sending HTTP requests.
@@ -99,8 +110,39 @@ public interface Request {
      */
     CompletableFuture<Response<InputStream>> asyncAsStream(HttpResponse.PushPromiseHandler<InputStream> pph);
 
+    /**
+     * Sends the current request asynchronously. The body is kept in the buffers of the pool
+     * of the {@link coresearch.cvurl.io.model.CVurlConfig}, which must be returned to the pool
+     * with the {@link PooledBody#release()} method once the body is read.
+     *
+     * @return an instance of the {@link CompletableFuture} class with a response that contains body as {@link PooledBody}
+     * @since 1.6
+     */
+    CompletableFuture<Response<PooledBody>> asyncAsPooledBody();
+
+    /**
+     * Sends the current request asynchronously. The body is kept in memory while it does not exceed
+     * {@link SpillableBody#DEFAULT_THRESHOLD}, otherwise it is written to a temporary file,
+     * which is deleted when the {@link SpillableBody} is closed.
+     *
+     * @return an instance of the {@link CompletableFuture} class with a response that contains body as {@link SpillableBody}
+     * @since 1.6
+     */
+    CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody();
+
+    /**
+     * Sends the current request asynchronously. The body is kept in memory while it does not exceed the threshold,
+     * otherwise it is written to a temporary file, which is deleted when the {@link SpillableBody} is closed.
+     *
+     * @param threshold - the size in bytes above which the body is written to a temporary file
+     * @return an instance of the {@link CompletableFuture} class with a response that contains body as {@link SpillableBody}
+     * @since 1.6
+     */
+    CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody(long threshold);
+
     /**
      * Sends the current request asynchronously. Applies provided bodyHandler to the response body.
+     * If the compressed response body is accepted, the body is decompressed before it is passed to the body handler.
      *
      * @param bodyHandler - the body handler that applies to the response body
      * @return an instance of the {@link CompletableFuture} class with a response that contains body
@@ -110,6 +152,7 @@ public interface Request {
 
     /**
      * Sends the current request asynchronously. Applies provided bodyHandler to the response body.
+     * If the compressed response body is accepted, the body is decompressed before it is passed to the body handler.
      *
      * @param bodyHandler - the body handler that applies to the response body
      * @param pph - the push promise handler
@@ -162,6 +205,223 @@ public interface Request {
      */
     <T> T asObject(BodyType<T> type);
 
+    /**
+     * Sends the current request asynchronously and returns the publisher that emits the elements
+     * of the JSON array in the response body one by one as they are received.
+     * Every subscription sends the request anew.
+     *
+     * @param type - the type of object to which the array elements should be converted
+     * @param <T> - the type of object to which the array elements should be converted
+     * @return the publisher of the array elements that terminates with {@link coresearch.cvurl.io.exception.MappingException}
+     * in case of any issues during the conversion process
+     * @since 1.6
+     */
+    <T> Flow.Publisher<T> asyncAsPublisherOf(Class<T> type);
+
+    /**
+     * Sends the current request asynchronously and returns the publisher that emits the elements
+     * of the JSON array located by the JSON pointer (RFC 6901) in the response body one by one as they are received.
+     * Every subscription sends the request anew.
+     *
+     * @param type - the type of object to which the array elements should be converted
+     * @param pointer - the JSON pointer to the array, e.g. {@code /data/items}; an empty string points to the root
+     * @param <T> - the type of object to which the array elements should be converted
+     * @return the publisher of the array elements that terminates with {@link coresearch.cvurl.io.exception.MappingException}
+     * in case of any issues during the conversion process
+     * @since 1.6
+     */
+    <T> Flow.Publisher<T> asyncAsPublisherOf(Class<T> type, String pointer);
+
+    /**
+     * Returns the publisher of the events received from the Server-Sent Events stream of the current request.
+     * Every subscription opens its own connection, which is re-established with the {@code Last-Event-ID} header
+     * when the stream ends or the connection fails, until the subscription is cancelled.
+     *
+     * @return the publisher of the events with the data as strings
+     * @since 1.6
+     */
+    Flow.Publisher<ServerSentEvent<String>> asyncAsEventStream();
+
+    /**
+     * Returns the publisher of the events received from the Server-Sent Events stream of the current request.
+     * Every subscription opens its own connection, which is re-established with the {@code Last-Event-ID} header
+     * when the stream ends or the connection fails, until the subscription is cancelled.
+     *
+     * @param type - the type of object to which the event data should be converted
+     * @param <T> - the type of object to which the event data should be converted
+     * @return the publisher of the events with the converted data that terminates with {@link MappingException}
+     * in case of any issues during the conversion process
+     * @since 1.6
+     */
+    <T> Flow.Publisher<ServerSentEvent<T>> asyncAsEventStream(Class<T> type);
+
+    /**
+     * Sends the current request synchronously and lazily converts the elements of the JSON array
+     * in the response body one by one, so that only one element is kept in memory at a time.
+     * The returned stream should be closed to release the connection if it is not consumed completely.
+     *
+     * @param type - the type of object to which the array elements should be converted
+     * @param <T> - the type of object to which the array elements should be converted
+     * @return a stream of the array elements, which throws {@link coresearch.cvurl.io.exception.MappingException}
+     * in case of any issues during the conversion process
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * @since 1.6
+     */
+    <T> Stream<T> asStreamOf(Class<T> type);
+
+    /**
+     * Sends the current request synchronously and lazily converts the elements of the JSON array located
+     * by the JSON pointer (RFC 6901) in the response body one by one, so that only one element is kept in memory at a time.
+     * The returned stream should be closed to release the connection if it is not consumed completely.
+     *
+     * @param type - the type of object to which the array elements should be converted
+     * @param pointer - the JSON pointer to the array, e.g. {@code /data/items}; an empty string points to the root
+     * @param <T> - the type of object to which the array elements should be converted
+     * @return a stream of the array elements, which throws {@link coresearch.cvurl.io.exception.MappingException}
+     * in case of any issues during the conversion process
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * @since 1.6
+     */
+    <T> Stream<T> asStreamOf(Class<T> type, String pointer);
+
+    /**
+     * Sends the current request synchronously and converts the lines of the newline-delimited JSON (NDJSON) body
+     * as they are received. The returned stream is available as soon as the response headers are received
+     * and should be closed to release the connection if it is not consumed completely.
+     *
+     * @param type - the type of object to which the lines should be converted
+     * @param <T> - the type of object to which the lines should be converted
+     * @return a stream of the converted lines, which throws {@link MappingException} on the first line
+     * that cannot be converted
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * @since 1.6
+     */
+    <T> Stream<T> asNdjson(Class<T> type);
+
+    /**
+     * Sends the current request synchronously and converts the lines of the newline-delimited JSON (NDJSON) body
+     * as they are received. The lines that cannot be converted are passed to the error handler and skipped.
+     * The returned stream is available as soon as the response headers are received
+     * and should be closed to release the connection if it is not consumed completely.
+     *
+     * @param type - the type of object to which the lines should be converted
+     * @param errorHandler - the handler that receives the lines that cannot be converted along with the error
+     * @param <T> - the type of object to which the lines should be converted
+     * @return a stream of the converted lines
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * @since 1.6
+     */
+    <T> Stream<T> asNdjson(Class<T> type, BiConsumer<String, MappingException> errorHandler);
+
+    /**
+     * Sends the current request synchronously and splits the multipart body, such as {@code multipart/mixed}
+     * or {@code multipart/byteranges}, into parts as it is received. Every part is available as soon as its headers
+     * are received, and its body can be read until the next part is requested. The returned stream
+     * should be closed to release the connection if it is not consumed completely.
+     *
+     * @return a stream of the parts, which throws {@link coresearch.cvurl.io.exception.ResponseBodyHandlingException}
+     * if the body is malformed or cannot be received
+     * @throws UnexpectedResponseException if the response is not multipart
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * @since 1.6
+     */
+    Stream<ResponsePart> asMultipart();
+
+    /**
+     * Sends the current request synchronously and writes the response body to the file, fetching the resource
+     * in up to 4 segments concurrently with range requests. The file is created or truncated, and it is deleted
+     * if the download fails. If the server does not support range requests, the body is written as a single stream.
+     *
+     * @param file - the file to write the response body to
+     * @return the first response received, with the path to the file as the body
+     * @throws UnexpectedResponseException if the server responds with an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * or the file cannot be written
+     * @since 1.6
+     */
+    Response<Path> download(Path file);
+
+    /**
+     * Sends the current request synchronously and writes the response body to the file, fetching the resource
+     * in up to {@code parallelism} segments concurrently with range requests. The file is created or truncated,
+     * and it is deleted if the download fails. If the server does not support range requests, the body is written
+     * as a single stream.
+     *
+     * @param file - the file to write the response body to
+     * @param parallelism - the maximum number of segments fetched concurrently after the first one
+     * @return the first response received, with the path to the file as the body
+     * @throws UnexpectedResponseException if the server responds with an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * or the file cannot be written
+     * @since 1.6
+     */
+    Response<Path> download(Path file, int parallelism);
+
+    /**
+     * Sends the current request synchronously and writes the response body to the file while computing its digest.
+     * If the connection fails or the server responds with a transient error, the download is resumed from the last
+     * written byte with a range request. If the download fails completely, the file and its {@code .progress} file
+     * are kept, so that a later call with the same URL resumes it. The digest is verified against
+     * the {@code Repr-Digest} or {@code Digest} response header of the same algorithm, if there is one.
+     *
+     * @param file - the file to write the response body to
+     * @param algorithm - the algorithm of the digest
+     * @return the last response received, with the path to the file as the body
+     * @throws coresearch.cvurl.io.exception.DigestMismatchException if the digest of the file does not match
+     * the received one, in which case the file is deleted
+     * @throws UnexpectedResponseException if the server responds with an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * or the file cannot be written
+     * @since 1.6
+     */
+    Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm);
+
+    /**
+     * Sends the current request synchronously and writes the response body to the file while computing its digest.
+     * If the connection fails or the server responds with a transient error, the download is resumed from the last
+     * written byte with a range request. If the download fails completely, the file and its {@code .progress} file
+     * are kept, so that a later call with the same URL resumes it.
+     *
+     * @param file - the file to write the response body to
+     * @param algorithm - the algorithm of the digest
+     * @param expectedDigest - the expected digest of the resource as a hexadecimal string
+     * @return the last response received, with the path to the file as the body
+     * @throws coresearch.cvurl.io.exception.DigestMismatchException if the digest of the file does not match
+     * the expected one, in which case the file is deleted
+     * @throws UnexpectedResponseException if the server responds with an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the request cannot be sent
+     * or the file cannot be written
+     * @since 1.6
+     */
+    Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm, String expectedDigest);
+
+    /**
+     * Opens the read-only channel over the resource of the current request that fetches only the blocks
+     * of 64 KB that are read, with range requests. Up to 64 blocks are cached, and more blocks are fetched ahead
+     * when the resource is read sequentially. No request is sent until the channel is read or its size is queried.
+     * If the server does not support ranges, the whole resource is kept, provided that it fits in the cache.
+     *
+     * @return the channel, which throws {@link java.io.IOException} if a block cannot be fetched
+     * or the resource changes while the channel is open
+     * @since 1.6
+     */
+    SeekableByteChannel openChannel();
+
+    /**
+     * Opens the read-only channel over the resource of the current request that fetches only the blocks
+     * of the specified size that are read, with range requests. More blocks are fetched ahead
+     * when the resource is read sequentially. No request is sent until the channel is read or its size is queried.
+     * If the server does not support ranges, the whole resource is kept, provided that it is no larger than
+     * {@code blockSize * maxCachedBlocks} bytes.
+     *
+     * @param blockSize - the size of the blocks in bytes
+     * @param maxCachedBlocks - the maximum number of blocks kept in the cache
+     * @return the channel, which throws {@link java.io.IOException} if a block cannot be fetched
+     * or the resource changes while the channel is open
+     * @since 1.6
+     */
+    SeekableByteChannel openChannel(int blockSize, int maxCachedBlocks);
+
     /**
      * Sends the current request synchronously.
      *
@@ -179,7 +439,42 @@ public interface Request {
     Optional<Response<InputStream>> asStream();
 
     /**
-     * Sends the current request synchronously.
+     * Sends the current request synchronously. The body is kept in the buffers of the pool
+     * of the {@link coresearch.cvurl.io.model.CVurlConfig}, which must be returned to the pool
+     * with the {@link PooledBody#release()} method once the body is read.
+     *
+     * @return an instance of the {@link Optional} class
+     *         that contains response body as {@link PooledBody} or empty {@link Optional} on error
+     * @since 1.6
+     */
+    Optional<Response<PooledBody>> asPooledBody();
+
+    /**
+     * Sends the current request synchronously. The body is kept in memory while it does not exceed
+     * {@link SpillableBody#DEFAULT_THRESHOLD}, otherwise it is written to a temporary file,
+     * which is deleted when the {@link SpillableBody} is closed.
+     *
+     * @return an instance of the {@link Optional} class
+     *         that contains response body as {@link SpillableBody} or empty {@link Optional} on error
+     * @since 1.6
+     */
+    Optional<Response<SpillableBody>> asSpillableBody();
+
+    /**
+     * Sends the current request synchronously. The body is kept in memory while it does not exceed the threshold,
+     * otherwise it is written to a temporary file, which is deleted when the {@link SpillableBody} is closed.
+     *
+     * @param threshold - the size in bytes above which the body is written to a temporary file
+     * @return an instance of the {@link Optional} class
+     *         that contains response body as {@link SpillableBody} or empty {@link Optional} on error
+     * @since 1.6
+     */
+    Optional<Response<SpillableBody>> asSpillableBody(long threshold);
+
+    /**
+     * Sends the current request synchronously. Applies provided bodyHandler to the response body.
+     * If the compressed response body is accepted, the body is decompressed before it is passed to the body handler.
+     *
      * @param bodyHandler - the body handler that applies to the response body
      * @return an instance of the {@link Optional} class with a response that contains body
      *         converted by the provided body handler or empty {@link Optional} on error
@@ -1,15 +1,22 @@
 package coresearch.cvurl.io.request;
 
+import coresearch.cvurl.io.constant.DigestAlgorithm;
 import coresearch.cvurl.io.constant.HttpContentEncoding;
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.encoding.GZIPBodyPublisher;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.internal.configuration.RequestConfigurer;
 import coresearch.cvurl.io.mapper.BodyType;
 import coresearch.cvurl.io.model.CVurlConfig;
 import coresearch.cvurl.io.model.CVurlProxy;
+import coresearch.cvurl.io.model.PooledBody;
+import coresearch.cvurl.io.model.SpillableBody;
 import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.multipart.ResponsePart;
 import coresearch.cvurl.io.request.proxy.CVurlProxySelector;
+import coresearch.cvurl.io.sse.ServerSentEvent;
 
 import java.io.InputStream;
 import java.net.ProxySelector;
@@ -17,13 +24,19 @@ import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
@@ -127,6 +140,27 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return (T) this;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public T compressRequest(long threshold) {
+        this.requestConfigurationBuilder.compressRequest(threshold);
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T parallelCompression(boolean parallelCompression) {
+        this.requestConfigurationBuilder.parallelCompression(parallelCompression);
+        return (T) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T maxBodySize(long maxBodySize) {
+        this.requestConfigurationBuilder.maxBodySize(maxBodySize);
+        return (T) this;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public T logEnabled(boolean logEnabled) {
@@ -163,6 +197,10 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
      * @return a new instance of the {@link Request} class.
      */
     public Request create() {
+        return createRequest();
+    }
+
+    CVurlRequest createRequest() {
         final RequestConfiguration requestConfiguration = requestConfigurationBuilder.build();
         final HttpRequest httpRequest = setUpHttpRequestBuilder(requestConfiguration).build();
 
@@ -170,12 +208,18 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
     }
 
     private HttpRequest.Builder setUpHttpRequestBuilder(RequestConfiguration requestConfiguration) {
+        boolean compressBody = shouldCompressBody(requestConfiguration);
+
         var builder = HttpRequest.newBuilder()
                 .uri(prepareURI())
-                .method(method.name(), bodyPublisher);
+                .method(method.name(), compressBody ? compressBody(requestConfiguration) : bodyPublisher);
 
         if (requestConfiguration.isAcceptCompressed()) {
-            this.header(HttpHeader.ACCEPT_ENCODING, HttpContentEncoding.GZIP);
+            this.header(HttpHeader.ACCEPT_ENCODING, cvurlConfig.getContentDecoderRegistry().getAcceptEncoding());
+        }
+
+        if (compressBody) {
+            builder.header(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP);
         }
 
         requestConfiguration.getRequestTimeout().ifPresent(builder::timeout);
@@ -185,6 +229,20 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return builder;
     }
 
+    private boolean shouldCompressBody(RequestConfiguration requestConfiguration) {
+        long threshold = requestConfiguration.getCompressRequestThreshold().orElse(-1);
+        long contentLength = bodyPublisher.contentLength();
+
+        return threshold >= 0 && contentLength != 0 && (contentLength < 0 || contentLength > threshold)
+                && headers.keySet().stream().noneMatch(HttpHeader.CONTENT_ENCODING::equalsIgnoreCase);
+    }
+
+    private HttpRequest.BodyPublisher compressBody(RequestConfiguration requestConfiguration) {
+        return requestConfiguration.isParallelCompression() ?
+                GZIPBodyPublisher.parallel(bodyPublisher, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors()) :
+                GZIPBodyPublisher.of(bodyPublisher);
+    }
+
     private URI prepareURI() {
         return queryParams.isEmpty() ? URI.create(uri) :
                 URI.create(uri +
@@ -243,6 +301,21 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asyncAsStream(pph);
     }
 
+    @Override
+    public CompletableFuture<Response<PooledBody>> asyncAsPooledBody() {
+        return create().asyncAsPooledBody();
+    }
+
+    @Override
+    public CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody() {
+        return create().asyncAsSpillableBody();
+    }
+
+    @Override
+    public CompletableFuture<Response<SpillableBody>> asyncAsSpillableBody(long threshold) {
+        return create().asyncAsSpillableBody(threshold);
+    }
+
     @Override
     public <U> CompletableFuture<Response<U>> asyncAs(HttpResponse.BodyHandler<U> bodyHandler) {
         return create().asyncAs(bodyHandler);
@@ -253,6 +326,16 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asyncAs(bodyHandler, pph);
     }
 
+    @Override
+    public Flow.Publisher<ServerSentEvent<String>> asyncAsEventStream() {
+        return create().asyncAsEventStream();
+    }
+
+    @Override
+    public <U> Flow.Publisher<ServerSentEvent<U>> asyncAsEventStream(Class<U> type) {
+        return create().asyncAsEventStream(type);
+    }
+
     @Override
     public <U> Optional<U> asObject(Class<U> type, int statusCode) {
         return create().asObject(type, statusCode);
@@ -273,6 +356,71 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asObject(type);
     }
 
+    @Override
+    public <U> Stream<U> asStreamOf(Class<U> type) {
+        return create().asStreamOf(type);
+    }
+
+    @Override
+    public <U> Stream<U> asStreamOf(Class<U> type, String pointer) {
+        return create().asStreamOf(type, pointer);
+    }
+
+    @Override
+    public <U> Flow.Publisher<U> asyncAsPublisherOf(Class<U> type) {
+        return create().asyncAsPublisherOf(type);
+    }
+
+    @Override
+    public <U> Flow.Publisher<U> asyncAsPublisherOf(Class<U> type, String pointer) {
+        return create().asyncAsPublisherOf(type, pointer);
+    }
+
+    @Override
+    public <U> Stream<U> asNdjson(Class<U> type) {
+        return create().asNdjson(type);
+    }
+
+    @Override
+    public <U> Stream<U> asNdjson(Class<U> type, BiConsumer<String, MappingException> errorHandler) {
+        return create().asNdjson(type, errorHandler);
+    }
+
+    @Override
+    public Stream<ResponsePart> asMultipart() {
+        return create().asMultipart();
+    }
+
+    @Override
+    public Response<Path> download(Path file) {
+        return create().download(file);
+    }
+
+    @Override
+    public Response<Path> download(Path file, int parallelism) {
+        return create().download(file, parallelism);
+    }
+
+    @Override
+    public Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm) {
+        return create().resumableDownload(file, algorithm);
+    }
+
+    @Override
+    public Response<Path> resumableDownload(Path file, DigestAlgorithm algorithm, String expectedDigest) {
+        return create().resumableDownload(file, algorithm, expectedDigest);
+    }
+
+    @Override
+    public SeekableByteChannel openChannel() {
+        return create().openChannel();
+    }
+
+    @Override
+    public SeekableByteChannel openChannel(int blockSize, int maxCachedBlocks) {
+        return create().openChannel(blockSize, maxCachedBlocks);
+    }
+
     @Override
     public Optional<Response<String>> asString() {
         return create().asString();
@@ -283,6 +431,21 @@ public class RequestBuilder<T extends RequestBuilder<T>> implements Request, Req
         return create().asStream();
     }
 
+    @Override
+    public Optional<Response<PooledBody>> asPooledBody() {
+        return create().asPooledBody();
+    }
+
+    @Override
+    public Optional<Response<SpillableBody>> asSpillableBody() {
+        return create().asSpillableBody();
+    }
+
+    @Override
+    public Optional<Response<SpillableBody>> asSpillableBody(long threshold) {
+        return create().asSpillableBody(threshold);
+    }
+
     @Override
     public <U> Optional<Response<U>> as(HttpResponse.BodyHandler<U> bodyHandler) {
         return create().as(bodyHandler);
@@ -3,11 +3,15 @@ package coresearch.cvurl.io.request;
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.HttpMethod;
 import coresearch.cvurl.io.constant.MIMEType;
+import coresearch.cvurl.io.constant.UploadProtocol;
+import coresearch.cvurl.io.internal.util.ChunkedOutputStream;
 import coresearch.cvurl.io.model.CVurlConfig;
+import coresearch.cvurl.io.model.Response;
 import coresearch.cvurl.io.multipart.MultipartBody;
 
 import java.net.URLEncoder;
 import java.net.http.HttpRequest;
+import java.nio.file.Path;
 import java.util.Map;
 
 import static java.lang.String.format;
@@ -50,13 +54,17 @@ public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilde
     }
 
     /**
-     * Sets the request body as an object.
+     * Sets the request body as an object. The object is serialized straight to bytes,
+     * which are sent with the exact Content-Length.
      *
      * @param body - the request body
      * @return the builder
      */
     public RequestWithBodyBuilder body(Object body) {
-        bodyPublisher = HttpRequest.BodyPublishers.ofString(cvurlConfig.getGenericMapper().writeValue(body));
+        var out = new ChunkedOutputStream();
+        cvurlConfig.getGenericMapper().writeValue(body, out);
+
+        bodyPublisher = out.toBodyPublisher();
         header(HttpHeader.CONTENT_TYPE, MIMEType.APPLICATION_JSON);
         return this;
     }
@@ -68,7 +76,7 @@ public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilde
      * @return the builder
      */
     public RequestWithBodyBuilder body(MultipartBody multipartBody) {
-        bodyPublisher = HttpRequest.BodyPublishers.ofByteArrays(multipartBody.asByteArrays());
+        bodyPublisher = multipartBody.asBodyPublisher();
         header(HttpHeader.CONTENT_TYPE,
                 format(MULTIPART_HEADER_TEMPLATE, multipartBody.getMultipartType(), multipartBody.getBoundary()));
         return this;
@@ -95,6 +103,45 @@ public class RequestWithBodyBuilder extends RequestBuilder<RequestWithBodyBuilde
         return this;
     }
 
+    /**
+     * Uploads the file in chunks of 8 MB, sending up to 4 chunks concurrently with the specified protocol,
+     * instead of sending the body of the request. The headers of the request are sent with every request
+     * of the upload. A chunk that fails with an I/O error or a transient error response is sent again.
+     *
+     * @param file - the file to upload
+     * @param protocol - the protocol of the upload
+     * @return the response to the request that commits the upload
+     * @throws coresearch.cvurl.io.exception.UnexpectedResponseException if the server responds with
+     * an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the file cannot be read
+     * or a chunk cannot be sent
+     * @since 1.6
+     */
+    public Response<String> upload(Path file, UploadProtocol protocol) {
+        return upload(file, protocol, ChunkedUpload.DEFAULT_CHUNK_SIZE, ChunkedUpload.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Uploads the file in chunks of the specified size, sending up to {@code parallelism} chunks concurrently
+     * with the specified protocol, instead of sending the body of the request. The headers of the request are sent
+     * with every request of the upload. A chunk that fails with an I/O error or a transient error response
+     * is sent again.
+     *
+     * @param file - the file to upload
+     * @param protocol - the protocol of the upload
+     * @param chunkSize - the size of the chunks in bytes
+     * @param parallelism - the maximum number of chunks sent concurrently
+     * @return the response to the request that commits the upload
+     * @throws coresearch.cvurl.io.exception.UnexpectedResponseException if the server responds with
+     * an unexpected status code
+     * @throws coresearch.cvurl.io.exception.RequestExecutionException if the file cannot be read
+     * or a chunk cannot be sent
+     * @since 1.6
+     */
+    public Response<String> upload(Path file, UploadProtocol protocol, int chunkSize, int parallelism) {
+        return createRequest().upload(file, protocol, chunkSize, parallelism);
+    }
+
     private String encodeToUTF8(Object obj) {
         return URLEncoder.encode(obj.toString(), UTF_8);
     }
@@ -0,0 +1,474 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.DigestAlgorithm;
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.DigestMismatchException;
+import coresearch.cvurl.io.exception.UnexpectedResponseException;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.model.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+import static java.lang.String.format;
+
+/**
+ * The download of a resource to a file that computes the digest of the body while it is written, and resumes
+ * from the last written byte with a range request when the connection fails or the server responds with
+ * a transient error.
+ *
+ * <p> The validator of the resource, i.e. its strong entity tag or modification date, is saved to the progress file
+ * next to the downloaded file, so a download that failed completely can also be resumed by a later call.
+ * Only in that case the part of the file written before is read once to restore the digest, otherwise every byte
+ * is hashed exactly once as it arrives. The digest is verified against the expected one, either provided
+ * or received in the {@code Repr-Digest} or {@code Digest} header, without reading the file again.
+ *
+ * @since 1.6
+ */
+final class ResumableDownload {
+
+    static final int MAX_ATTEMPTS = 5;
+    static final String PROGRESS_FILE_SUFFIX = ".progress";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableDownload.class);
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final int REHASH_BUFFER_SIZE = 64 * 1024;
+    private static final String URI_PROPERTY = "uri";
+    private static final String VALIDATOR_PROPERTY = "validator";
+
+    private final HttpClient httpClient;
+    private final HttpRequest httpRequest;
+    private final Path file;
+    private final Path progressFile;
+    private final DigestAlgorithm algorithm;
+    private final byte[] expectedDigest;
+    private final Hasher hasher;
+
+    private FileChannel channel;
+    private volatile CompletableFuture<?> exchange;
+    private volatile boolean cancelled;
+
+    // Accessed by one exchange at a time, which are ordered by the completion of the previous one.
+    private long length;
+    private String validator;
+    private byte[] receivedDigest;
+    private boolean written;
+
+    /**
+     * Creates an instance of the {@link ResumableDownload} class.
+     *
+     * @param expectedDigest - the expected digest of the resource, or {@code null} to verify it against the digest
+     *                       received in the response headers if there is one
+     */
+    ResumableDownload(HttpClient httpClient, HttpRequest httpRequest, Path file, DigestAlgorithm algorithm,
+                      byte[] expectedDigest) {
+        this.httpClient = httpClient;
+        this.httpRequest = httpRequest;
+        this.file = file;
+        this.progressFile = file.resolveSibling(file.getFileName() + PROGRESS_FILE_SUFFIX);
+        this.algorithm = algorithm;
+        this.expectedDigest = expectedDigest;
+        this.hasher = Hasher.of(algorithm);
+    }
+
+    /**
+     * Parses the hexadecimal representation of a digest.
+     *
+     * @throws IllegalArgumentException if the value is not a valid hexadecimal string
+     */
+    static byte[] parseHex(String value) {
+        if (value.length() % 2 != 0) {
+            throw new IllegalArgumentException("The digest must have an even number of hexadecimal digits: " + value);
+        }
+
+        byte[] bytes = new byte[value.length() / 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(value.charAt(2 * i), 16);
+            int low = Character.digit(value.charAt(2 * i + 1), 16);
+
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("The digest is not a hexadecimal string: " + value);
+            }
+
+            bytes[i] = (byte) (high << 4 | low);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Starts the download.
+     *
+     * @return the future that completes with the last response once the whole resource is written to the file
+     * and its digest is verified
+     */
+    CompletableFuture<HttpResponse<Path>> start() {
+        try {
+            open();
+        } catch (IOException e) {
+            closeChannel();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // The file is closed, and deleted if it cannot be resumed, before the download is reported as completed.
+        return attempt(1)
+                .thenApply(this::verify)
+                .whenComplete((response, throwable) -> finish(throwable))
+                .thenApply(response -> new FileBodyHttpResponse(response, file));
+    }
+
+    /**
+     * Cancels the download, keeping the part of the file written so far to be resumed later.
+     */
+    void cancel() {
+        cancelled = true;
+
+        CompletableFuture<?> current = exchange;
+        if (current != null) {
+            current.cancel(true);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Properties progress = readProgress();
+        long size = channel.size();
+
+        if (progress != null && httpRequest.uri().toString().equals(progress.getProperty(URI_PROPERTY))
+                && progress.getProperty(VALIDATOR_PROPERTY) != null && size > 0) {
+            validator = progress.getProperty(VALIDATOR_PROPERTY);
+            rehash(size);
+            LOGGER.info("Resuming the download of {} to {} from byte {}", httpRequest.uri(), file, size);
+        } else {
+            channel.truncate(0);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> attempt(int attempt) {
+        CompletableFuture<HttpResponse<String>> current = httpClient.sendAsync(nextRequest(), this::subscriber);
+        exchange = current;
+
+        return current.handle((response, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                    throwable.getCause() : throwable;
+
+            boolean retryable = cause == null ? isRetryable(response.statusCode()) : cause instanceof IOException;
+
+            if (!retryable || cancelled || attempt >= MAX_ATTEMPTS) {
+                return cause == null ? CompletableFuture.completedFuture(response) :
+                        CompletableFuture.<HttpResponse<String>>failedFuture(cause);
+            }
+
+            LOGGER.warn("Attempt {} to download {} failed at byte {}, retrying: {}", attempt, httpRequest.uri(), length,
+                    cause == null ? "status code " + response.statusCode() : cause.getMessage());
+
+            return CompletableFuture.runAsync(this::prepareRetry,
+                            CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS * attempt, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> cancelled ?
+                            CompletableFuture.failedFuture(new CancellationException()) : attempt(attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    private HttpResponse.BodySubscriber<String> subscriber(HttpResponse.ResponseInfo responseInfo) {
+        int statusCode = responseInfo.statusCode();
+        HttpHeaders headers = responseInfo.headers();
+
+        written = statusCode == HttpStatus.OK
+                || statusCode == HttpStatus.PARTIAL_CONTENT && isRangeStartingAt(headers, length)
+                // The open-ended range is not satisfiable if the file already contains the whole resource.
+                || statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE && length > 0
+                && headers.firstValue(HttpHeader.CONTENT_RANGE)
+                .map(range -> range.trim().endsWith("/" + length)).orElse(false);
+
+        if (!written) {
+            return HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(headers));
+        }
+
+        try {
+            if (statusCode == HttpStatus.OK && length > 0) {
+                // The resource has changed or the server ignored the range, so it is downloaded anew.
+                restart();
+            }
+
+            validator = ContentRange.validator(headers).orElse(null);
+            receivedDigest = receivedDigest(headers);
+            saveProgress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+
+        return new FileSegmentSubscriber(channel, length, -1, buffer -> {
+            int remaining = buffer.remaining();
+            hasher.update(buffer);
+            length += remaining;
+        });
+    }
+
+    private HttpResponse<String> verify(HttpResponse<String> response) {
+        if (!written) {
+            throw new UnexpectedResponseException(format("Received response with status code: %d, expected: %d or %d",
+                    response.statusCode(), HttpStatus.OK, HttpStatus.PARTIAL_CONTENT), new Response<>(response));
+        }
+
+        byte[] expected = expectedDigest != null ? expectedDigest : receivedDigest;
+        byte[] actual = hasher.digest();
+
+        if (expected != null && !MessageDigest.isEqual(expected, actual)) {
+            throw new DigestMismatchException(format("The %s digest of the downloaded file %s is %s, expected: %s",
+                    algorithm.getName(), file, toHex(actual), toHex(expected)));
+        }
+
+        return response;
+    }
+
+    private void prepareRetry() {
+        try {
+            if (validator == null) {
+                // The rest of the resource cannot be requested safely without a validator.
+                restart();
+            } else {
+                // The bytes of a failed write might have reached the file without being hashed.
+                channel.truncate(length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void restart() throws IOException {
+        channel.truncate(0);
+        hasher.reset();
+        length = 0;
+        // The digest received so far describes the representation that is discarded.
+        receivedDigest = null;
+    }
+
+    private void rehash(long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(REHASH_BUFFER_SIZE);
+
+        while (length < size) {
+            buffer.clear();
+            int read = channel.read(buffer, length);
+
+            if (read < 0) {
+                break;
+            }
+
+            buffer.flip();
+            hasher.update(buffer);
+            length += read;
+        }
+    }
+
+    private void finish(Throwable throwable) {
+        closeChannel();
+
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+
+        // The file is kept to be resumed later only if the download was interrupted and its progress is saved.
+        boolean resumable = cause != null && !(cause instanceof DigestMismatchException) && Files.exists(progressFile);
+
+        try {
+            if (cause != null && !resumable) {
+                Files.deleteIfExists(file);
+            }
+
+            if (!resumable) {
+                Files.deleteIfExists(progressFile);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Error while deleting the files of the download {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error while closing the downloaded file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Properties readProgress() throws IOException {
+        if (!Files.exists(progressFile)) {
+            return null;
+        }
+
+        Properties progress = new Properties();
+
+        try (InputStream in = Files.newInputStream(progressFile)) {
+            progress.load(in);
+        }
+
+        return progress;
+    }
+
+    private void saveProgress() throws IOException {
+        if (validator == null) {
+            Files.deleteIfExists(progressFile);
+            return;
+        }
+
+        Properties progress = new Properties();
+        progress.setProperty(URI_PROPERTY, httpRequest.uri().toString());
+        progress.setProperty(VALIDATOR_PROPERTY, validator);
+
+        try (OutputStream out = Files.newOutputStream(progressFile)) {
+            progress.store(out, null);
+        }
+    }
+
+    private HttpRequest nextRequest() {
+        HttpRequest.Builder builder = ContentRange.copyWithoutRange(httpRequest);
+
+        if (length > 0 && validator != null) {
+            builder.header(HttpHeader.RANGE, ContentRange.rangeHeader(length, -1));
+            builder.header(HttpHeader.IF_RANGE, validator);
+        }
+
+        return builder.build();
+    }
+
+    private byte[] receivedDigest(HttpHeaders headers) {
+        // Repr-Digest: sha-256=:base64:, Digest: SHA-256=base64
+        for (String header : List.of(HttpHeader.REPR_DIGEST, HttpHeader.DIGEST)) {
+            for (String value : headers.allValues(header)) {
+                for (String entry : value.split(",")) {
+                    int separator = entry.indexOf('=');
+
+                    if (separator < 0 || !entry.substring(0, separator).trim().equalsIgnoreCase(algorithm.getName())) {
+                        continue;
+                    }
+
+                    String encoded = entry.substring(separator + 1).trim();
+                    if (encoded.length() > 1 && encoded.startsWith(":") && encoded.endsWith(":")) {
+                        encoded = encoded.substring(1, encoded.length() - 1);
+                    }
+
+                    try {
+                        return Base64.getDecoder().decode(encoded);
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.warn("Ignoring the invalid {} header: {}", header, value);
+                    }
+                }
+            }
+        }
+
+        // The digest of a previous response still applies, as the download restarts when the representation changes.
+        return receivedDigest;
+    }
+
+    private boolean isRetryable(int statusCode) {
+        return statusCode == HttpStatus.REQUEST_TIMEOUT || statusCode >= HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static boolean isRangeStartingAt(HttpHeaders headers, long first) {
+        return ContentRange.fromHeaders(headers).filter(range -> range.getFirst() == first).isPresent();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            builder.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * The incremental digest computation of one of the {@link DigestAlgorithm}s.
+     */
+    private interface Hasher {
+
+        void update(ByteBuffer buffer);
+
+        byte[] digest();
+
+        void reset();
+
+        static Hasher of(DigestAlgorithm algorithm) {
+            if (algorithm == DigestAlgorithm.CRC32C) {
+                CRC32C checksum = new CRC32C();
+
+                return new Hasher() {
+                    @Override
+                    public void update(ByteBuffer buffer) {
+                        checksum.update(buffer);
+                    }
+
+                    @Override
+                    public byte[] digest() {
+                        // The checksum is an unsigned 32-bit value in the network byte order.
+                        return ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).array();
+                    }
+
+                    @Override
+                    public void reset() {
+                        checksum.reset();
+                    }
+                };
+            }
+
+            MessageDigest messageDigest;
+            try {
+                messageDigest = MessageDigest.getInstance(algorithm.getName());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("The digest algorithm is not supported: " + algorithm.getName(), e);
+            }
+
+            return new Hasher() {
+                @Override
+                public void update(ByteBuffer buffer) {
+                    messageDigest.update(buffer);
+                }
+
+                @Override
+                public byte[] digest() {
+                    return messageDigest.digest();
+                }
+
+                @Override
+                public void reset() {
+                    messageDigest.reset();
+                }
+            };
+        }
+    }
+}
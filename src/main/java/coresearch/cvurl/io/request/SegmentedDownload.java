@@ -0,0 +1,312 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.exception.UnexpectedResponseException;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.model.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+
+/**
+ * The download of a resource to a file in several segments fetched concurrently with range requests.
+ *
+ * <p> The first {@value #MIN_SEGMENT_SIZE} bytes are requested first. As soon as the headers of the partial response
+ * reveal the length of the resource, the rest of it is split into at most {@code parallelism} segments of at least
+ * {@value #MIN_SEGMENT_SIZE} bytes, which are requested at once with the {@code If-Range} validator of the first
+ * response. Every segment is written at its position in the file with positioned writes, so no data is buffered
+ * or copied. If the server does not support range requests and responds with the whole resource, it is written
+ * to the file as a single stream. So is the resource whose first response has no validator, since the segments
+ * of different versions of it could not be told apart; the rest of the first response is then not received,
+ * and the whole resource is requested again without a range.
+ *
+ * @since 1.6
+ */
+final class SegmentedDownload {
+
+    static final int DEFAULT_PARALLELISM = 4;
+    static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentedDownload.class);
+    private static final String EMPTY_RANGE_SUFFIX = "/0";
+
+    private final HttpClient httpClient;
+    private final HttpRequest httpRequest;
+    private final Path file;
+    private final int parallelism;
+    private final CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+    private final List<CompletableFuture<HttpResponse<String>>> exchanges = new CopyOnWriteArrayList<>();
+    private final AtomicInteger pendingExchanges = new AtomicInteger();
+
+    private FileChannel channel;
+    private volatile HttpResponse<String> firstResponse;
+    private volatile HttpResponse<String> wholeResponse;
+
+    SegmentedDownload(HttpClient httpClient, HttpRequest httpRequest, Path file, int parallelism) {
+        this.httpClient = httpClient;
+        this.httpRequest = httpRequest;
+        this.file = file;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Starts the download.
+     *
+     * @return the future that completes with the first response once the whole resource is written to the file
+     */
+    CompletableFuture<HttpResponse<Path>> start() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        pendingExchanges.incrementAndGet();
+        track(httpClient.sendAsync(rangeRequest(0, MIN_SEGMENT_SIZE - 1, null), this::firstSegmentSubscriber),
+                this::checkFirstResponse);
+
+        // The file is closed or deleted before the download is reported as completed.
+        return result.whenComplete((response, throwable) -> finish(throwable))
+                .thenApply(response -> new FileBodyHttpResponse(response, file));
+    }
+
+    /**
+     * Cancels the download and deletes the file.
+     */
+    void cancel() {
+        result.cancel(true);
+    }
+
+    private HttpResponse.BodySubscriber<String> firstSegmentSubscriber(HttpResponse.ResponseInfo responseInfo) {
+        if (responseInfo.statusCode() == HttpStatus.OK) {
+            return new FileSegmentSubscriber(channel, 0, -1);
+        }
+
+        if (responseInfo.statusCode() == HttpStatus.PARTIAL_CONTENT) {
+            Optional<ContentRange> range = ContentRange.fromHeaders(responseInfo.headers())
+                    .filter(contentRange -> contentRange.getFirst() == 0);
+
+            if (range.isPresent()) {
+                long end = range.get().getLast() + 1;
+                long length = range.get().getLength();
+                String validator = ContentRange.validator(responseInfo.headers()).orElse(null);
+
+                if (validator == null && (length < 0 || end < length)) {
+                    startWhole();
+                    return new CancellingSubscriber();
+                }
+
+                startSegments(end, length, validator);
+                return new FileSegmentSubscriber(channel, 0, end);
+            }
+        }
+
+        return HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(responseInfo.headers()));
+    }
+
+    private void checkFirstResponse(HttpResponse<String> response) {
+        boolean valid;
+
+        switch (response.statusCode()) {
+            case HttpStatus.OK:
+                valid = true;
+                break;
+            case HttpStatus.PARTIAL_CONTENT:
+                valid = ContentRange.fromHeaders(response.headers()).filter(range -> range.getFirst() == 0).isPresent();
+                break;
+            case HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE:
+                // The first byte does not exist only if the resource is empty.
+                valid = response.headers().firstValue(HttpHeader.CONTENT_RANGE)
+                        .map(range -> range.trim().endsWith(EMPTY_RANGE_SUFFIX))
+                        .orElse(false);
+                break;
+            default:
+                valid = false;
+        }
+
+        if (!valid) {
+            throw new UnexpectedResponseException(format("Received response with status code: %d, " +
+                            "expected: %d or %d with a valid Content-Range header", response.statusCode(),
+                    HttpStatus.OK, HttpStatus.PARTIAL_CONTENT), new Response<>(response));
+        }
+
+        firstResponse = response;
+    }
+
+    private void startSegments(long from, long length, String validator) {
+        if (length < 0) {
+            // The length is unknown, so the rest of the resource is requested as a whole.
+            startSegment(from, -1, validator);
+            return;
+        }
+
+        long remaining = length - from;
+        if (remaining <= 0) {
+            return;
+        }
+
+        long segmentSize = Math.max(MIN_SEGMENT_SIZE, (remaining + parallelism - 1) / parallelism);
+
+        for (long first = from; first < length; first += segmentSize) {
+            startSegment(first, Math.min(first + segmentSize, length) - 1, validator);
+        }
+    }
+
+    private void startSegment(long first, long last, String validator) {
+        long end = last < 0 ? -1 : last + 1;
+
+        pendingExchanges.incrementAndGet();
+        track(httpClient.sendAsync(rangeRequest(first, last, validator),
+                        responseInfo -> segmentSubscriber(responseInfo, first, end)),
+                response -> checkSegmentResponse(response, first, last));
+    }
+
+    private void startWhole() {
+        pendingExchanges.incrementAndGet();
+        track(httpClient.sendAsync(ContentRange.copyWithoutRange(httpRequest).build(), responseInfo ->
+                        responseInfo.statusCode() == HttpStatus.OK ? new FileSegmentSubscriber(channel, 0, -1) :
+                                HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(responseInfo.headers()))),
+                this::checkWholeResponse);
+    }
+
+    private HttpResponse.BodySubscriber<String> segmentSubscriber(HttpResponse.ResponseInfo responseInfo,
+                                                                  long first, long end) {
+        int statusCode = responseInfo.statusCode();
+
+        if (statusCode == HttpStatus.PARTIAL_CONTENT && isRangeStartingAt(responseInfo.headers(), first)) {
+            return new FileSegmentSubscriber(channel, first, end);
+        }
+
+        // The whole resource is not received if it was changed since the first response.
+        return statusCode >= HttpStatus.OK && statusCode < HttpStatus.MULTIPLE_CHOICES
+                || statusCode == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE ?
+                new CancellingSubscriber() :
+                HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(responseInfo.headers()));
+    }
+
+    private void checkSegmentResponse(HttpResponse<String> response, long first, long last) {
+        boolean valid = response.statusCode() == HttpStatus.PARTIAL_CONTENT
+                && isRangeStartingAt(response.headers(), first)
+                // The open-ended range is not satisfiable if the resource ends exactly where it starts.
+                || last < 0 && response.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+
+        if (!valid) {
+            throw new UnexpectedResponseException(format("Received response with status code: %d " +
+                            "to the request of the range %s, expected: %d", response.statusCode(),
+                    ContentRange.rangeHeader(first, last), HttpStatus.PARTIAL_CONTENT), new Response<>(response));
+        }
+    }
+
+    private void checkWholeResponse(HttpResponse<String> response) {
+        if (response.statusCode() != HttpStatus.OK) {
+            throw new UnexpectedResponseException(format("Received response with status code: %d " +
+                    "to the request of the whole resource, expected: %d", response.statusCode(), HttpStatus.OK),
+                    new Response<>(response));
+        }
+
+        wholeResponse = response;
+    }
+
+    private void track(CompletableFuture<HttpResponse<String>> exchange, Consumer<HttpResponse<String>> check) {
+        // The exchange itself is kept, since cancelling a dependent future does not cancel the exchange.
+        exchanges.add(exchange);
+        exchange.thenAccept(check).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable);
+            } else if (pendingExchanges.decrementAndGet() == 0) {
+                result.complete(wholeResponse != null ? wholeResponse : firstResponse);
+            }
+        });
+    }
+
+    private void finish(Throwable throwable) {
+        if (throwable != null) {
+            exchanges.forEach(exchange -> exchange.cancel(true));
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error while closing the downloaded file {}: {}", file, e.getMessage());
+        }
+
+        if (throwable != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn("Error while deleting the incomplete file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private HttpRequest rangeRequest(long first, long last, String validator) {
+        HttpRequest.Builder builder = ContentRange.copyWithoutRange(httpRequest);
+
+        builder.header(HttpHeader.RANGE, ContentRange.rangeHeader(first, last));
+
+        if (validator != null) {
+            builder.header(HttpHeader.IF_RANGE, validator);
+        }
+
+        return builder.build();
+    }
+
+    private static boolean isRangeStartingAt(HttpHeaders headers, long first) {
+        return ContentRange.fromHeaders(headers).filter(range -> range.getFirst() == first).isPresent();
+    }
+
+    /**
+     * The body subscriber that cancels the subscription at once, so that the body is not received.
+     */
+    private static final class CancellingSubscriber implements HttpResponse.BodySubscriber<String> {
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            // Nothing is requested.
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // The body is not needed.
+        }
+
+        @Override
+        public void onComplete() {
+            // The body is not needed.
+        }
+    }
+}
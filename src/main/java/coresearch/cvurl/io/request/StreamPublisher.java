@@ -0,0 +1,251 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.internal.util.DrainingSubscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The cold publisher that emits the elements read from an input stream as a lazily consumed {@link Stream}
+ * according to the demand of its subscriber. The input stream is obtained anew for every subscription and closed
+ * when the subscription is completed, failed or cancelled.
+ *
+ * <p> Reading may block until the data is received, so the stream of elements is opened and pulled only
+ * on the provided executor or, if none is provided, on a shared executor of daemon threads that stop once
+ * they have been idle for a minute, and only when the subscriber has demand. One subscription is served
+ * by at most one thread at a time. Cancelling the subscription closes the input stream and interrupts
+ * a read in progress, so that the thread is not held until the next data arrives.
+ *
+ * @param <T> the type of the elements
+ * @since 1.6
+ */
+final class StreamPublisher<T> implements Flow.Publisher<T> {
+
+    private final Supplier<CompletableFuture<InputStream>> sourceSupplier;
+    private final Function<InputStream, Stream<T>> reader;
+    private final Executor executor;
+
+    StreamPublisher(Supplier<CompletableFuture<InputStream>> sourceSupplier, Function<InputStream, Stream<T>> reader) {
+        this(sourceSupplier, reader, null);
+    }
+
+    StreamPublisher(Supplier<CompletableFuture<InputStream>> sourceSupplier, Function<InputStream, Stream<T>> reader,
+                    Executor executor) {
+        this.sourceSupplier = sourceSupplier;
+        this.reader = reader;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        notNullParam(subscriber, "subscriber");
+
+        var subscription = new StreamSubscription<T>(subscriber, reader,
+                executor != null ? executor : ReaderExecutorHolder.EXECUTOR);
+        subscriber.onSubscribe(subscription);
+        sourceSupplier.get().whenComplete(subscription::onSource);
+    }
+
+    /**
+     * Holds the executor shared by the publishers without an executor of their own, created on first use.
+     */
+    private static final class ReaderExecutorHolder {
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+        private static final Executor EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    var thread = new Thread(runnable, "cvurl-stream-publisher-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static final class StreamSubscription<T> extends DrainingSubscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Function<InputStream, Stream<T>> reader;
+        private final Executor executor;
+
+        private final Object readerLock = new Object();
+
+        private volatile InputStream source;
+
+        // guarded by readerLock
+        private Thread readerThread;
+        private boolean readerInterrupted;
+
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+        private boolean done;
+
+        StreamSubscription(Flow.Subscriber<? super T> subscriber, Function<InputStream, Stream<T>> reader,
+                           Executor executor) {
+            this.subscriber = subscriber;
+            this.reader = reader;
+            this.executor = executor;
+        }
+
+        @Override
+        protected void onCancel() {
+            synchronized (readerLock) {
+                // A subscriber cancelling from onNext runs on the reader thread, which is not blocked in a read.
+                if (readerThread != null && readerThread != Thread.currentThread()) {
+                    readerThread.interrupt();
+                    readerInterrupted = true;
+                }
+            }
+
+            closeSource();
+        }
+
+        private void onSource(InputStream source, Throwable throwable) {
+            if (throwable != null) {
+                setError(throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable);
+            } else {
+                this.source = source;
+            }
+
+            drain();
+        }
+
+        @Override
+        protected void runDrainLoop(Runnable drainLoop) {
+            executor.execute(() -> readAndDrain(drainLoop));
+        }
+
+        private void readAndDrain(Runnable drainLoop) {
+            synchronized (readerLock) {
+                readerThread = Thread.currentThread();
+            }
+
+            try {
+                drainLoop.run();
+            } finally {
+                synchronized (readerLock) {
+                    readerThread = null;
+
+                    // The interrupt was meant for the read of this subscription only, not for the next task.
+                    if (readerInterrupted) {
+                        readerInterrupted = false;
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        @Override
+        protected void drainOnce() {
+            if (done) {
+                // The source may arrive after the subscription has been terminated.
+                close();
+                return;
+            }
+
+            if (isCancelled()) {
+                terminate();
+                return;
+            }
+
+            Throwable throwable = getError();
+
+            if (throwable != null) {
+                terminate();
+                subscriber.onError(throwable);
+                return;
+            }
+
+            if (source == null) {
+                return;
+            }
+
+            try {
+                while (!isCancelled() && getError() == null) {
+                    // Checked before the stream, which blocks until the next element or the end is received.
+                    if (!hasDemand()) {
+                        return;
+                    }
+
+                    if (iterator == null) {
+                        stream = reader.apply(source);
+                        iterator = stream.iterator();
+                    }
+
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+
+                    T element = iterator.next();
+                    consumeDemand();
+                    subscriber.onNext(element);
+                }
+            } catch (RuntimeException e) {
+                terminate();
+
+                // A read interrupted by the cancellation fails, but a cancelled subscriber must not be signalled.
+                if (!isCancelled()) {
+                    subscriber.onError(e);
+                }
+
+                return;
+            }
+
+            drainOnce();
+        }
+
+        private void terminate() {
+            done = true;
+            close();
+        }
+
+        private void close() {
+            InputStream current = source;
+
+            if (current == null) {
+                return;
+            }
+
+            try {
+                // The stream of elements closes the source.
+                if (stream != null) {
+                    stream.close();
+                } else {
+                    current.close();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Closing is a best-effort cleanup, the outcome is reported to the subscriber regardless.
+            }
+        }
+
+        private void closeSource() {
+            InputStream current = source;
+
+            if (current == null) {
+                return;
+            }
+
+            try {
+                current.close();
+            } catch (IOException | RuntimeException e) {
+                // The stream is closed again when the subscription is terminated.
+            }
+        }
+    }
+}
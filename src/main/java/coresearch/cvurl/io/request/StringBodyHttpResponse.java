@@ -0,0 +1,74 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.internal.util.Charsets;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+/**
+ * The view of an {@link HttpResponse} with the body as a byte array that exposes the body as a string,
+ * decoded with the charset specified in the Content-Type header.
+ * Used to report the responses received as bytes in exceptions that expect a string body.
+ *
+ * @since 1.6
+ */
+final class StringBodyHttpResponse implements HttpResponse<String> {
+
+    private final HttpResponse<byte[]> response;
+    private final String body;
+
+    StringBodyHttpResponse(HttpResponse<byte[]> response) {
+        this.response = response;
+        this.body = response.body() == null ? null : new String(response.body(), Charsets.fromHeaders(response.headers()));
+    }
+
+    @Override
+    public int statusCode() {
+        return response.statusCode();
+    }
+
+    @Override
+    public HttpRequest request() {
+        return response.request();
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return response.previousResponse().map(StringBodyHttpResponse::new);
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return response.headers();
+    }
+
+    @Override
+    public String body() {
+        return body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return response.sslSession();
+    }
+
+    @Override
+    public URI uri() {
+        return response.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return response.version();
+    }
+
+    @Override
+    public String toString() {
+        return response.toString();
+    }
+}
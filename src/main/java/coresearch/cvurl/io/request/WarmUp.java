@@ -0,0 +1,206 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.constant.HttpMethod;
+import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.model.WarmUpReport;
+import coresearch.cvurl.io.model.WarmUpReport.HostWarmUp;
+
+import java.net.InetAddress;
+import java.net.Proxy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The warm-up of the connections of a client to several hosts before the traffic arrives.
+ *
+ * <p> The requests are sent asynchronously by the calling thread, which holds no other thread while they are
+ * in flight, and at most {@value #MAX_PENDING_REQUESTS} requests, or {@code concurrency} if it is larger,
+ * are pending at once, so a long list of hosts does not open all its connections at the same time.
+ * Unless the client sends the requests to the host through a proxy, which resolves the name itself,
+ * the name of every host is resolved first, so that it is cached by the virtual machine. Then {@code concurrency}
+ * HEAD requests to the first URI of the host are sent at once, so that the client opens that many connections,
+ * completes their TLS handshakes and negotiates the protocol, and keeps the connections in its pool. Any response
+ * counts as a warmed-up connection, whatever its status code. An HTTP/2 client may multiplex the requests
+ * over a single connection.
+ *
+ * @since 1.6
+ */
+final class WarmUp {
+
+    static final int MAX_PENDING_REQUESTS = 64;
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int concurrency;
+
+    WarmUp(HttpClient httpClient, Duration timeout, int concurrency) {
+        this.httpClient = httpClient;
+        this.timeout = timeout;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Warms up the connections to the hosts of the URIs and waits until it is done.
+     *
+     * @param uris - the URIs, at most one request target per host is used
+     * @return the report of the warm-up
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    WarmUpReport run(Collection<URI> uris) throws InterruptedException {
+        long start = System.nanoTime();
+        Map<URI, URI> targets = new LinkedHashMap<>();
+
+        for (URI uri : uris) {
+            targets.putIfAbsent(originOf(uri), uri);
+        }
+
+        var pendingRequests = new Semaphore(Math.max(MAX_PENDING_REQUESTS, concurrency));
+        List<CompletableFuture<HttpResponse<Void>>> exchanges = new ArrayList<>();
+        List<CompletableFuture<HostWarmUp>> warmUps = new ArrayList<>(targets.size());
+
+        try {
+            for (Map.Entry<URI, URI> target : targets.entrySet()) {
+                pendingRequests.acquire(concurrency);
+                warmUps.add(warmUp(target.getKey(), target.getValue(), pendingRequests, exchanges));
+            }
+
+            List<HostWarmUp> hosts = new ArrayList<>(warmUps.size());
+            for (CompletableFuture<HostWarmUp> warmUp : warmUps) {
+                hosts.add(warmUp.get());
+            }
+
+            return WarmUpReport.of(hosts, Duration.ofNanos(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            exchanges.forEach(exchange -> exchange.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            // The warm-up of a host reports the failures of its requests, so only the unexpected ones get here.
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new RequestExecutionException(cause.getMessage(), cause);
+        }
+    }
+
+    private CompletableFuture<HostWarmUp> warmUp(URI origin, URI target, Semaphore pendingRequests,
+                                                 List<CompletableFuture<HttpResponse<Void>>> exchanges) {
+        long start = System.nanoTime();
+        Duration dnsResolution = null;
+
+        if (!isProxied(origin)) {
+            try {
+                InetAddress.getAllByName(origin.getHost());
+            } catch (UnknownHostException e) {
+                pendingRequests.release(concurrency);
+                return CompletableFuture.completedFuture(
+                        HostWarmUp.failed(origin, null, Duration.ofNanos(System.nanoTime() - start), e));
+            }
+
+            dnsResolution = Duration.ofNanos(System.nanoTime() - start);
+        }
+
+        long sent = System.nanoTime();
+        var firstResponse = new AtomicReference<HttpResponse<Void>>();
+        var firstResponseAt = new AtomicLong();
+        var responses = new ArrayList<CompletableFuture<HttpResponse<Void>>>(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            CompletableFuture<HttpResponse<Void>> exchange;
+
+            try {
+                exchange = httpClient.sendAsync(headRequest(target), HttpResponse.BodyHandlers.discarding());
+            } catch (RuntimeException e) {
+                pendingRequests.release(concurrency - i);
+                throw e;
+            }
+
+            exchanges.add(exchange);
+            // The futures of the callbacks are awaited, so the first response is recorded before it is read.
+            responses.add(exchange.whenComplete((response, t) -> {
+                pendingRequests.release();
+
+                if (response != null && firstResponse.compareAndSet(null, response)) {
+                    firstResponseAt.set(System.nanoTime());
+                }
+            }));
+        }
+
+        Duration hostDnsResolution = dnsResolution;
+
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).handle((ignored, t) -> {
+            int connections = 0;
+            Throwable failure = null;
+
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                try {
+                    response.join();
+                    connections++;
+                } catch (CompletionException e) {
+                    failure = e.getCause();
+                }
+            }
+
+            var duration = Duration.ofNanos(System.nanoTime() - start);
+
+            if (connections == 0) {
+                return HostWarmUp.failed(origin, hostDnsResolution, duration, failure);
+            }
+
+            return HostWarmUp.of(origin, hostDnsResolution, Duration.ofNanos(firstResponseAt.get() - sent), duration,
+                    connections, firstResponse.get().version(), failure);
+        });
+    }
+
+    private boolean isProxied(URI origin) {
+        return httpClient.proxy()
+                .map(proxySelector -> proxySelector.select(origin))
+                .filter(proxies -> !proxies.isEmpty())
+                .map(proxies -> proxies.get(0).type() != Proxy.Type.DIRECT)
+                .orElse(false);
+    }
+
+    private HttpRequest headRequest(URI target) {
+        var builder = HttpRequest.newBuilder(target).method(HttpMethod.HEAD.name(), HttpRequest.BodyPublishers.noBody());
+
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+
+        return builder.build();
+    }
+
+    private static URI originOf(URI uri) {
+        String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase();
+
+        if (!"http".equals(scheme) && !"https".equals(scheme) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Only the absolute http and https URIs can be warmed up, got: " + uri);
+        }
+
+        int port = uri.getPort() < 0 ? ("https".equals(scheme) ? 443 : 80) : uri.getPort();
+
+        try {
+            return new URI(scheme, null, uri.getHost().toLowerCase(), port, null, null, null);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+}
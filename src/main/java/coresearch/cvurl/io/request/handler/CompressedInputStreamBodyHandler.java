@@ -1,39 +1,32 @@
 package coresearch.cvurl.io.request.handler;
 
-import coresearch.cvurl.io.constant.HttpContentEncoding;
-import coresearch.cvurl.io.constant.HttpHeader;
-import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+import coresearch.cvurl.io.encoding.ContentDecoderRegistry;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.net.http.HttpResponse;
-import java.util.Optional;
-import java.util.zip.GZIPInputStream;
 
 /**
- * The body handler that can decompress GZIP data to an instance of the {@link InputStream} class.
+ * The body handler that can decompress data to an instance of the {@link InputStream} class
+ * using the decoders registered for the content codings of the response.
+ * The data is decompressed as it arrives, so the body can be read before it is received completely.
  *
  * @since 0.9
  */
-public class CompressedInputStreamBodyHandler implements HttpResponse.BodyHandler<InputStream> {
+public class CompressedInputStreamBodyHandler extends DecompressingBodyHandler<InputStream> {
 
-    @Override
-    public HttpResponse.BodySubscriber<InputStream> apply(HttpResponse.ResponseInfo responseInfo) {
-        Optional<String> encoding = responseInfo.headers().firstValue(HttpHeader.CONTENT_ENCODING);
-
-        if (encoding.isPresent() && encoding.get().equals(HttpContentEncoding.GZIP)) {
-            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), this::getGZIPInputStream);
-        }
-
-        return HttpResponse.BodySubscribers.ofInputStream();
+    /**
+     * Creates an instance of the {@link CompressedInputStreamBodyHandler} class with the default decoders.
+     */
+    public CompressedInputStreamBodyHandler() {
+        this(ContentDecoderRegistry.defaultRegistry());
     }
 
-    private InputStream getGZIPInputStream(byte[] bytes) {
-        try {
-            return new GZIPInputStream(new ByteArrayInputStream(bytes));
-        } catch (IOException e) {
-            throw new ResponseBodyHandlingException(e.getMessage(), e);
-        }
+    /**
+     * Creates an instance of the {@link CompressedInputStreamBodyHandler} class with the specified decoders.
+     *
+     * @param contentDecoderRegistry - the registry of the content decoders
+     */
+    public CompressedInputStreamBodyHandler(ContentDecoderRegistry contentDecoderRegistry) {
+        super(HttpResponse.BodyHandlers.ofInputStream(), contentDecoderRegistry);
     }
 }
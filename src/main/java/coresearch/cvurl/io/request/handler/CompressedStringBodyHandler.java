@@ -1,43 +1,50 @@
 package coresearch.cvurl.io.request.handler;
 
-import coresearch.cvurl.io.constant.HttpContentEncoding;
 import coresearch.cvurl.io.constant.HttpHeader;
-import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+import coresearch.cvurl.io.encoding.ContentDecoderRegistry;
+import coresearch.cvurl.io.encoding.IncrementalDecoder;
+import coresearch.cvurl.io.internal.util.Charsets;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.net.http.HttpResponse;
 import java.util.Optional;
-import java.util.zip.GZIPInputStream;
 
 /**
- * The body handler that can decompress GZIP data to a string.
+ * The body handler that can decompress data to a string
+ * using the decoders registered for the content codings of the response.
+ * The string is decoded using the charset specified in the Content-Type header of the response.
  *
  * @since 0.9
  */
 public class CompressedStringBodyHandler implements HttpResponse.BodyHandler<String> {
 
-    @Override
-    public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo responseInfo) {
-        Optional<String> encoding = responseInfo.headers().firstValue(HttpHeader.CONTENT_ENCODING);
+    private final ContentDecoderRegistry contentDecoderRegistry;
 
-        if (encoding.isPresent() && encoding.get().equals(HttpContentEncoding.GZIP)) {
-            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), this::decompressGZIP);
-        }
-
-        return HttpResponse.BodyHandlers.ofString().apply(responseInfo);
+    /**
+     * Creates an instance of the {@link CompressedStringBodyHandler} class with the default decoders.
+     */
+    public CompressedStringBodyHandler() {
+        this(ContentDecoderRegistry.defaultRegistry());
     }
 
-    private String decompressGZIP(byte[] bytes) {
-        try (var gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
-             var outputStream = new ByteArrayOutputStream()) {
+    /**
+     * Creates an instance of the {@link CompressedStringBodyHandler} class with the specified decoders.
+     *
+     * @param contentDecoderRegistry - the registry of the content decoders
+     */
+    public CompressedStringBodyHandler(ContentDecoderRegistry contentDecoderRegistry) {
+        this.contentDecoderRegistry = contentDecoderRegistry;
+    }
 
-            gzipInputStream.transferTo(outputStream);
+    @Override
+    public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo responseInfo) {
+        Optional<IncrementalDecoder> decoder = contentDecoderRegistry.newDecoder(responseInfo.headers());
 
-            return outputStream.toString();
-        } catch (IOException e) {
-            throw new ResponseBodyHandlingException(e.getMessage(), e);
+        if (decoder.isPresent()) {
+            return new DecompressedStringBodySubscriber(decoder.get(),
+                    Charsets.fromHeaders(responseInfo.headers()),
+                    responseInfo.headers().firstValueAsLong(HttpHeader.CONTENT_LENGTH).orElse(-1));
         }
+
+        return HttpResponse.BodyHandlers.ofString().apply(responseInfo);
     }
 }
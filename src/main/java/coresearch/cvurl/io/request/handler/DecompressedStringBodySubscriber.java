@@ -0,0 +1,129 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.encoding.IncrementalDecoder;
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+import coresearch.cvurl.io.internal.util.Charsets;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * The body subscriber that decodes compressed data straight into a single growing buffer
+ * and decodes it to a string once, when the whole body is received.
+ *
+ * @since 1.6
+ */
+public class DecompressedStringBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private static final int MIN_CAPACITY = 8 * 1024;
+    private static final int MAX_INITIAL_CAPACITY = 8 * 1024 * 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final int EXPECTED_COMPRESSION_RATIO = 4;
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final IncrementalDecoder decoder;
+    private final Charset charset;
+
+    private Flow.Subscription subscription;
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Creates an instance of the {@link DecompressedStringBodySubscriber} class.
+     *
+     * @param decoder - the decoder used to decompress the data
+     * @param charset - the charset of the decompressed data
+     * @param contentLength - the length of the compressed body, or a negative value if it is unknown
+     */
+    public DecompressedStringBodySubscriber(IncrementalDecoder decoder, Charset charset, long contentLength) {
+        this.decoder = decoder;
+        this.charset = charset;
+        this.buffer = new byte[initialCapacity(contentLength)];
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (result.isDone()) {
+            return;
+        }
+
+        try {
+            for (ByteBuffer byteBuffer : item) {
+                decoder.setInput(byteBuffer);
+                decodeAvailable();
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        decoder.end();
+        buffer = null;
+        result.completeExceptionally(throwable instanceof IOException ?
+                new ResponseBodyHandlingException(throwable.getMessage(), throwable) : throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            decoder.finish();
+            result.complete(Charsets.decode(buffer, size, charset));
+            buffer = null;
+        } catch (IOException e) {
+            onError(e);
+        }
+    }
+
+    private void decodeAvailable() throws IOException {
+        while (true) {
+            if (size == buffer.length) {
+                grow();
+            }
+
+            int n = decoder.decode(buffer, size, buffer.length - size);
+
+            if (n == 0) {
+                return;
+            }
+
+            size += n;
+        }
+    }
+
+    private void grow() throws IOException {
+        if (buffer.length == MAX_CAPACITY) {
+            throw new IOException("The decompressed body is too large to be represented as a string");
+        }
+
+        buffer = Arrays.copyOf(buffer, (int) Math.min((long) buffer.length << 1, MAX_CAPACITY));
+    }
+
+    private static int initialCapacity(long contentLength) {
+        if (contentLength <= 0) {
+            return MIN_CAPACITY;
+        }
+
+        return (int) Math.max(MIN_CAPACITY, Math.min(contentLength * EXPECTED_COMPRESSION_RATIO, MAX_INITIAL_CAPACITY));
+    }
+}
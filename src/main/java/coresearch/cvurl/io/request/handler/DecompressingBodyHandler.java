@@ -0,0 +1,95 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.encoding.ContentDecoderRegistry;
+import coresearch.cvurl.io.encoding.IncrementalDecoder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * The body handler that decorates an arbitrary {@link HttpResponse.BodyHandler} with decompression.
+ * If the response body is encoded with content codings known to the registry, the decorated handler
+ * receives the decompressed data as it arrives, and the response info passed to it does not contain
+ * the Content-Encoding and Content-Length headers, which describe the compressed body.
+ * Otherwise, the response is passed to the decorated handler as is.
+ *
+ * @param <T> the response body type
+ * @since 1.6
+ */
+public class DecompressingBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+    private final HttpResponse.BodyHandler<T> bodyHandler;
+    private final ContentDecoderRegistry contentDecoderRegistry;
+    private final Executor executor;
+
+    /**
+     * Creates an instance of the {@link DecompressingBodyHandler} class that decompresses the data
+     * on the thread that delivers it.
+     *
+     * @param bodyHandler - the body handler that receives the decompressed data
+     * @param contentDecoderRegistry - the registry of the content decoders
+     */
+    public DecompressingBodyHandler(HttpResponse.BodyHandler<T> bodyHandler,
+                                    ContentDecoderRegistry contentDecoderRegistry) {
+        this(bodyHandler, contentDecoderRegistry, null);
+    }
+
+    /**
+     * Creates an instance of the {@link DecompressingBodyHandler} class.
+     *
+     * @param bodyHandler - the body handler that receives the decompressed data
+     * @param contentDecoderRegistry - the registry of the content decoders
+     * @param executor - the executor that decompresses the data, or {@code null} to decompress it
+     *                 on the delivering thread
+     * @since 1.6
+     */
+    public DecompressingBodyHandler(HttpResponse.BodyHandler<T> bodyHandler,
+                                    ContentDecoderRegistry contentDecoderRegistry, Executor executor) {
+        this.bodyHandler = bodyHandler;
+        this.contentDecoderRegistry = contentDecoderRegistry;
+        this.executor = executor;
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+        Optional<IncrementalDecoder> decoder = contentDecoderRegistry.newDecoder(responseInfo.headers());
+
+        if (decoder.isPresent()) {
+            return new DecompressingBodySubscriber<>(bodyHandler.apply(new DecodedResponseInfo(responseInfo)),
+                    decoder.get(), executor);
+        }
+
+        return bodyHandler.apply(responseInfo);
+    }
+
+    private static final class DecodedResponseInfo implements HttpResponse.ResponseInfo {
+
+        private final HttpResponse.ResponseInfo responseInfo;
+        private final HttpHeaders headers;
+
+        private DecodedResponseInfo(HttpResponse.ResponseInfo responseInfo) {
+            this.responseInfo = responseInfo;
+            this.headers = HttpHeaders.of(responseInfo.headers().map(), (name, value) ->
+                    !name.equalsIgnoreCase(HttpHeader.CONTENT_ENCODING) && !name.equalsIgnoreCase(HttpHeader.CONTENT_LENGTH));
+        }
+
+        @Override
+        public int statusCode() {
+            return responseInfo.statusCode();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return responseInfo.version();
+        }
+    }
+}
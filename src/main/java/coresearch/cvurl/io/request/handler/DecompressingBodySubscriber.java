@@ -0,0 +1,193 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.encoding.IncrementalDecoder;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The body subscriber that decodes compressed data as it arrives and passes the decompressed buffers
+ * to the downstream {@link HttpResponse.BodySubscriber}.
+ *
+ * <p> Every received list of buffers is decompressed into at most one list of buffers, so the demand
+ * of the downstream subscriber is passed to the upstream publisher as is, and the amount of buffered data
+ * does not depend on the size of the response body.
+ *
+ * <p> If an executor is specified, the data is decoded and passed downstream on that executor, one signal
+ * at a time and in the order of arrival, instead of on the thread that delivers the data.
+ *
+ * @param <T> the response body type
+ * @since 1.6
+ */
+public class DecompressingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final IncrementalDecoder decoder;
+    private final Executor executor;
+    private final Queue<Runnable> signals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+
+    private Flow.Subscription subscription;
+    private boolean done;
+
+    /**
+     * Creates an instance of the {@link DecompressingBodySubscriber} class that decodes the data
+     * on the thread that delivers it.
+     *
+     * @param downstream - the subscriber that receives the decompressed data
+     * @param decoder - the decoder used to decompress the data
+     */
+    public DecompressingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, IncrementalDecoder decoder) {
+        this(downstream, decoder, null);
+    }
+
+    /**
+     * Creates an instance of the {@link DecompressingBodySubscriber} class.
+     *
+     * @param downstream - the subscriber that receives the decompressed data
+     * @param decoder - the decoder used to decompress the data
+     * @param executor - the executor that decodes the data, or {@code null} to decode it on the delivering thread
+     * @since 1.6
+     */
+    public DecompressingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, IncrementalDecoder decoder,
+                                       Executor executor) {
+        this.downstream = downstream;
+        this.decoder = decoder;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        downstream.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        signal(() -> decode(item));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        signal(() -> fail(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        signal(this::complete);
+    }
+
+    private void signal(Runnable signal) {
+        if (executor == null) {
+            signal.run();
+            return;
+        }
+
+        signals.add(signal);
+
+        // Only the first pending signal starts a drain, so the signals are processed one at a time.
+        if (pendingSignals.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            signals.poll().run();
+        } while (pendingSignals.decrementAndGet() > 0);
+    }
+
+    private void decode(List<ByteBuffer> item) {
+        if (done) {
+            return;
+        }
+
+        List<ByteBuffer> decoded = new ArrayList<>();
+
+        try {
+            for (ByteBuffer buffer : item) {
+                decoder.setInput(buffer);
+                decodeAvailable(decoded);
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+
+        if (decoded.isEmpty()) {
+            // Nothing to pass downstream, so the demand is still unsatisfied.
+            subscription.request(1);
+        } else {
+            downstream.onNext(decoded);
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        if (done) {
+            return;
+        }
+
+        done = true;
+        decoder.end();
+        downstream.onError(throwable);
+    }
+
+    private void complete() {
+        if (done) {
+            return;
+        }
+
+        done = true;
+
+        try {
+            decoder.finish();
+        } catch (IOException e) {
+            downstream.onError(e);
+            return;
+        }
+
+        downstream.onComplete();
+    }
+
+    private void decodeAvailable(List<ByteBuffer> decoded) throws IOException {
+        while (true) {
+            byte[] chunk = new byte[BUFFER_SIZE];
+            int size = 0;
+            int n;
+
+            while (size < chunk.length && (n = decoder.decode(chunk, size, chunk.length - size)) > 0) {
+                size += n;
+            }
+
+            if (size > 0) {
+                decoded.add(ByteBuffer.wrap(chunk, 0, size));
+            }
+
+            if (size < chunk.length) {
+                return;
+            }
+        }
+    }
+}
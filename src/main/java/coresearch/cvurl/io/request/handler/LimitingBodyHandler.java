@@ -0,0 +1,42 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.model.MemoryBudget;
+
+import java.net.http.HttpResponse;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The body handler that decorates an arbitrary {@link HttpResponse.BodyHandler} with the limits of the memory
+ * taken by the response body.
+ *
+ * @param <T> the response body type
+ * @see LimitingBodySubscriber
+ * @since 1.6
+ */
+public class LimitingBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+    private final HttpResponse.BodyHandler<T> bodyHandler;
+    private final long maxBodySize;
+    private final MemoryBudget memoryBudget;
+
+    /**
+     * Creates an instance of the {@link LimitingBodyHandler} class.
+     *
+     * @param bodyHandler - the body handler that receives the body
+     * @param maxBodySize - the maximum body size in bytes, or a negative value if the size is not limited
+     * @param memoryBudget - the budget the received bytes are reserved from
+     */
+    public LimitingBodyHandler(HttpResponse.BodyHandler<T> bodyHandler, long maxBodySize, MemoryBudget memoryBudget) {
+        this.bodyHandler = notNullParam(bodyHandler, "bodyHandler");
+        this.maxBodySize = maxBodySize;
+        this.memoryBudget = notNullParam(memoryBudget, "memoryBudget");
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+        return new LimitingBodySubscriber<>(bodyHandler.apply(responseInfo), maxBodySize, memoryBudget,
+                responseInfo.headers().firstValueAsLong(HttpHeader.CONTENT_LENGTH).orElse(-1));
+    }
+}
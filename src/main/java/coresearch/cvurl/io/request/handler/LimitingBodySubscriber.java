@@ -0,0 +1,221 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.exception.BodyTooLargeException;
+import coresearch.cvurl.io.model.MemoryBudget;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+import static java.lang.String.format;
+
+/**
+ * The body subscriber that limits the memory taken by the body received by the downstream
+ * {@link HttpResponse.BodySubscriber}.
+ *
+ * <p> The body fails with {@link BodyTooLargeException} and the subscription is cancelled, which aborts
+ * the exchange, as soon as the body exceeds the maximum size, or at once if the Content-Length header
+ * announces a larger body. If the {@link MemoryBudget} is limited, the data is requested one list of buffers
+ * at a time, and the bytes received are reserved from the budget until the body is received completely or fails,
+ * so the data is not requested while the budget is exceeded.
+ *
+ * @param <T> the response body type
+ * @since 1.6
+ */
+public class LimitingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> downstream;
+    private final long maxBodySize;
+    private final long contentLength;
+    private final MemoryBudget.Lease lease;
+
+    private Flow.Subscription subscription;
+    private long received;
+    private volatile boolean done;
+
+    // Guarded by this, used only when the budget is limited.
+    private long demand;
+    private boolean requested;
+    private boolean stopped;
+
+    /**
+     * Creates an instance of the {@link LimitingBodySubscriber} class.
+     *
+     * @param downstream - the subscriber that receives the body
+     * @param maxBodySize - the maximum body size in bytes, or a negative value if the size is not limited
+     * @param memoryBudget - the budget the received bytes are reserved from
+     * @param contentLength - the announced length of the body, or a negative value if it is unknown
+     */
+    public LimitingBodySubscriber(HttpResponse.BodySubscriber<T> downstream, long maxBodySize,
+                                  MemoryBudget memoryBudget, long contentLength) {
+        notNullParam(downstream, "downstream");
+        notNullParam(memoryBudget, "memoryBudget");
+
+        this.downstream = downstream;
+        this.maxBodySize = maxBodySize;
+        this.contentLength = contentLength;
+        this.lease = memoryBudget.isUnlimited() ? null : memoryBudget.newLease();
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return downstream.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+
+        if (exceedsMaxBodySize(contentLength)) {
+            done = true;
+            subscription.cancel();
+            closeLease();
+            downstream.onSubscribe(new Gate());
+            downstream.onError(tooLarge());
+            return;
+        }
+
+        downstream.onSubscribe(new Gate());
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (done) {
+            return;
+        }
+
+        long bytes = 0;
+        for (ByteBuffer buffer : item) {
+            bytes += buffer.remaining();
+        }
+
+        received += bytes;
+
+        if (exceedsMaxBodySize(received)) {
+            done = true;
+            subscription.cancel();
+            closeLease();
+            downstream.onError(tooLarge());
+            return;
+        }
+
+        if (lease == null) {
+            downstream.onNext(item);
+            return;
+        }
+
+        synchronized (this) {
+            stopped = true;
+        }
+
+        if (lease.reserve(bytes, this::resume)) {
+            synchronized (this) {
+                stopped = false;
+            }
+        }
+
+        downstream.onNext(item);
+
+        synchronized (this) {
+            requested = false;
+        }
+
+        requestNext();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+
+        done = true;
+        closeLease();
+        downstream.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+
+        done = true;
+        closeLease();
+        downstream.onComplete();
+    }
+
+    private boolean exceedsMaxBodySize(long size) {
+        return maxBodySize >= 0 && size > maxBodySize;
+    }
+
+    private BodyTooLargeException tooLarge() {
+        return new BodyTooLargeException(format("The response body exceeds the maximum size of %d bytes",
+                maxBodySize), maxBodySize);
+    }
+
+    private void resume() {
+        synchronized (this) {
+            stopped = false;
+        }
+
+        requestNext();
+    }
+
+    private void requestNext() {
+        synchronized (this) {
+            if (done || requested || stopped || demand == 0) {
+                return;
+            }
+
+            requested = true;
+
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        }
+
+        subscription.request(1);
+    }
+
+    private void closeLease() {
+        if (lease != null) {
+            lease.close();
+        }
+    }
+
+    /**
+     * The subscription passed to the downstream subscriber, which requests the data from the connection
+     * only while the budget allows it.
+     */
+    private final class Gate implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+
+            if (lease == null || n <= 0) {
+                subscription.request(n);
+                return;
+            }
+
+            synchronized (LimitingBodySubscriber.this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+
+            requestNext();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            subscription.cancel();
+            closeLease();
+        }
+    }
+}
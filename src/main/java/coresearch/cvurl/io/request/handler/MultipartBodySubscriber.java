@@ -0,0 +1,394 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+import coresearch.cvurl.io.multipart.ResponsePart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The body subscriber that splits a multipart body, such as {@code multipart/mixed} or {@code multipart/byteranges},
+ * into parts as the data arrives. The body is available as a lazily consumed {@link Stream} of parts as soon as
+ * the response headers are received, and every part is available as soon as its headers are received,
+ * with the body that is read as it arrives.
+ *
+ * <p> The body of a part can only be read until the next part is requested from the stream, the rest of it is skipped.
+ * At most {@value #MAX_BUFFERED_ITEMS} received lists of buffers are kept ahead of the consumer,
+ * so the amount of buffered data does not depend on the size of the response body.
+ *
+ * @since 1.6
+ */
+public class MultipartBodySubscriber implements HttpResponse.BodySubscriber<Stream<ResponsePart>> {
+
+    private static final int MAX_BUFFERED_ITEMS = 16;
+    private static final String MULTIPART_PREFIX = "multipart/";
+    private static final String BOUNDARY_PARAMETER = "boundary=";
+
+    private final CompletableFuture<Stream<ResponsePart>> result = new CompletableFuture<>();
+    private final BlockingQueue<List<Event>> batches = new LinkedBlockingQueue<>();
+    private final MultipartParser parser;
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean closed;
+
+    private List<Event> events = new ArrayList<>();
+    private boolean done;
+
+    /**
+     * Creates an instance of the {@link MultipartBodySubscriber} class.
+     *
+     * @param boundary - the boundary of the body, as specified in the Content-Type header
+     */
+    public MultipartBodySubscriber(String boundary) {
+        notNullParam(boundary, "boundary");
+
+        this.parser = new MultipartParser(boundary, new MultipartParser.Listener() {
+            @Override
+            public void onPartStart(HttpHeaders headers) {
+                events.add(Event.partStart(headers));
+            }
+
+            @Override
+            public void onPartContent(ByteBuffer content) {
+                events.add(Event.content(content));
+            }
+
+            @Override
+            public void onPartEnd() {
+                events.add(Event.PART_END);
+            }
+        });
+    }
+
+    /**
+     * Returns the boundary specified in the Content-Type header if it is a multipart content type.
+     *
+     * @param headers - the response headers
+     * @return the boundary, or empty {@link Optional} if the body is not multipart
+     */
+    public static Optional<String> boundaryOf(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.CONTENT_TYPE)
+                .filter(contentType -> contentType.trim().toLowerCase(Locale.ROOT).startsWith(MULTIPART_PREFIX))
+                .map(MultipartBodySubscriber::boundaryParameter);
+    }
+
+    @Override
+    public CompletionStage<Stream<ResponsePart>> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        result.complete(StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PartIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close));
+
+        if (closed) {
+            subscription.cancel();
+        } else {
+            subscription.request(MAX_BUFFERED_ITEMS);
+        }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (done || closed) {
+            return;
+        }
+
+        try {
+            for (ByteBuffer buffer : item) {
+                parser.parse(buffer);
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            fail(e);
+            return;
+        }
+
+        if (events.isEmpty()) {
+            // Nothing to pass to the consumer, so it will not request more data.
+            subscription.request(1);
+        } else {
+            batches.add(events);
+            events = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done || closed) {
+            return;
+        }
+
+        fail(new ResponseBodyHandlingException(throwable.getMessage(), throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        if (done || closed) {
+            return;
+        }
+
+        try {
+            parser.complete();
+        } catch (RuntimeException e) {
+            fail(e);
+            return;
+        }
+
+        done = true;
+        events.add(Event.END);
+        batches.add(events);
+    }
+
+    private void fail(RuntimeException e) {
+        done = true;
+
+        // The parts parsed before the failure are still passed to the consumer.
+        events.add(Event.error(e));
+        batches.add(events);
+    }
+
+    private void close() {
+        closed = true;
+        batches.clear();
+        // A consumer that is still waiting for the next part finishes instead of waiting forever.
+        batches.add(List.of(Event.END));
+
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private static String boundaryParameter(String contentType) {
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf(BOUNDARY_PARAMETER);
+
+        if (index < 0) {
+            return null;
+        }
+
+        String value = contentType.substring(index + BOUNDARY_PARAMETER.length());
+        int end = value.indexOf(';');
+        value = (end < 0 ? value : value.substring(0, end)).trim();
+
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<Event> take() {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseBodyHandlingException("Thread execution was interrupted while reading the body", e);
+        }
+    }
+
+    private final class PartIterator implements Iterator<ResponsePart> {
+
+        private List<Event> batch = List.of();
+        private int index;
+        private PartInputStream currentBody;
+        private ResponsePart next;
+        private boolean finished;
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+
+            if (currentBody != null) {
+                currentBody.detach();
+                currentBody = null;
+            }
+
+            while (!finished) {
+                Event event = peek();
+
+                if (event.kind == Event.Kind.ERROR) {
+                    finished = true;
+                    throw event.error;
+                }
+
+                index++;
+
+                if (event.kind == Event.Kind.END) {
+                    finished = true;
+                } else if (event.kind == Event.Kind.PART_START) {
+                    currentBody = new PartInputStream(this);
+                    next = new ResponsePart(event.headers, currentBody);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public ResponsePart next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            ResponsePart part = next;
+            next = null;
+            return part;
+        }
+
+        private Event peek() {
+            while (index == batch.size()) {
+                batch = take();
+                index = 0;
+                subscription.request(1);
+            }
+
+            return batch.get(index);
+        }
+
+        private void advance() {
+            index++;
+        }
+    }
+
+    private static final class PartInputStream extends InputStream {
+
+        private final PartIterator iterator;
+
+        private ByteBuffer buffer;
+        private boolean ended;
+
+        PartInputStream(PartIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+
+            if (len == 0) {
+                return 0;
+            }
+
+            if (!fill()) {
+                return -1;
+            }
+
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer == null ? 0 : buffer.remaining();
+        }
+
+        @Override
+        public void close() {
+            detach();
+        }
+
+        private boolean fill() throws IOException {
+            while (buffer == null || !buffer.hasRemaining()) {
+                if (ended) {
+                    return false;
+                }
+
+                Event event = iterator.peek();
+
+                if (event.kind == Event.Kind.ERROR) {
+                    // The error is left in place to be thrown by the stream of parts as well.
+                    throw new IOException(event.error.getMessage(), event.error);
+                }
+
+                if (event.kind != Event.Kind.CONTENT) {
+                    ended = true;
+
+                    if (event.kind == Event.Kind.PART_END) {
+                        iterator.advance();
+                    }
+
+                    return false;
+                }
+
+                iterator.advance();
+                buffer = event.content;
+            }
+
+            return true;
+        }
+
+        private void detach() {
+            ended = true;
+            buffer = null;
+        }
+    }
+
+    private static final class Event {
+
+        private static final Event PART_END = new Event(Kind.PART_END, null, null, null);
+        private static final Event END = new Event(Kind.END, null, null, null);
+
+        private final Kind kind;
+        private final HttpHeaders headers;
+        private final ByteBuffer content;
+        private final RuntimeException error;
+
+        private Event(Kind kind, HttpHeaders headers, ByteBuffer content, RuntimeException error) {
+            this.kind = kind;
+            this.headers = headers;
+            this.content = content;
+            this.error = error;
+        }
+
+        private static Event partStart(HttpHeaders headers) {
+            return new Event(Kind.PART_START, headers, null, null);
+        }
+
+        private static Event content(ByteBuffer content) {
+            return new Event(Kind.CONTENT, null, content, null);
+        }
+
+        private static Event error(RuntimeException error) {
+            return new Event(Kind.ERROR, null, null, error);
+        }
+
+        private enum Kind {
+            PART_START, CONTENT, PART_END, END, ERROR
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The incremental parser of a multipart body as defined by RFC 2046. The data can be split into buffers
+ * at arbitrary positions. The content of the parts is passed to the listener as slices of the parsed buffers,
+ * so it is never copied, except for the bytes that look like the beginning of a delimiter at the end of a buffer.
+ *
+ * @since 1.6
+ */
+final class MultipartParser {
+
+    private static final int MAX_HEADERS_SIZE = 64 * 1024;
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final byte[] delimiter;
+    private final Listener listener;
+
+    private State state = State.PREAMBLE;
+    private int matched;
+    private int carried;
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+    private int headersSize;
+    private Map<String, List<String>> headers;
+    private String lastHeaderName;
+
+    /**
+     * Creates an instance of the {@link MultipartParser} class.
+     *
+     * @param boundary - the boundary of the body
+     * @param listener - the listener of the parsed parts
+     */
+    MultipartParser(String boundary, Listener listener) {
+        this.delimiter = ("\r\n--" + boundary).getBytes(ISO_8859_1);
+        this.listener = listener;
+
+        // The first delimiter may be at the very beginning of the body, without the preceding line break.
+        this.matched = 2;
+        this.carried = 2;
+    }
+
+    /**
+     * Parses the buffer and passes the parts to the listener.
+     *
+     * @param buffer - the buffer, its position is advanced to the limit
+     * @throws ResponseBodyHandlingException if the headers of a part are malformed or too large
+     */
+    void parse(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            switch (state) {
+                case PREAMBLE:
+                case BODY:
+                    parseContent(buffer);
+                    break;
+                case DELIMITER_LINE:
+                case HEADERS:
+                    parseLine(buffer);
+                    break;
+                default:
+                    // The epilogue is ignored.
+                    buffer.position(buffer.limit());
+            }
+        }
+    }
+
+    /**
+     * Checks that the body is ended by the closing delimiter.
+     *
+     * @throws ResponseBodyHandlingException if the body ended before the closing delimiter
+     */
+    void complete() {
+        if (state == State.DELIMITER_LINE && lineLength >= 2 && line[0] == '-' && line[1] == '-') {
+            state = State.EPILOGUE;
+        }
+
+        if (state != State.EPILOGUE) {
+            throw new ResponseBodyHandlingException("The multipart body ended before the closing boundary", null);
+        }
+    }
+
+    private void parseContent(ByteBuffer buffer) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int i = start;
+
+        while (i < limit) {
+            byte b = buffer.get(i);
+
+            if (b == delimiter[matched]) {
+                matched++;
+                i++;
+
+                if (matched == delimiter.length) {
+                    emitContent(buffer, start, i - (delimiter.length - carried));
+                    matched = 0;
+                    carried = 0;
+                    buffer.position(i);
+
+                    if (state == State.BODY) {
+                        listener.onPartEnd();
+                    }
+
+                    state = State.DELIMITER_LINE;
+                    return;
+                }
+            } else if (matched > 0) {
+                // The carriage return only starts the delimiter, so the bytes matched so far are the content.
+                if (carried > 0) {
+                    emitContent(ByteBuffer.wrap(delimiter, 0, carried));
+                    carried = 0;
+                }
+
+                matched = 0;
+            } else {
+                i++;
+            }
+        }
+
+        emitContent(buffer, start, limit - (matched - carried));
+        carried = matched;
+        buffer.position(limit);
+    }
+
+    private void emitContent(ByteBuffer buffer, int from, int to) {
+        if (to > from) {
+            emitContent(buffer.duplicate().position(from).limit(to).slice());
+        }
+    }
+
+    private void emitContent(ByteBuffer content) {
+        if (state == State.BODY) {
+            listener.onPartContent(content);
+        }
+    }
+
+    private void parseLine(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+
+            if (b == LF) {
+                int length = lineLength > 0 && line[lineLength - 1] == CR ? lineLength - 1 : lineLength;
+                lineLength = 0;
+
+                if (state == State.DELIMITER_LINE) {
+                    processDelimiterLine(length);
+                } else {
+                    processHeaderLine(length);
+                }
+
+                return;
+            }
+
+            appendToLine(b);
+        }
+    }
+
+    private void processDelimiterLine(int length) {
+        if (length >= 2 && line[0] == '-' && line[1] == '-') {
+            state = State.EPILOGUE;
+        } else {
+            state = State.HEADERS;
+            headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headersSize = 0;
+            lastHeaderName = null;
+        }
+    }
+
+    private void processHeaderLine(int length) {
+        if (length == 0) {
+            state = State.BODY;
+            listener.onPartStart(HttpHeaders.of(headers, (name, value) -> true));
+            return;
+        }
+
+        headersSize += length;
+        if (headersSize > MAX_HEADERS_SIZE) {
+            throw new ResponseBodyHandlingException(
+                    format("The headers of a multipart body part exceed %d bytes", MAX_HEADERS_SIZE), null);
+        }
+
+        String value = new String(line, 0, length, UTF_8);
+
+        if ((line[0] == ' ' || line[0] == '\t') && lastHeaderName != null) {
+            // An obsolete folded line continues the value of the previous header.
+            List<String> values = headers.get(lastHeaderName);
+            values.set(values.size() - 1, values.get(values.size() - 1) + ' ' + value.trim());
+            return;
+        }
+
+        int colon = value.indexOf(':');
+        if (colon <= 0) {
+            throw new ResponseBodyHandlingException(format("Malformed multipart body part header: %s", value), null);
+        }
+
+        lastHeaderName = value.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        headers.computeIfAbsent(lastHeaderName, name -> new ArrayList<>()).add(value.substring(colon + 1).trim());
+    }
+
+    private void appendToLine(byte b) {
+        if (lineLength == line.length) {
+            if (line.length >= MAX_HEADERS_SIZE) {
+                throw new ResponseBodyHandlingException(
+                        format("A line of a multipart body part header exceeds %d bytes", MAX_HEADERS_SIZE), null);
+            }
+
+            line = Arrays.copyOf(line, line.length * 2);
+        }
+
+        line[lineLength++] = b;
+    }
+
+    private enum State {
+        PREAMBLE, DELIMITER_LINE, HEADERS, BODY, EPILOGUE
+    }
+
+    /**
+     * The listener of the parsed parts.
+     */
+    interface Listener {
+
+        void onPartStart(HttpHeaders headers);
+
+        void onPartContent(ByteBuffer content);
+
+        void onPartEnd();
+    }
+}
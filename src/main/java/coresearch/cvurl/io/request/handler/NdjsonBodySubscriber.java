@@ -0,0 +1,370 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
+import coresearch.cvurl.io.mapper.GenericMapper;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.String.format;
+
+/**
+ * The body subscriber that splits newline-delimited JSON (NDJSON, JSON Lines) into lines as the data arrives
+ * and converts every line to an object using the {@link GenericMapper}. The body is available as a lazily
+ * consumed {@link Stream} as soon as the response headers are received, so the elements can be processed
+ * before the whole body is received.
+ *
+ * <p> At most {@value #MAX_BUFFERED_ITEMS} received lists of buffers are converted ahead of the consumer of the stream,
+ * so the amount of buffered data does not depend on the size of the response body. Blank lines are skipped,
+ * and a line longer than the maximum line length fails the stream.
+ *
+ * @param <T> the type of the elements
+ * @since 1.6
+ */
+public class NdjsonBodySubscriber<T> implements HttpResponse.BodySubscriber<Stream<T>> {
+
+    /**
+     * The default maximum length of a line in bytes, 8 MiB.
+     */
+    public static final int DEFAULT_MAX_LINE_LENGTH = 8 * 1024 * 1024;
+
+    private static final int MAX_BUFFERED_ITEMS = 16;
+    private static final int INITIAL_LINE_CAPACITY = 1024;
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final CompletableFuture<Stream<T>> result = new CompletableFuture<>();
+    private final BlockingQueue<Batch<T>> batches = new LinkedBlockingQueue<>();
+    private final GenericMapper genericMapper;
+    private final Class<T> type;
+    private final BiConsumer<String, MappingException> errorHandler;
+    private final int maxLineLength;
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean closed;
+
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+    private long lineNumber;
+    private boolean done;
+
+    /**
+     * Creates an instance of the {@link NdjsonBodySubscriber} class that fails the stream on the first line
+     * which cannot be converted.
+     *
+     * @param genericMapper - the mapper used to convert the lines
+     * @param type - the type of object to which the lines should be converted
+     */
+    public NdjsonBodySubscriber(GenericMapper genericMapper, Class<T> type) {
+        this(genericMapper, type, null);
+    }
+
+    /**
+     * Creates an instance of the {@link NdjsonBodySubscriber} class.
+     *
+     * @param genericMapper - the mapper used to convert the lines
+     * @param type - the type of object to which the lines should be converted
+     * @param errorHandler - the handler that receives the lines which cannot be converted along with the error,
+     *                     such lines are skipped; if {@code null}, the stream fails on the first such line
+     */
+    public NdjsonBodySubscriber(GenericMapper genericMapper, Class<T> type,
+                                BiConsumer<String, MappingException> errorHandler) {
+        this(genericMapper, type, errorHandler, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * Creates an instance of the {@link NdjsonBodySubscriber} class.
+     *
+     * @param genericMapper - the mapper used to convert the lines
+     * @param type - the type of object to which the lines should be converted
+     * @param errorHandler - the handler that receives the lines which cannot be converted along with the error,
+     *                     such lines are skipped; if {@code null}, the stream fails on the first such line
+     * @param maxLineLength - the maximum length of a line in bytes, excluding the line feed
+     * @throws IllegalArgumentException if the maximum line length is not positive
+     * @since 1.6
+     */
+    public NdjsonBodySubscriber(GenericMapper genericMapper, Class<T> type,
+                                BiConsumer<String, MappingException> errorHandler, int maxLineLength) {
+        if (maxLineLength <= 0) {
+            throw new IllegalArgumentException("The maximum line length must be positive, got: " + maxLineLength);
+        }
+
+        this.genericMapper = genericMapper;
+        this.type = type;
+        this.errorHandler = errorHandler;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public CompletionStage<Stream<T>> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        result.complete(StreamSupport.stream(Spliterators.spliteratorUnknownSize(new BatchIterator(), Spliterator.ORDERED), false)
+                .onClose(this::close));
+
+        if (closed) {
+            subscription.cancel();
+        } else {
+            subscription.request(MAX_BUFFERED_ITEMS);
+        }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (done || closed) {
+            return;
+        }
+
+        List<T> elements = new ArrayList<>();
+
+        try {
+            for (ByteBuffer buffer : item) {
+                splitLines(buffer, elements);
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            fail(elements, e);
+            return;
+        }
+
+        if (elements.isEmpty()) {
+            // Nothing to pass to the consumer, so it will not request more data.
+            subscription.request(1);
+        } else {
+            batches.add(Batch.of(elements));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (done) {
+            return;
+        }
+
+        fail(List.of(), new ResponseBodyHandlingException(throwable.getMessage(), throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+
+        List<T> elements = new ArrayList<>();
+
+        try {
+            if (lineLength > 0) {
+                mapLine(ByteBuffer.wrap(line, 0, lineLength), elements);
+            }
+        } catch (RuntimeException e) {
+            fail(elements, e);
+            return;
+        }
+
+        done = true;
+        batches.add(Batch.of(elements));
+        batches.add(Batch.end());
+    }
+
+    private void splitLines(ByteBuffer buffer, List<T> elements) {
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int end = indexOfLineFeed(buffer, start, buffer.limit());
+            checkLineLength(lineLength + (end < 0 ? buffer.limit() : end) - start);
+
+            if (end < 0) {
+                appendToLine(buffer, start, buffer.limit());
+                buffer.position(buffer.limit());
+                return;
+            }
+
+            if (lineLength == 0) {
+                mapLine(buffer.duplicate().position(start).limit(end), elements);
+            } else {
+                appendToLine(buffer, start, end);
+                mapLine(ByteBuffer.wrap(line, 0, lineLength), elements);
+                lineLength = 0;
+            }
+
+            buffer.position(end + 1);
+        }
+    }
+
+    private void mapLine(ByteBuffer value, List<T> elements) {
+        lineNumber++;
+
+        int limit = value.limit();
+        while (limit > value.position() && isWhitespace(value.get(limit - 1))) {
+            limit--;
+        }
+
+        if (limit == value.position()) {
+            return;
+        }
+
+        value.limit(limit);
+
+        try {
+            elements.add(genericMapper.readValue(value.duplicate(), type));
+        } catch (MappingException e) {
+            if (errorHandler == null) {
+                throw new MappingException(format("Cannot convert line %d: %s", lineNumber, e.getMessage()), e);
+            }
+
+            errorHandler.accept(StandardCharsets.UTF_8.decode(value).toString(), e);
+        }
+    }
+
+    private void checkLineLength(long length) {
+        if (length > maxLineLength) {
+            throw new ResponseBodyHandlingException(format("Line %d exceeds the maximum length of %d bytes",
+                    lineNumber + 1, maxLineLength), null);
+        }
+    }
+
+    private void appendToLine(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.min(Math.max(line.length * 2, lineLength + length), maxLineLength));
+        }
+
+        buffer.duplicate().position(from).limit(to).get(line, lineLength, length);
+        lineLength += length;
+    }
+
+    private void fail(List<T> elements, RuntimeException e) {
+        done = true;
+
+        // The lines converted before the failed one are still passed to the consumer.
+        if (!elements.isEmpty()) {
+            batches.add(Batch.of(elements));
+        }
+
+        batches.add(Batch.error(e));
+    }
+
+    private void close() {
+        closed = true;
+        batches.clear();
+        // A consumer that is still waiting for the next batch finishes instead of waiting forever.
+        batches.add(Batch.end());
+
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private static int indexOfLineFeed(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == LF) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == CR || b == ' ' || b == '\t';
+    }
+
+    private final class BatchIterator implements Iterator<T> {
+
+        private Iterator<T> current = Collections.emptyIterator();
+        private boolean finished;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (finished) {
+                    return false;
+                }
+
+                Batch<T> batch = take();
+
+                if (batch.error != null) {
+                    finished = true;
+                    throw batch.error;
+                }
+
+                if (batch.elements == null) {
+                    finished = true;
+                    return false;
+                }
+
+                current = batch.elements.iterator();
+                subscription.request(1);
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return current.next();
+        }
+
+        private Batch<T> take() {
+            try {
+                return batches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResponseBodyHandlingException("Thread execution was interrupted while reading the body", e);
+            }
+        }
+    }
+
+    private static final class Batch<T> {
+
+        private static final Batch<?> END = new Batch<>(null, null);
+
+        private final List<T> elements;
+        private final RuntimeException error;
+
+        private Batch(List<T> elements, RuntimeException error) {
+            this.elements = elements;
+            this.error = error;
+        }
+
+        private static <T> Batch<T> of(List<T> elements) {
+            return new Batch<>(elements, null);
+        }
+
+        private static <T> Batch<T> error(RuntimeException error) {
+            return new Batch<>(null, error);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Batch<T> end() {
+            return (Batch<T>) END;
+        }
+    }
+}
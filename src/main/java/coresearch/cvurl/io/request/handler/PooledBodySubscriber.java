@@ -0,0 +1,80 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.model.BufferPool;
+import coresearch.cvurl.io.model.PooledBody;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+
+/**
+ * The body subscriber that copies the body into buffers acquired from a {@link BufferPool} as it arrives,
+ * filling every buffer completely, and completes with the {@link PooledBody} that returns them to the pool
+ * on release. The buffers are returned to the pool at once if the body cannot be received.
+ *
+ * @since 1.6
+ */
+public class PooledBodySubscriber implements HttpResponse.BodySubscriber<PooledBody> {
+
+    private final CompletableFuture<PooledBody> result = new CompletableFuture<>();
+    private final BufferPool pool;
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    private ByteBuffer current;
+
+    /**
+     * Creates an instance of the {@link PooledBodySubscriber} class.
+     *
+     * @param pool - the pool to acquire the buffers from
+     */
+    public PooledBodySubscriber(BufferPool pool) {
+        this.pool = notNullParam(pool, "pool");
+    }
+
+    @Override
+    public CompletionStage<PooledBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        for (ByteBuffer buffer : item) {
+            while (buffer.hasRemaining()) {
+                if (current == null || !current.hasRemaining()) {
+                    current = pool.acquire();
+                    buffers.add(current);
+                }
+
+                int length = Math.min(current.remaining(), buffer.remaining());
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(slice.position() + length);
+                current.put(slice);
+                buffer.position(buffer.position() + length);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        buffers.forEach(pool::release);
+        buffers.clear();
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        buffers.forEach(ByteBuffer::flip);
+        result.complete(new PooledBody(buffers, pool));
+    }
+}
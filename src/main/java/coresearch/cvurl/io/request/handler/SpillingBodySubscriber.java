@@ -0,0 +1,189 @@
+package coresearch.cvurl.io.request.handler;
+
+import coresearch.cvurl.io.model.SpillableBody;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * The body subscriber that keeps the body in memory until it exceeds the threshold, and then writes it,
+ * including the data received so far, to a temporary file. The body announced by the Content-Length header
+ * to be larger than the threshold is written to the file from the start, and the smaller one is received
+ * into an array of its exact size. The temporary file is deleted if the body cannot be received.
+ *
+ * @since 1.6
+ */
+public class SpillingBodySubscriber implements HttpResponse.BodySubscriber<SpillableBody> {
+
+    private static final int MIN_CAPACITY = 8 * 1024;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+    private static final String TEMP_FILE_PREFIX = "cvurl-";
+    private static final String TEMP_FILE_SUFFIX = ".body";
+
+    private final CompletableFuture<SpillableBody> result = new CompletableFuture<>();
+    private final long threshold;
+    private final Path directory;
+    private final long contentLength;
+
+    private Flow.Subscription subscription;
+    private byte[] buffer;
+    private long size;
+    private Path file;
+    private FileChannel channel;
+
+    /**
+     * Creates an instance of the {@link SpillingBodySubscriber} class that writes the large body
+     * to the default temporary-file directory.
+     *
+     * @param threshold - the size in bytes above which the body is written to a temporary file
+     * @param contentLength - the announced length of the body, or a negative value if it is unknown
+     */
+    public SpillingBodySubscriber(long threshold, long contentLength) {
+        this(threshold, null, contentLength);
+    }
+
+    /**
+     * Creates an instance of the {@link SpillingBodySubscriber} class.
+     *
+     * @param threshold - the size in bytes above which the body is written to a temporary file,
+     *                  which is at most the maximum size of an array
+     * @param directory - the directory of the temporary file, or {@code null} for the default temporary-file directory
+     * @param contentLength - the announced length of the body, or a negative value if it is unknown
+     */
+    public SpillingBodySubscriber(long threshold, Path directory, long contentLength) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The threshold must not be negative, got: " + threshold);
+        }
+
+        this.threshold = Math.min(threshold, MAX_CAPACITY);
+        this.directory = directory;
+        this.contentLength = contentLength;
+    }
+
+    @Override
+    public CompletionStage<SpillableBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+
+        if (contentLength > threshold) {
+            try {
+                spill();
+            } catch (IOException e) {
+                subscription.cancel();
+                onError(e);
+                return;
+            }
+        } else {
+            buffer = new byte[(int) (contentLength >= 0 ? contentLength : Math.min(MIN_CAPACITY, threshold))];
+        }
+
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+        if (result.isDone()) {
+            return;
+        }
+
+        try {
+            for (ByteBuffer byteBuffer : item) {
+                if (channel == null && size + byteBuffer.remaining() > threshold) {
+                    spill();
+                }
+
+                if (channel == null) {
+                    append(byteBuffer);
+                } else {
+                    size += byteBuffer.remaining();
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            subscription.cancel();
+            onError(e);
+            return;
+        }
+
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        buffer = null;
+
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throwable.addSuppressed(e);
+        }
+
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (channel == null) {
+            result.complete(SpillableBody.ofBytes(buffer, (int) size));
+            buffer = null;
+            return;
+        }
+
+        try {
+            channel.close();
+            result.complete(SpillableBody.ofFile(file, size));
+        } catch (IOException e) {
+            onError(e);
+        }
+    }
+
+    private void append(ByteBuffer byteBuffer) {
+        int length = byteBuffer.remaining();
+
+        if (size + length > buffer.length) {
+            // The threshold bounds the array, so the size fits an int here.
+            buffer = Arrays.copyOf(buffer, (int) Math.min(Math.max(size + length, (long) buffer.length << 1), threshold));
+        }
+
+        byteBuffer.get(buffer, (int) size, length);
+        size += length;
+    }
+
+    private void spill() throws IOException {
+        file = directory == null ?
+                Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX) :
+                Files.createTempFile(directory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+
+        if (buffer != null) {
+            ByteBuffer buffered = ByteBuffer.wrap(buffer, 0, (int) size);
+            while (buffered.hasRemaining()) {
+                channel.write(buffered);
+            }
+
+            buffer = null;
+        }
+    }
+}
@@ -58,6 +58,16 @@ public final class CVurlProxySelector extends ProxySelector {
         // ignored
     }
 
+    /**
+     * Returns the proxy selector used for the requests without a proxy of their own,
+     * or {@code null} if the default one is used.
+     *
+     * @since 1.6
+     */
+    public ProxySelector getProxySelector() {
+        return proxySelector;
+    }
+
     public void addProxy(String uri, CVurlProxy cVurlProxy) {
         proxiesByUri.computeIfAbsent(uri, k -> new ArrayList<>())
                 .add(toProxy(cVurlProxy));
@@ -0,0 +1,166 @@
+package coresearch.cvurl.io.sse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The incremental parser of the {@code text/event-stream} format as defined by the HTML Living Standard.
+ * The data can be split into buffers at arbitrary positions. The last event ID and the reconnection time
+ * are kept across connections, the rest of the state is reset by {@link #reset()}.
+ *
+ * @since 1.6
+ */
+final class EventStreamParser {
+
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final StringBuilder data = new StringBuilder();
+
+    private byte[] line = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+    private boolean skipLineFeed;
+    private boolean firstLine = true;
+
+    private String event = "";
+    private String lastEventId = "";
+    private long retry = -1;
+
+    /**
+     * Parses the buffer and passes every dispatched event to the consumer.
+     *
+     * @param buffer - the buffer, its position is advanced to the limit
+     * @param consumer - the consumer of the dispatched events
+     */
+    void parse(ByteBuffer buffer, Consumer<ServerSentEvent<String>> consumer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+
+                if (b == LF) {
+                    continue;
+                }
+            }
+
+            if (b == CR || b == LF) {
+                skipLineFeed = b == CR;
+                processLine(consumer);
+                lineLength = 0;
+            } else {
+                appendToLine(b);
+            }
+        }
+    }
+
+    /**
+     * Discards the incomplete line and event, which must not be dispatched when the connection is closed.
+     */
+    void reset() {
+        lineLength = 0;
+        skipLineFeed = false;
+        firstLine = true;
+        event = "";
+        data.setLength(0);
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * Returns the reconnection time in milliseconds set by the stream, or a negative value if it was not set.
+     */
+    long getRetry() {
+        return retry;
+    }
+
+    private void processLine(Consumer<ServerSentEvent<String>> consumer) {
+        int offset = 0;
+
+        if (firstLine) {
+            firstLine = false;
+
+            if (lineLength >= BOM.length && Arrays.equals(line, 0, BOM.length, BOM, 0, BOM.length)) {
+                offset = BOM.length;
+            }
+        }
+
+        if (offset == lineLength) {
+            dispatch(consumer);
+            return;
+        }
+
+        if (line[offset] == ':') {
+            return;
+        }
+
+        int colon = offset;
+        while (colon < lineLength && line[colon] != ':') {
+            colon++;
+        }
+
+        String field = new String(line, offset, colon - offset, StandardCharsets.UTF_8);
+        int valueStart = colon + 1;
+
+        if (valueStart < lineLength && line[valueStart] == ' ') {
+            valueStart++;
+        }
+
+        String value = valueStart < lineLength ?
+                new String(line, valueStart, lineLength - valueStart, StandardCharsets.UTF_8) : "";
+
+        switch (field) {
+            case "event":
+                event = value;
+                break;
+            case "data":
+                data.append(value).append('\n');
+                break;
+            case "id":
+                if (value.indexOf('\0') < 0) {
+                    lastEventId = value;
+                }
+                break;
+            case "retry":
+                if (!value.isEmpty() && value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                    try {
+                        retry = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        // Too large to be a sensible reconnection time, ignored like any other invalid value.
+                    }
+                }
+                break;
+            default:
+                // Unknown fields are ignored.
+        }
+    }
+
+    private void dispatch(Consumer<ServerSentEvent<String>> consumer) {
+        if (data.length() == 0) {
+            event = "";
+            return;
+        }
+
+        data.setLength(data.length() - 1);
+        var serverSentEvent = new ServerSentEvent<>(lastEventId, event.isEmpty() ? ServerSentEvent.DEFAULT_EVENT : event,
+                data.toString());
+
+        event = "";
+        data.setLength(0);
+        consumer.accept(serverSentEvent);
+    }
+
+    private void appendToLine(byte b) {
+        if (lineLength == line.length) {
+            line = Arrays.copyOf(line, line.length * 2);
+        }
+
+        line[lineLength++] = b;
+    }
+}
@@ -0,0 +1,298 @@
+package coresearch.cvurl.io.sse;
+
+import coresearch.cvurl.io.constant.HttpHeader;
+import coresearch.cvurl.io.constant.HttpStatus;
+import coresearch.cvurl.io.constant.MIMEType;
+import coresearch.cvurl.io.encoding.ContentDecoderRegistry;
+import coresearch.cvurl.io.exception.UnexpectedResponseException;
+import coresearch.cvurl.io.internal.util.Charsets;
+import coresearch.cvurl.io.internal.util.DrainingSubscription;
+import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.request.handler.DecompressingBodyHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static coresearch.cvurl.io.internal.util.Validation.notNullParam;
+import static java.lang.String.format;
+
+/**
+ * The cold publisher of the events received from a Server-Sent Events ({@code text/event-stream}) endpoint.
+ * Every subscription opens its own connection, which is re-established with the {@code Last-Event-ID} header
+ * after the reconnection time when the stream ends or the connection fails.
+ *
+ * <p> The events are parsed from the received buffers as they arrive, and the next buffers are requested only
+ * when all parsed events are delivered according to the demand of the subscriber, so no thread is blocked
+ * while waiting for the events. The subscription terminates with {@link UnexpectedResponseException}
+ * if the server responds with anything but a {@code 200} event stream, and completes if it responds with {@code 204}.
+ *
+ * @param <T> the type of the event data
+ * @since 1.6
+ */
+public final class EventStreamPublisher<T> implements Flow.Publisher<ServerSentEvent<T>> {
+
+    /** The reconnection time in milliseconds used until the stream sets its own one. */
+    public static final long DEFAULT_RETRY_MILLIS = 3000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventStreamPublisher.class);
+
+    private final HttpClient httpClient;
+    private final HttpRequest httpRequest;
+    private final ContentDecoderRegistry contentDecoderRegistry;
+    private final Function<String, T> dataMapper;
+
+    /**
+     * Creates an instance of the {@link EventStreamPublisher} class.
+     *
+     * @param httpClient - the client used to connect to the stream
+     * @param httpRequest - the request that opens the stream
+     * @param contentDecoderRegistry - the registry of the decoders used if the stream is compressed
+     * @param dataMapper - the function that converts the event data
+     */
+    public EventStreamPublisher(HttpClient httpClient, HttpRequest httpRequest,
+                                ContentDecoderRegistry contentDecoderRegistry, Function<String, T> dataMapper) {
+        this.httpClient = notNullParam(httpClient, "httpClient");
+        this.httpRequest = notNullParam(httpRequest, "httpRequest");
+        this.contentDecoderRegistry = notNullParam(contentDecoderRegistry, "contentDecoderRegistry");
+        this.dataMapper = notNullParam(dataMapper, "dataMapper");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ServerSentEvent<T>> subscriber) {
+        notNullParam(subscriber, "subscriber");
+
+        var subscription = new EventStreamSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.connect();
+    }
+
+    private static boolean isEventStream(HttpHeaders headers) {
+        return headers.firstValue(HttpHeader.CONTENT_TYPE)
+                .map(contentType -> contentType.trim().toLowerCase(Locale.ROOT).startsWith(MIMEType.TEXT_EVENT_STREAM))
+                .orElse(false);
+    }
+
+    private final class EventStreamSubscription extends DrainingSubscription {
+
+        private final Flow.Subscriber<? super ServerSentEvent<T>> subscriber;
+        private final EventStreamParser parser = new EventStreamParser();
+        private final Queue<ServerSentEvent<T>> events = new ConcurrentLinkedQueue<>();
+
+        private volatile Flow.Subscription upstream;
+        private volatile boolean upstreamRequested;
+        private volatile boolean completed;
+
+        private boolean done;
+
+        EventStreamSubscription(Flow.Subscriber<? super ServerSentEvent<T>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void connect() {
+            if (isTerminated()) {
+                return;
+            }
+
+            parser.reset();
+
+            HttpResponse.BodyHandler<String> bodyHandler = responseInfo ->
+                    responseInfo.statusCode() == HttpStatus.OK && isEventStream(responseInfo.headers()) ?
+                            new EventStreamBodySubscriber() :
+                            HttpResponse.BodySubscribers.ofString(Charsets.fromHeaders(responseInfo.headers()));
+
+            httpClient.sendAsync(connectionRequest(), new DecompressingBodyHandler<>(bodyHandler, contentDecoderRegistry))
+                    .whenComplete(this::onConnectionClosed);
+        }
+
+        private HttpRequest connectionRequest() {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(httpRequest.uri())
+                    .method(httpRequest.method(), httpRequest.bodyPublisher().orElseGet(HttpRequest.BodyPublishers::noBody))
+                    .expectContinue(httpRequest.expectContinue());
+
+            httpRequest.timeout().ifPresent(builder::timeout);
+            httpRequest.version().ifPresent(builder::version);
+            httpRequest.headers().map().forEach((name, values) -> {
+                if (!name.equalsIgnoreCase(HttpHeader.LAST_EVENT_ID)) {
+                    values.forEach(value -> builder.header(name, value));
+                }
+            });
+
+            if (httpRequest.headers().firstValue(HttpHeader.ACCEPT).isEmpty()) {
+                builder.header(HttpHeader.ACCEPT, MIMEType.TEXT_EVENT_STREAM);
+            }
+
+            String lastEventId = parser.getLastEventId();
+            if (!lastEventId.isEmpty()) {
+                builder.header(HttpHeader.LAST_EVENT_ID, lastEventId);
+            }
+
+            return builder.build();
+        }
+
+        private void onConnectionClosed(HttpResponse<String> response, Throwable throwable) {
+            upstream = null;
+
+            if (isTerminated()) {
+                drain();
+                return;
+            }
+
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable;
+
+                if (cause instanceof IOException) {
+                    LOGGER.warn("Event stream connection failed: {}", cause.getMessage());
+                    reconnect();
+                } else {
+                    setError(cause);
+                    drain();
+                }
+
+                return;
+            }
+
+            if (response.statusCode() == HttpStatus.NO_CONTENT) {
+                completed = true;
+                drain();
+            } else if (response.statusCode() != HttpStatus.OK || !isEventStream(response.headers())) {
+                setError(new UnexpectedResponseException(format("Received response with status code: %d, " +
+                        "expected: %d with %s content", response.statusCode(), HttpStatus.OK, MIMEType.TEXT_EVENT_STREAM),
+                        new Response<>(response)));
+                drain();
+            } else {
+                reconnect();
+            }
+        }
+
+        private void reconnect() {
+            long retry = parser.getRetry() >= 0 ? parser.getRetry() : DEFAULT_RETRY_MILLIS;
+
+            CompletableFuture.delayedExecutor(retry, TimeUnit.MILLISECONDS).execute(this::connect);
+        }
+
+        private boolean isTerminated() {
+            return isCancelled() || completed || getError() != null;
+        }
+
+        @Override
+        protected void drainOnce() {
+            if (done) {
+                return;
+            }
+
+            while (!isCancelled() && hasDemand() && !events.isEmpty()) {
+                consumeDemand();
+                subscriber.onNext(events.poll());
+            }
+
+            if (isCancelled()) {
+                done = true;
+                events.clear();
+                cancelUpstream();
+                return;
+            }
+
+            if (!events.isEmpty()) {
+                return;
+            }
+
+            Throwable throwable = getError();
+
+            if (throwable != null) {
+                done = true;
+                cancelUpstream();
+                subscriber.onError(throwable);
+            } else if (completed) {
+                done = true;
+                subscriber.onComplete();
+            } else {
+                Flow.Subscription current = upstream;
+
+                if (current != null && hasDemand() && !upstreamRequested) {
+                    upstreamRequested = true;
+                    current.request(1);
+                }
+            }
+        }
+
+        private void cancelUpstream() {
+            Flow.Subscription current = upstream;
+
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private final class EventStreamBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+            private final CompletableFuture<String> body = new CompletableFuture<>();
+
+            private Flow.Subscription subscription;
+
+            @Override
+            public CompletionStage<String> getBody() {
+                return body;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+
+                if (isTerminated()) {
+                    subscription.cancel();
+                    body.complete(null);
+                    return;
+                }
+
+                upstreamRequested = false;
+                upstream = subscription;
+                drain();
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+                try {
+                    for (ByteBuffer buffer : item) {
+                        parser.parse(buffer, event -> events.add(new ServerSentEvent<>(event.getId(), event.getEvent(),
+                                dataMapper.apply(event.getData()))));
+                    }
+                } catch (RuntimeException e) {
+                    setError(e);
+                    subscription.cancel();
+                    body.complete(null);
+                    return;
+                }
+
+                upstreamRequested = false;
+                drain();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                body.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                body.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package coresearch.cvurl.io.sse;
+
+import java.util.Objects;
+
+/**
+ * The event received from a Server-Sent Events stream.
+ *
+ * @param <T> the type of the event data
+ * @since 1.6
+ */
+public final class ServerSentEvent<T> {
+
+    /** The type of the events that do not specify it explicitly. */
+    public static final String DEFAULT_EVENT = "message";
+
+    private final String id;
+    private final String event;
+    private final T data;
+
+    /**
+     * Creates an instance of the {@link ServerSentEvent} class.
+     *
+     * @param id - the last event ID of the stream at the moment of the event, an empty string if none
+     * @param event - the event type
+     * @param data - the event data
+     */
+    public ServerSentEvent(String id, String event, T data) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+    }
+
+    /**
+     * Returns the last event ID of the stream at the moment of the event, an empty string if none.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the event type, {@value #DEFAULT_EVENT} by default.
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the event data.
+     */
+    public T getData() {
+        return data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        ServerSentEvent<?> that = (ServerSentEvent<?>) o;
+        return id.equals(that.id) && event.equals(that.event) && Objects.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, event, data);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent{" +
+                "id='" + id + '\'' +
+                ", event='" + event + '\'' +
+                ", data=" + data +
+                '}';
+    }
+}
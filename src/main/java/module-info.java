@@ -6,9 +6,13 @@ module coresearch.cvurl.io {
     exports coresearch.cvurl.io.util;
     exports coresearch.cvurl.io.constant;
     exports coresearch.cvurl.io.multipart;
+    exports coresearch.cvurl.io.encoding;
+    exports coresearch.cvurl.io.sse;
 
     requires java.net.http;
     requires com.fasterxml.jackson.core;
     requires com.fasterxml.jackson.databind;
     requires org.slf4j;
+
+    uses coresearch.cvurl.io.encoding.ContentDecoder;
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package coresearch.cvurl.io.internal.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+
+/**
+ * This class consists of {@code static} utility methods that create the executors of the virtual-thread mode.
+ *
+ * <p> This is the Java 21 version of the class, which replaces the Java 11 one when the multi-release jar
+ * runs on Java 21 or newer.
+ *
+ * @since 1.6
+ */
+public final class VirtualThreads {
+
+    // Virtual threads do not keep the virtual machine alive, so the shared executor is never shut down.
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Returns whether the running virtual machine supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Returns the shared executor that starts a new virtual thread for each task, which is never shut down.
+     *
+     * @return the shared executor
+     */
+    public static ExecutorService sharedExecutor() {
+        return SHARED_EXECUTOR;
+    }
+
+    /**
+     * Creates an executor that starts a new thread for each task, which is a virtual thread if requested.
+     * The executor must be shut down once its tasks are done.
+     *
+     * @param virtual - whether the threads are virtual
+     * @return the executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(boolean virtual) {
+        return virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newCachedThreadPool();
+    }
+
+    private VirtualThreads() {
+        throw new IllegalStateException(format("The creation of the %s class is prohibited", VirtualThreads.class.getName()));
+    }
+}
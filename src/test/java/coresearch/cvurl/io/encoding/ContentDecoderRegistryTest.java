@@ -0,0 +1,187 @@
+package coresearch.cvurl.io.encoding;
+
+import coresearch.cvurl.io.constant.HttpContentEncoding;
+import coresearch.cvurl.io.constant.HttpHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentDecoderRegistryTest {
+
+    private static final String CONTENT = "The quick brown fox jumps over the lazy dog. ".repeat(1000);
+
+    @Test
+    void shouldAdvertiseAllRegisteredEncodingsOrderedByQuality() {
+        //given
+        var registry = ContentDecoderRegistry.of(List.of(
+                new DeflateContentDecoder(), new GZIPContentDecoder(), new TestContentDecoder("br", 0.95)));
+
+        //when
+        var acceptEncoding = registry.getAcceptEncoding();
+
+        //then
+        assertEquals("gzip, br;q=0.95, deflate;q=0.9", acceptEncoding);
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenQualityIsOutOfRange() {
+        //when
+        Executable executable = () -> ContentDecoderRegistry.of(List.of(new TestContentDecoder("br", 1.5)));
+
+        //then
+        assertThrows(IllegalArgumentException.class, executable);
+    }
+
+    @Test
+    void shouldDecodeGZIPWhenEncodingIsInDifferentCase() throws IOException {
+        //given
+        var headers = headers("GZip");
+
+        //when
+        var result = decode(headers, gzip(CONTENT.getBytes(UTF_8)));
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldDecodeDeflateWhenDataIsWrappedInZlibFormat() throws IOException {
+        //given
+        var headers = headers(HttpContentEncoding.DEFLATE);
+
+        //when
+        var result = decode(headers, deflate(CONTENT.getBytes(UTF_8), false));
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldDecodeDeflateWhenDataIsRawDeflate() throws IOException {
+        //given
+        var headers = headers(HttpContentEncoding.DEFLATE);
+
+        //when
+        var result = decode(headers, deflate(CONTENT.getBytes(UTF_8), true));
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldDecodeInReverseOrderWhenEncodingsAreStacked() throws IOException {
+        //given
+        var headers = headers("gzip, identity, deflate");
+        var encoded = deflate(gzip(CONTENT.getBytes(UTF_8)), false);
+
+        //when
+        var result = decode(headers, encoded);
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldNotCreateDecoderWhenAnyEncodingIsUnknown() {
+        //given
+        var headers = headers("gzip, unknown");
+
+        //when
+        var decoder = ContentDecoderRegistry.defaultRegistry().newDecoder(headers);
+
+        //then
+        assertTrue(decoder.isEmpty());
+    }
+
+    @Test
+    void shouldNotCreateDecoderWhenBodyIsNotEncoded() {
+        //given
+        var headers = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+        //when
+        var decoder = ContentDecoderRegistry.defaultRegistry().newDecoder(headers);
+
+        //then
+        assertTrue(decoder.isEmpty());
+    }
+
+    private String decode(HttpHeaders headers, byte[] encoded) throws IOException {
+        var decoder = ContentDecoderRegistry.defaultRegistry().newDecoder(headers).orElseThrow();
+        var out = new ByteArrayOutputStream();
+        var buffer = new byte[512];
+        var chunkSize = 7;
+
+        for (int offset = 0; offset < encoded.length; offset += chunkSize) {
+            decoder.setInput(ByteBuffer.wrap(encoded, offset, Math.min(chunkSize, encoded.length - offset)));
+
+            int n;
+            while ((n = decoder.decode(buffer, 0, buffer.length)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+
+        decoder.finish();
+
+        return out.toString(UTF_8);
+    }
+
+    private HttpHeaders headers(String contentEncoding) {
+        return HttpHeaders.of(Map.of(HttpHeader.CONTENT_ENCODING, List.of(contentEncoding)), (name, value) -> true);
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(out)) {
+            gzipOutputStream.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] deflate(byte[] data, boolean raw) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var deflaterOutputStream = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflaterOutputStream.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static class TestContentDecoder implements ContentDecoder {
+
+        private final String encoding;
+        private final double quality;
+
+        TestContentDecoder(String encoding, double quality) {
+            this.encoding = encoding;
+            this.quality = quality;
+        }
+
+        @Override
+        public String getEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public double getQuality() {
+            return quality;
+        }
+
+        @Override
+        public IncrementalDecoder newDecoder() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package coresearch.cvurl.io.encoding;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GZIPBodyPublisherTest {
+
+    private static final byte[] CONTENT = generateContent(GZIPBodyPublisher.BLOCK_SIZE * 5 + 123);
+
+    @Test
+    void shouldCompressBodyWhenPublishedInChunks() throws IOException, ExecutionException, InterruptedException {
+        //given
+        var publisher = GZIPBodyPublisher.of(HttpRequest.BodyPublishers.ofByteArrays(split(CONTENT, 1000)));
+
+        //when
+        var compressed = collect(publisher);
+
+        //then
+        assertArrayEquals(CONTENT, decompress(compressed));
+    }
+
+    @Test
+    void shouldCompressBlocksInParallelIntoSingleGZIPStream() throws IOException, ExecutionException,
+            InterruptedException {
+        //given
+        var executor = Executors.newFixedThreadPool(3);
+        var publisher = GZIPBodyPublisher.parallel(HttpRequest.BodyPublishers.ofByteArrays(split(CONTENT, 7000)),
+                executor, 3);
+
+        //when
+        byte[] compressed;
+        try {
+            compressed = collect(publisher);
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        assertArrayEquals(CONTENT, decompress(compressed));
+    }
+
+    @Test
+    void shouldCompressAtMostParallelismBlocksAheadWhenBufferSpansManyBlocks() throws IOException,
+            ExecutionException, InterruptedException {
+        //given
+        var tasks = new ArrayDeque<Runnable>();
+        var maxQueuedTasks = new AtomicInteger();
+        Executor executor = task -> {
+            tasks.add(task);
+            maxQueuedTasks.accumulateAndGet(tasks.size(), Math::max);
+        };
+        Flow.Publisher<ByteBuffer> singleBuffer = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            private boolean sent;
+
+            @Override
+            public void request(long n) {
+                if (!sent) {
+                    sent = true;
+                    subscriber.onNext(ByteBuffer.wrap(CONTENT));
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        var publisher = GZIPBodyPublisher.parallel(HttpRequest.BodyPublishers.fromPublisher(singleBuffer), executor, 2);
+
+        //when
+        var compressed = subscribe(publisher);
+
+        while (!compressed.isDone()) {
+            tasks.remove().run();
+        }
+
+        //then
+        assertEquals(2, maxQueuedTasks.get());
+        assertArrayEquals(CONTENT, decompress(compressed.get()));
+    }
+
+    @Test
+    void shouldCompressEmptyBody() throws IOException, ExecutionException, InterruptedException {
+        //given
+        var publisher = GZIPBodyPublisher.of(HttpRequest.BodyPublishers.noBody());
+
+        //when
+        var compressed = collect(publisher);
+
+        //then
+        assertEquals(0, decompress(compressed).length);
+        assertEquals(-1, publisher.contentLength());
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenParallelismIsNotPositive() {
+        //when
+        var executor = Executors.newSingleThreadExecutor();
+
+        //then
+        try {
+            assertThrows(IllegalArgumentException.class, () ->
+                    GZIPBodyPublisher.parallel(HttpRequest.BodyPublishers.noBody(), executor, 0));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private byte[] collect(HttpRequest.BodyPublisher publisher) throws ExecutionException, InterruptedException {
+        return subscribe(publisher).get();
+    }
+
+    private CompletableFuture<byte[]> subscribe(HttpRequest.BodyPublisher publisher) {
+        var out = new ByteArrayOutputStream();
+        var completed = new CompletableFuture<byte[]>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                var bytes = new byte[item.remaining()];
+                item.get(bytes);
+                out.writeBytes(bytes);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(out.toByteArray());
+            }
+        });
+
+        return completed;
+    }
+
+    private byte[] decompress(byte[] compressed) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<byte[]> split(byte[] data, int chunkSize) {
+        var chunks = new ArrayList<byte[]>();
+
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            var chunk = new byte[Math.min(chunkSize, data.length - offset)];
+            System.arraycopy(data, offset, chunk, 0, chunk.length);
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    private static byte[] generateContent(int size) {
+        var random = new Random(42);
+        var words = new String[]{"alpha ", "beta ", "gamma ", "delta ", "epsilon\n"};
+        var builder = new StringBuilder(size);
+
+        while (builder.length() < size) {
+            builder.append(words[random.nextInt(words.length)]);
+        }
+
+        builder.setLength(size);
+        return builder.toString().getBytes(UTF_8);
+    }
+}
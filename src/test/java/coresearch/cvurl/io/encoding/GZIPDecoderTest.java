@@ -0,0 +1,152 @@
+package coresearch.cvurl.io.encoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GZIPDecoderTest {
+
+    private static final String CONTENT = "The quick brown fox jumps over the lazy dog. ".repeat(1000);
+
+    @Test
+    void shouldDecompressDataWhenItIsReceivedInOneChunk() throws IOException {
+        //given
+        var compressed = compress(CONTENT);
+
+        //when
+        var result = decode(compressed, compressed.length);
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldDecompressDataWhenItIsReceivedByteByByte() throws IOException {
+        //given
+        var compressed = compress(CONTENT);
+
+        //when
+        var result = decode(compressed, 1);
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldDecompressAllMembersWhenStreamContainsConcatenatedMembers() throws IOException {
+        //given
+        var first = compress("first");
+        var second = compress("second");
+        var compressed = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, compressed, first.length, second.length);
+
+        //when
+        var result = decode(compressed, 3);
+
+        //then
+        assertEquals("firstsecond", result);
+    }
+
+    @Test
+    void shouldDecompressDataWhenHeaderContainsFileName() throws IOException {
+        //given
+        var compressed = compress(CONTENT);
+        var fileName = "file.txt\0".getBytes(UTF_8);
+        var withFileName = new byte[compressed.length + fileName.length];
+        System.arraycopy(compressed, 0, withFileName, 0, 10);
+        System.arraycopy(fileName, 0, withFileName, 10, fileName.length);
+        System.arraycopy(compressed, 10, withFileName, 10 + fileName.length, compressed.length - 10);
+        withFileName[3] = 8;
+
+        //when
+        var result = decode(withFileName, 5);
+
+        //then
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    void shouldReturnEmptyResultWhenInputIsEmpty() throws IOException {
+        //when
+        var result = decode(new byte[0], 1);
+
+        //then
+        assertEquals("", result);
+    }
+
+    @Test
+    void shouldThrowEOFExceptionWhenStreamIsTruncated() throws IOException {
+        //given
+        var compressed = compress(CONTENT);
+        var truncated = Arrays.copyOf(compressed, compressed.length - 4);
+
+        //when
+        Executable executable = () -> decode(truncated, 100);
+
+        //then
+        assertThrows(EOFException.class, executable);
+    }
+
+    @Test
+    void shouldThrowZipExceptionWhenTrailerIsCorrupted() throws IOException {
+        //given
+        var compressed = compress(CONTENT);
+        compressed[compressed.length - 8]++;
+
+        //when
+        Executable executable = () -> decode(compressed, 100);
+
+        //then
+        assertThrows(ZipException.class, executable);
+    }
+
+    @Test
+    void shouldThrowZipExceptionWhenDataIsNotInGZIPFormat() {
+        //given
+        var data = CONTENT.getBytes(UTF_8);
+
+        //when
+        Executable executable = () -> decode(data, 100);
+
+        //then
+        assertThrows(ZipException.class, executable);
+    }
+
+    private String decode(byte[] compressed, int chunkSize) throws IOException {
+        var decoder = new GZIPDecoder();
+        var out = new ByteArrayOutputStream();
+        var buffer = new byte[512];
+
+        for (int offset = 0; offset < compressed.length; offset += chunkSize) {
+            decoder.setInput(ByteBuffer.wrap(compressed, offset, Math.min(chunkSize, compressed.length - offset)));
+
+            int n;
+            while ((n = decoder.decode(buffer, 0, buffer.length)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+
+        decoder.finish();
+
+        return out.toString(UTF_8);
+    }
+
+    private byte[] compress(String str) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(out)) {
+            gzipOutputStream.write(str.getBytes(UTF_8));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,52 @@
+package coresearch.cvurl.io.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import coresearch.cvurl.io.exception.MappingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenericMapperTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Only the abstract methods are implemented, so that the default implementations are tested.
+    private final GenericMapper genericMapper = new GenericMapper() {
+        @Override
+        public <T> T readValue(String value, Class<T> valueType) {
+            try {
+                return OBJECT_MAPPER.readValue(value, valueType);
+            } catch (JsonProcessingException e) {
+                throw new MappingException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public <T> T readValue(String value, BodyType<T> valueType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String writeValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    void shouldRejectStreamingDeserializationByDefault() {
+        //given
+        var json = "[{\"name\": \"a\"}]".getBytes(UTF_8);
+
+        //when
+        Executable executable = () -> genericMapper.readValues(new ByteArrayInputStream(json), "", Map.class);
+
+        //then
+        assertThrows(UnsupportedOperationException.class, executable);
+    }
+}
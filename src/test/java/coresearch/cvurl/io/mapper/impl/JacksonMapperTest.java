@@ -6,9 +6,22 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import coresearch.cvurl.io.helper.ObjectGenerator;
 import coresearch.cvurl.io.helper.model.User;
 import org.junit.jupiter.api.BeforeAll;
+import coresearch.cvurl.io.exception.MappingException;
+import coresearch.cvurl.io.mapper.BodyType;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class JacksonMapperTest {
 
@@ -47,4 +60,116 @@ class JacksonMapperTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldReadToUserWhenJsonIsValidByteArray() throws JsonProcessingException {
+        //given
+        var expected = ObjectGenerator.generateTestObject();
+        var json = new ObjectMapper().writeValueAsBytes(expected);
+
+        //when
+        var actual = jacksonMapper.readValue(json, User.class);
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldReadRemainingBytesWhenJsonIsInByteBuffer() throws JsonProcessingException {
+        //given
+        var expected = ObjectGenerator.generateTestObject();
+        var json = new ObjectMapper().writeValueAsBytes(expected);
+        var buffer = ByteBuffer.allocate(json.length + 2).put((byte) '[').put(json).put((byte) ']');
+        buffer.position(1).limit(json.length + 1);
+
+        //when
+        var actual = jacksonMapper.readValue(buffer.slice(), User.class);
+        var actualFromDirectBuffer = jacksonMapper.readValue(ByteBuffer.allocateDirect(json.length).put(json).flip(),
+                User.class);
+
+        //then
+        assertEquals(expected, actual);
+        assertEquals(expected, actualFromDirectBuffer);
+    }
+
+    @Test
+    void shouldReadToListWhenJsonIsInInputStream() throws JsonProcessingException {
+        //given
+        var expected = List.of(ObjectGenerator.generateTestObject(), ObjectGenerator.generateTestObject());
+        var json = new ObjectMapper().writeValueAsBytes(expected);
+
+        //when
+        var actual = jacksonMapper.readValue(new ByteArrayInputStream(json), new BodyType<List<User>>() {});
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldReadElementsOneByOneWhenJsonArrayIsInInputStream() throws JsonProcessingException {
+        //given
+        var expected = List.of(ObjectGenerator.generateTestObject(), ObjectGenerator.generateTestObject());
+        var json = new ObjectMapper().writeValueAsBytes(expected);
+
+        //when
+        List<User> actual;
+        try (var users = jacksonMapper.readValues(new ByteArrayInputStream(json), User.class)) {
+            actual = users.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldReadElementsOfNestedArrayWhenJsonPointerIsProvided() throws JsonProcessingException {
+        //given
+        var expected = List.of(ObjectGenerator.generateTestObject(), ObjectGenerator.generateTestObject());
+        var json = new ObjectMapper().writeValueAsBytes(
+                Map.of("total", 2, "data", Map.of("users", expected, "next", "none")));
+
+        //when
+        List<User> actual;
+        try (var users = jacksonMapper.readValues(new ByteArrayInputStream(json), "/data/users", User.class)) {
+            actual = users.collect(Collectors.toList());
+        }
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldThrowMappingExceptionWhenThereIsNoArrayAtJsonPointer() throws JsonProcessingException {
+        //given
+        var json = new ObjectMapper().writeValueAsBytes(Map.of("data", ObjectGenerator.generateTestObject()));
+        var users = jacksonMapper.readValues(new ByteArrayInputStream(json), "/data", User.class);
+
+        //when
+        Executable executable = () -> users.collect(Collectors.toList());
+
+        //then
+        assertThrows(MappingException.class, executable);
+    }
+
+    @Test
+    void shouldWriteToUtf8BytesWithoutClosingOutputStream() throws JsonProcessingException {
+        //given
+        var user = ObjectGenerator.generateTestObject();
+        var expected = new ObjectMapper().writeValueAsString(user);
+        var closed = new boolean[]{false};
+        var out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        //when
+        var bytes = jacksonMapper.writeValueAsBytes(user);
+        jacksonMapper.writeValue(user, out);
+
+        //then
+        assertEquals(expected, new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertFalse(closed[0]);
+    }
 }
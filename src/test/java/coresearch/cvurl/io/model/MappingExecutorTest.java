@@ -0,0 +1,62 @@
+package coresearch.cvurl.io.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappingExecutorTest {
+
+    @Test
+    void shouldCountQueuedActiveAndCompletedTasks() throws InterruptedException {
+        //given
+        var pool = Executors.newSingleThreadExecutor();
+        var executor = MappingExecutor.of(pool);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var done = new CountDownLatch(3);
+
+        //when
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            done.countDown();
+        });
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+        started.await(5, TimeUnit.SECONDS);
+        var queuedWhileBlocked = executor.getQueuedTasks();
+        var activeWhileBlocked = executor.getActiveTasks();
+        release.countDown();
+        var completed = done.await(5, TimeUnit.SECONDS);
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(completed);
+        assertEquals(2, queuedWhileBlocked);
+        assertEquals(1, activeWhileBlocked);
+        assertEquals(0, executor.getQueuedTasks());
+        assertEquals(0, executor.getActiveTasks());
+        assertEquals(3, executor.getCompletedTasks());
+    }
+
+    @Test
+    void shouldRejectNonPositiveParallelism() {
+        //when, then
+        assertThrows(IllegalArgumentException.class, () -> MappingExecutor.newForkJoinPool(0));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
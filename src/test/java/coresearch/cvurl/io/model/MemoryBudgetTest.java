@@ -0,0 +1,59 @@
+package coresearch.cvurl.io.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryBudgetTest {
+
+    @Test
+    void shouldResumeStoppedLeaseWhenBytesAreReturned() {
+        //given
+        var budget = MemoryBudget.of(100);
+        var first = budget.newLease();
+        var second = budget.newLease();
+        var resumed = new AtomicInteger();
+
+        //when
+        var firstAvailable = first.reserve(80, resumed::incrementAndGet);
+        var secondAvailable = second.reserve(40, resumed::incrementAndGet);
+        var resumedBeforeClose = resumed.get();
+        first.close();
+
+        //then
+        assertTrue(firstAvailable);
+        assertFalse(secondAvailable);
+        assertEquals(0, resumedBeforeClose);
+        assertEquals(1, resumed.get());
+        assertEquals(40, budget.getReservedBytes());
+    }
+
+    @Test
+    void shouldResumeFirstStoppedLeaseWhenAllLeasesAreStopped() {
+        //given
+        var budget = MemoryBudget.of(100);
+        var first = budget.newLease();
+        var second = budget.newLease();
+        var firstResumed = new AtomicInteger();
+        var secondResumed = new AtomicInteger();
+        first.reserve(60, firstResumed::incrementAndGet);
+        second.reserve(30, secondResumed::incrementAndGet);
+
+        //when
+        var firstAvailable = first.reserve(20, firstResumed::incrementAndGet);
+        var secondAvailable = second.reserve(20, secondResumed::incrementAndGet);
+        first.close();
+        second.close();
+
+        //then
+        assertFalse(firstAvailable);
+        assertFalse(secondAvailable);
+        assertEquals(1, firstResumed.get());
+        assertEquals(1, secondResumed.get());
+        assertEquals(0, budget.getReservedBytes());
+    }
+}
@@ -0,0 +1,97 @@
+package coresearch.cvurl.io.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledBodyTest {
+
+    private static final byte[] CONTENT = "pooled response body".getBytes();
+
+    @Test
+    void shouldReadSameContentThroughAllViews() throws IOException {
+        //given
+        var pool = BufferPool.of(8, 4);
+        var body = bodyOf(pool);
+        var channelContent = ByteBuffer.allocate(CONTENT.length + 1);
+
+        //when
+        var streamContent = body.inputStream().readAllBytes();
+        var read = body.channel().read(channelContent);
+
+        //then
+        assertEquals(CONTENT.length, body.size());
+        assertArrayEquals(CONTENT, streamContent);
+        assertEquals(CONTENT.length, read);
+        assertArrayEquals(CONTENT, Arrays.copyOf(channelContent.array(), read));
+        assertArrayEquals(CONTENT, body.toByteArray());
+    }
+
+    @Test
+    void shouldReturnBuffersToPoolOnceWhenReleased() {
+        //given
+        var pool = BufferPool.of(8, 2);
+        var body = bodyOf(pool);
+
+        //when
+        body.close();
+        body.release();
+
+        //then
+        assertTrue(body.isReleased());
+        assertEquals(2, pool.getPooledBuffers());
+        assertThrows(IllegalStateException.class, body::inputStream);
+    }
+
+    @Test
+    void shouldFailViewsCreatedBeforeRelease() {
+        //given
+        var body = bodyOf(BufferPool.of(8, 4));
+        var stream = body.inputStream();
+        var channel = body.channel();
+
+        //when
+        body.release();
+
+        //then
+        assertThrows(IOException.class, stream::read);
+        assertFalse(channel.isOpen());
+        assertThrows(ClosedChannelException.class, () -> channel.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void shouldReuseReleasedBuffers() {
+        //given
+        var pool = BufferPool.of(8, 4);
+        var buffer = pool.acquire();
+        buffer.put((byte) 1);
+
+        //when
+        pool.release(buffer);
+        var reused = pool.acquire();
+
+        //then
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(0, pool.getPooledBuffers());
+    }
+
+    private static PooledBody bodyOf(BufferPool pool) {
+        var first = pool.acquire().put(CONTENT, 0, 8).flip();
+        var second = pool.acquire().put(CONTENT, 8, 8).flip();
+        var third = pool.acquire().put(CONTENT, 16, CONTENT.length - 16).flip();
+
+        return new PooledBody(List.of(first, second, third), pool);
+    }
+}
@@ -15,6 +15,8 @@ class RequestConfigurationTest {
         //then
         assertTrue(requestConfiguration.getRequestTimeout().isEmpty());
         assertFalse(requestConfiguration.isAcceptCompressed());
+        assertTrue(requestConfiguration.getCompressRequestThreshold().isEmpty());
+        assertFalse(requestConfiguration.isParallelCompression());
         assertFalse(requestConfiguration.isLogEnabled());
     }
 
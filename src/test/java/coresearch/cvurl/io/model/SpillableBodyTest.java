@@ -0,0 +1,53 @@
+package coresearch.cvurl.io.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpillableBodyTest {
+
+    private static final byte[] CONTENT = "spillable response body".getBytes();
+
+    @Test
+    void shouldReadOnlyLengthOfArrayThroughAllViews() throws IOException {
+        //given
+        var array = new byte[CONTENT.length + 8];
+        System.arraycopy(CONTENT, 0, array, 0, CONTENT.length);
+        var body = SpillableBody.ofBytes(array, CONTENT.length);
+
+        //when
+        var streamContent = body.inputStream().readAllBytes();
+        var buffer = body.mappedBuffer();
+
+        //then
+        assertEquals(CONTENT.length, body.size());
+        assertArrayEquals(CONTENT, streamContent);
+        assertArrayEquals(CONTENT, body.toByteArray());
+        assertTrue(buffer.isReadOnly());
+        assertEquals(CONTENT.length, buffer.remaining());
+    }
+
+    @Test
+    void shouldDeleteFileWhenClosed() throws IOException {
+        //given
+        var file = Files.write(Files.createTempFile("cvurl-", ".body"), CONTENT);
+        var body = SpillableBody.ofFile(file, CONTENT.length);
+
+        //when
+        var content = body.toByteArray();
+        body.close();
+
+        //then
+        assertArrayEquals(CONTENT, content);
+        assertTrue(body.isClosed());
+        assertFalse(Files.exists(file));
+        assertThrows(IllegalStateException.class, body::inputStream);
+    }
+}
@@ -3,21 +3,36 @@ package coresearch.cvurl.io.multipart;
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.MIMEType;
 import coresearch.cvurl.io.exception.MultipartFileFormException;
+import coresearch.cvurl.io.internal.util.FileRegionPublisher;
 import coresearch.cvurl.io.utils.Resources;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class MultipartBodyTest {
@@ -201,6 +216,153 @@ class MultipartBodyTest {
         assertEquals(expectedResult, convertToString(multipartBody));
     }
 
+    @Test
+    void shouldPublishSameBodyWithExactContentLength() throws ExecutionException, InterruptedException, IOException {
+        //given
+        var jsonPath = Resources.get(MULTIPART_BODY_TEST_JSON);
+        var multipartBody = MultipartBody.create(BOUNDARY)
+                .formPart("text", Part.of(CONTENT))
+                .formPart("file", Part.of(jsonPath));
+        var expectedResult = convertToString(multipartBody);
+
+        //when
+        var publisher = multipartBody.asBodyPublisher();
+
+        //then
+        assertEquals(expectedResult, new String(collect(publisher)));
+        assertEquals(expectedResult.length(), publisher.contentLength());
+    }
+
+    @Test
+    void shouldStreamFileContentInChunksWhenBodyIsPublished() throws ExecutionException, InterruptedException,
+            IOException {
+        //given
+        var content = new byte[FileRegionPublisher.CHUNK_SIZE * 3 + 17];
+        new Random(42).nextBytes(content);
+
+        var file = Files.createTempFile("multipart-body-test", ".bin");
+        try {
+            Files.write(file, content);
+            var publisher = MultipartBody.create(BOUNDARY).part(Part.of(file)).asBodyPublisher();
+
+            //when
+            var buffers = collectBuffers(publisher);
+
+            //then
+            var body = concat(buffers);
+            var contentEnd = body.length - (CRLF + "--" + BOUNDARY + "--").length();
+            assertArrayEquals(content, Arrays.copyOfRange(body, contentEnd - content.length, contentEnd));
+            assertEquals(body.length, publisher.contentLength());
+            assertEquals(FileRegionPublisher.CHUNK_SIZE,
+                    buffers.stream().mapToInt(ByteBuffer::remaining).max().orElseThrow());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void shouldEncodeSmallPartsIntoSingleArray() {
+        //given
+        var multipartBody = MultipartBody.create(BOUNDARY)
+                .formPart("first", Part.of(CONTENT))
+                .formPart("second", Part.of(CONTENT));
+
+        //when
+        var result = multipartBody.asByteArrays();
+
+        //then
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void shouldKeepLargeContentWhenBodyIsEncoded() {
+        //given
+        var content = new byte[MultipartEncoder.INLINE_CONTENT_LIMIT + 1];
+        var multipartBody = MultipartBody.create(BOUNDARY)
+                .formPart("first", Part.of(CONTENT))
+                .formPart("second", Part.of(content))
+                .formPart("third", Part.of(CONTENT));
+
+        //when
+        var result = multipartBody.asByteArrays();
+
+        //then
+        assertEquals(3, result.size());
+        assertSame(content, result.get(1));
+    }
+
+    @Test
+    void shouldEncodeNonAsciiHeaderValuesInUtf8() throws ExecutionException, InterruptedException {
+        //given
+        var filename = "файл.txt";
+        var multipartBody = MultipartBody.create(BOUNDARY)
+                .formPart("name", Part.of(filename, MIMEType.TEXT_PLAIN, CONTENT.getBytes()));
+        var expectedResult = generateMultipartBody(new TestPart(CONTENT, Map.of(
+                HttpHeader.CONTENT_DISPOSITION, format(CONTENT_DISPOSITION_WITH_FILENAME_TEMPLATE, "name", filename),
+                HttpHeader.CONTENT_TYPE, MIMEType.TEXT_PLAIN)));
+
+        //when
+        var publisher = multipartBody.asBodyPublisher();
+
+        //then
+        var body = collect(publisher);
+        assertEquals(expectedResult, new String(body, UTF_8));
+        assertEquals(body.length, publisher.contentLength());
+    }
+
+    @Test
+    void shouldGenerateDistinctAlphanumericBoundaries() {
+        //when
+        var first = MultipartBody.create().getBoundary();
+        var second = MultipartBody.create().getBoundary();
+
+        //then
+        assertTrue(first.matches("[0-9A-Za-z]{32}"));
+        assertNotEquals(first, second);
+    }
+
+    private byte[] collect(HttpRequest.BodyPublisher publisher) throws ExecutionException, InterruptedException {
+        return concat(collectBuffers(publisher));
+    }
+
+    private List<ByteBuffer> collectBuffers(HttpRequest.BodyPublisher publisher) throws ExecutionException,
+            InterruptedException {
+        var result = new CompletableFuture<List<ByteBuffer>>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private final List<ByteBuffer> buffers = new ArrayList<>();
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                buffers.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                result.complete(buffers);
+            }
+        });
+
+        return result.get();
+    }
+
+    private byte[] concat(List<ByteBuffer> buffers) {
+        var out = new ByteArrayOutputStream();
+        buffers.forEach(buffer -> out.write(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                buffer.remaining()));
+        return out.toByteArray();
+    }
+
     private String convertToString(MultipartBody multipartBody) {
         return multipartBody.asByteArrays().stream().map(String::new).collect(Collectors.joining(""));
     }
@@ -2,13 +2,19 @@ package coresearch.cvurl.io.request;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import coresearch.cvurl.io.helper.ObjectGenerator;
+import coresearch.cvurl.io.constant.HttpContentEncoding;
 import coresearch.cvurl.io.constant.HttpHeader;
 import coresearch.cvurl.io.constant.HttpStatus;
 import coresearch.cvurl.io.constant.MIMEType;
+import coresearch.cvurl.io.helper.model.User;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -313,4 +319,84 @@ class CVurlPostRequestTest extends AbstractRequestTest {
         assertTrue(response.isSuccessful());
         assertEquals(HttpStatus.OK, response.status());
     }
+
+    @Test
+    void shouldSendExactContentLengthWhenLargeBodyIsObject() throws JsonProcessingException {
+        //given
+        var users = new ArrayList<User>();
+        for (int i = 0; i < 5000; i++) {
+            users.add(ObjectGenerator.generateTestObject());
+        }
+        var json = mapper.writeValueAsBytes(users);
+        var url = String.format(URL_PATTERN, PORT, TEST_ENDPOINT);
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withRequestBody(equalToJson(new String(json, StandardCharsets.UTF_8)))
+                .withHeader(HttpHeader.CONTENT_LENGTH, equalTo(String.valueOf(json.length)))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)));
+
+        //when
+        var response = cVurl.post(url)
+                .body(users)
+                .asString()
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        verify(exactly(1), postRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+
+        assertTrue(response.isSuccessful());
+        assertEquals(HttpStatus.OK, response.status());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldCompressBodyWhenItIsLargerThanThreshold(boolean parallelCompression) throws JsonProcessingException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+        var url = String.format(URL_PATTERN, PORT, TEST_ENDPOINT);
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.CONTENT_ENCODING, equalTo(HttpContentEncoding.GZIP))
+                .withRequestBody(equalToJson(mapper.writeValueAsString(users)))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)));
+
+        //when
+        var response = cVurl.post(url)
+                .body(users)
+                .compressRequest(10)
+                .parallelCompression(parallelCompression)
+                .asString()
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        verify(exactly(1), postRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+
+        assertEquals(HttpStatus.OK, response.status());
+    }
+
+    @Test
+    void shouldNotCompressBodyWhenItIsNotLargerThanThreshold() {
+        //given
+        var url = String.format(URL_PATTERN, PORT, TEST_ENDPOINT);
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.CONTENT_ENCODING, absent())
+                .withRequestBody(equalTo(TEST_BODY_FOR_TEST))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)));
+
+        //when
+        var response = cVurl.post(url)
+                .body(TEST_BODY_FOR_TEST)
+                .compressRequest(TEST_BODY_FOR_TEST.length())
+                .asString()
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        verify(exactly(1), postRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+
+        assertEquals(HttpStatus.OK, response.status());
+    }
 }
@@ -3,16 +3,31 @@ package coresearch.cvurl.io.request;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.tomakehurst.wiremock.http.Fault;
 import coresearch.cvurl.io.constant.*;
+import coresearch.cvurl.io.exception.BodyTooLargeException;
+import coresearch.cvurl.io.exception.DigestMismatchException;
+import coresearch.cvurl.io.exception.MappingException;
 import coresearch.cvurl.io.exception.RequestExecutionException;
+import coresearch.cvurl.io.exception.ResponseBodyHandlingException;
 import coresearch.cvurl.io.exception.ResponseMappingException;
 import coresearch.cvurl.io.exception.UnexpectedResponseException;
 import coresearch.cvurl.io.helper.ObjectGenerator;
 import coresearch.cvurl.io.helper.model.User;
 import coresearch.cvurl.io.internal.configuration.RequestConfiguration;
 import coresearch.cvurl.io.mapper.BodyType;
+import coresearch.cvurl.io.mapper.GenericMapper;
+import coresearch.cvurl.io.mapper.MapperFactory;
+import coresearch.cvurl.io.model.BufferPool;
 import coresearch.cvurl.io.model.CVurlConfig;
+import coresearch.cvurl.io.model.MappingExecutor;
+import coresearch.cvurl.io.model.MemoryBudget;
+import coresearch.cvurl.io.model.PooledBody;
+import coresearch.cvurl.io.model.ShardedHttpClient;
+import coresearch.cvurl.io.model.Response;
+import coresearch.cvurl.io.model.SpillableBody;
 import coresearch.cvurl.io.multipart.MultipartBody;
 import coresearch.cvurl.io.multipart.Part;
+import coresearch.cvurl.io.request.handler.NdjsonBodySubscriber;
+import coresearch.cvurl.io.sse.ServerSentEvent;
 import coresearch.cvurl.io.utils.MockHttpClient;
 import coresearch.cvurl.io.utils.Resources;
 import org.apache.http.HttpHeaders;
@@ -21,18 +36,42 @@ import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.net.*;
+import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -539,7 +578,7 @@ class CVurlRequestTest extends AbstractRequestTest {
         var body = TEST_BODY;
 
         wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
-                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.GZIP))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, containing(HttpContentEncoding.GZIP))
                 .willReturn(aResponse()
                         .withBody(compressWithGZIP(body))
                         .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
@@ -558,7 +597,7 @@ class CVurlRequestTest extends AbstractRequestTest {
         var body = TEST_BODY;
 
         wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
-                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo(HttpContentEncoding.GZIP))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, containing(HttpContentEncoding.GZIP))
                 .willReturn(aResponse()
                         .withBody(compressWithGZIP(body))
                         .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
@@ -573,6 +612,112 @@ class CVurlRequestTest extends AbstractRequestTest {
         response.getBody().close();
     }
 
+    @Test
+    void shouldReturnResponseBodyAsStreamWhenLargeBodyIsCompressedWithGZIP() throws IOException,
+            ExecutionException, InterruptedException {
+        //given
+        var body = TEST_BODY.repeat(100_000);
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, containing(HttpContentEncoding.GZIP))
+                .willReturn(aResponse()
+                        .withBody(compressWithGZIP(body))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cVurl.post(URL).acceptCompressed().asyncAsStream().get();
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+        try (var inputStream = response.getBody()) {
+            assertEquals(body, new String(inputStream.readAllBytes()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "UTF-16"})
+    void shouldDecodeCompressedResponseBodyUsingCharsetFromContentType(String charsetName) throws IOException {
+        //given
+        var body = "Ünïcödé bödy ".repeat(1000);
+        var charset = Charset.forName(charsetName);
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withBody(compressWithGZIP(body, charset))
+                        .withHeader(HttpHeader.CONTENT_TYPE, "text/plain; charset=" + charsetName)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cVurl.post(URL).acceptCompressed().asString().orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    void shouldReturnResponseBodyAsStringWhenBodyIsCompressedWithDeflate() throws IOException {
+        //given
+        var body = TEST_BODY;
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT_ENCODING, equalTo("gzip, deflate;q=0.9"))
+                .willReturn(aResponse()
+                        .withBody(compressWithDeflate(body))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, "Deflate")));
+
+        //when
+        var response = cVurl.post(URL).acceptCompressed().asString().orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals(body, response.getBody());
+    }
+
+    @Test
+    void shouldPassDecompressedBodyToCustomBodyHandlerWhenBodyIsCompressedWithGZIP() throws IOException {
+        //given
+        var lines = List.of("first line", "second line", "third line");
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withBody(compressWithGZIP(String.join("\n", lines)))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cVurl.post(URL).acceptCompressed()
+                .as(HttpResponse.BodyHandlers.ofLines())
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(HttpStatus.OK, response.status());
+        assertEquals(lines, response.getBody().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldPassDecompressedBodyToCustomBodyHandlerWhenExecutionModeIsAsync() throws IOException,
+            ExecutionException, InterruptedException {
+        //given
+        var body = TEST_BODY;
+        var contentEncodingSeenByHandler = new ArrayList<String>();
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withBody(compressWithGZIP(body))
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)));
+
+        //when
+        var response = cVurl.post(URL).acceptCompressed()
+                .asyncAs(responseInfo -> {
+                    responseInfo.headers().firstValue(HttpHeader.CONTENT_ENCODING).ifPresent(contentEncodingSeenByHandler::add);
+                    return HttpResponse.BodySubscribers.ofByteArray();
+                })
+                .get();
+
+        //then
+        assertEquals(body, new String(response.getBody()));
+        assertTrue(contentEncodingSeenByHandler.isEmpty());
+    }
+
     @Test
     void shouldReturnResponseBodyAsStringWhenResponseWithUnknownEncoding() {
         //given
@@ -640,6 +785,87 @@ class CVurlRequestTest extends AbstractRequestTest {
         assertEquals(user, resultUser);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "UTF-16"})
+    void shouldReturnBodyConvertedToUserWhenResponseContainsJsonInCharsetFromContentType(String charsetName)
+            throws JsonProcessingException {
+        //given
+        var user = new User("Jürgen Größe", 42);
+        var charset = Charset.forName(charsetName);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "application/json; charset=" + charsetName)
+                        .withBody(mapper.writeValueAsString(user).getBytes(charset))));
+
+        //when
+        var resultUser = cVurl.get(URL).asObject(User.class);
+
+        //then
+        assertEquals(user, resultUser);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTF-8", "ISO-8859-1", "UTF-16", "UTF-32"})
+    void shouldDecodeBodyInCharsetFromContentTypeWhenMapperReadsOnlyStrings(String charsetName)
+            throws JsonProcessingException {
+        //given
+        var user = new User("Jürgen Größe", 42);
+        var charset = Charset.forName(charsetName);
+        var stringMapper = new GenericMapper() {
+            @Override
+            public <T> T readValue(String value, Class<T> valueType) {
+                try {
+                    return mapper.readValue(value, valueType);
+                } catch (JsonProcessingException e) {
+                    throw new MappingException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public <T> T readValue(String value, BodyType<T> valueType) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String writeValue(Object value) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        var stringCVurl = new CVurl(CVurlConfig.builder().genericMapper(stringMapper).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "application/json; charset=" + charsetName)
+                        .withBody(mapper.writeValueAsString(user).getBytes(charset))));
+
+        //when
+        var resultUser = stringCVurl.get(URL).asObject(User.class);
+
+        //then
+        assertEquals(user, resultUser);
+    }
+
+    @Test
+    void shouldReturnBodyConvertedToUserWhenResponseContainsCompressedJson() throws IOException {
+        //given
+        var user = ObjectGenerator.generateTestObject();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)
+                        .withBody(compressWithGZIP(mapper.writeValueAsString(user)))));
+
+        //when
+        var resultUser = cVurl.get(URL).acceptCompressed().asObject(User.class, HttpStatus.OK);
+
+        //then
+        assertEquals(Optional.of(user), resultUser);
+    }
+
     @Test
     void shouldThrowRequestExecutionExceptionWhenResponseBodyConvertedToUserIsExpected() {
         //given
@@ -785,26 +1011,32 @@ class CVurlRequestTest extends AbstractRequestTest {
     }
 
     @Test
-    void shouldReturnListOfUsersWrappedInSetWhenBodyTypeIsUsed() throws JsonProcessingException {
+    void shouldReturnStreamOfUsersWhenUsersAreNestedUnderJsonPointer() throws JsonProcessingException {
         //given
-        var users = Set.of(ObjectGenerator.generateListOfTestObjects());
+        var users = ObjectGenerator.generateListOfTestObjects();
 
         wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
                 .willReturn(aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(mapper.writeValueAsString(users))));
+                        .withBody(mapper.writeValueAsString(Map.of("page", 1, "data", Map.of("users", users))))));
 
         //when
-        var resultUsers = cVurl.get(URL).asObject(new BodyType<Set<List<User>>>() {});
+        List<User> resultUsers;
+        try (var stream = cVurl.get(URL).asStreamOf(User.class, "/data/users")) {
+            resultUsers = stream.collect(Collectors.toList());
+        }
 
         //then
         assertEquals(users, resultUsers);
     }
 
     @Test
-    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndStatusCodeOkIsExpected() throws JsonProcessingException {
+    void shouldPublishUsersOneByOneWhenExecutionModeIsAsync() throws JsonProcessingException,
+            ExecutionException, InterruptedException {
         //given
         var users = ObjectGenerator.generateListOfTestObjects();
+        var resultUsers = Collections.synchronizedList(new ArrayList<User>());
+        var completed = new CompletableFuture<Void>();
 
         wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
                 .willReturn(aResponse()
@@ -812,20 +1044,44 @@ class CVurlRequestTest extends AbstractRequestTest {
                         .withBody(mapper.writeValueAsString(users))));
 
         //when
-        var resultUsers = cVurl.get(URL)
-                .asObject(new BodyType<List<User>>() {}, HttpStatus.OK)
-                .orElseThrow(RuntimeException::new);
+        cVurl.get(URL).asyncAsPublisherOf(User.class).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(User item) {
+                resultUsers.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        completed.get();
 
         //then
         assertEquals(users, resultUsers);
     }
 
     @Test
-    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndExecutionModeIsAsync() throws JsonProcessingException,
+    void shouldPullPublishedUsersOnSharedPublisherThreads() throws JsonProcessingException,
             ExecutionException, InterruptedException {
         //given
         var users = ObjectGenerator.generateListOfTestObjects();
-        var isThenApplyInvoked = new boolean[]{false};
+        var threadNames = Collections.synchronizedList(new ArrayList<String>());
+        var completed = new CompletableFuture<Void>();
 
         wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
                 .willReturn(aResponse()
@@ -833,85 +1089,1577 @@ class CVurlRequestTest extends AbstractRequestTest {
                         .withBody(mapper.writeValueAsString(users))));
 
         //when
-        var resultUsers = cVurl.get(URL).asyncAsObject(new BodyType<List<User>>() {})
-                .thenApply(res -> {
-                    isThenApplyInvoked[0] = true;
-                    return res;
-                })
-                .get();
+        cVurl.get(URL).asyncAsPublisherOf(User.class).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(User item) {
+                threadNames.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        completed.get();
 
         //then
-        assertTrue(isThenApplyInvoked[0]);
-        assertEquals(users, resultUsers);
+        assertEquals(users.size(), threadNames.size());
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("cvurl-stream-publisher-")));
     }
 
     @Test
-    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndStatusCodeOkIsExpectedAndExecutionModeIsAsync()
-            throws JsonProcessingException, ExecutionException, InterruptedException {
+    void shouldCloseSourceAndInterruptBlockedReadWhenPublisherSubscriptionIsCancelled() throws Exception {
+        //given
+        var readStarted = new CountDownLatch(1);
+        var readFinished = new CountDownLatch(1);
+        var closed = new CountDownLatch(1);
+        var errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        var subscription = new CompletableFuture<Flow.Subscription>();
+        var executor = Executors.newSingleThreadExecutor();
+
+        var source = new InputStream() {
+            private final CountDownLatch noData = new CountDownLatch(1);
+
+            @Override
+            public int read() throws IOException {
+                readStarted.countDown();
+
+                try {
+                    noData.await();
+                    return -1;
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                } finally {
+                    readFinished.countDown();
+                }
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+
+        var publisher = new StreamPublisher<String>(() -> CompletableFuture.completedFuture(source),
+                in -> new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines(), executor);
+
+        try {
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+                    subscription.complete(s);
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(String item) {
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    errors.add(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            assertTrue(readStarted.await(5, TimeUnit.SECONDS));
+
+            //when
+            subscription.get().cancel();
+
+            //then
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+            assertTrue(readFinished.await(5, TimeUnit.SECONDS));
+            executor.submit(() -> assertFalse(Thread.currentThread().isInterrupted())).get(5, TimeUnit.SECONDS);
+            assertTrue(errors.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldReturnStreamOfUsersWhenResponseContainsNdjsonInChunks() throws JsonProcessingException {
         //given
         var users = ObjectGenerator.generateListOfTestObjects();
-        var isThenApplyInvoked = new boolean[]{false};
+        var body = new StringBuilder();
+        for (User user : users) {
+            body.append(mapper.writeValueAsString(user)).append("\r\n\n");
+        }
 
         wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
                 .willReturn(aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(mapper.writeValueAsString(users))));
+                        .withBody(body.toString())
+                        .withChunkedDribbleDelay(7, 100)));
 
         //when
-        var resultUsers = cVurl.get(URL).asyncAsObject(new BodyType<List<User>>() {}, HttpStatus.OK)
-                .thenApply(res -> {
-                    isThenApplyInvoked[0] = true;
-                    return res;
-                })
-                .get();
+        List<User> resultUsers;
+        try (var stream = cVurl.get(URL).asNdjson(User.class)) {
+            resultUsers = stream.collect(Collectors.toList());
+        }
 
         //then
-        assertTrue(isThenApplyInvoked[0]);
         assertEquals(users, resultUsers);
     }
 
     @Test
-    void shouldThrowResponseMappingExceptionWhenResponseBodyIsNotValidAndBodyTypeIsUsed() {
+    void shouldPassInvalidLinesToErrorHandlerWhenResponseContainsNdjson() throws JsonProcessingException {
         //given
-        var body = NOT_A_JSON_STRING;
+        var user = ObjectGenerator.generateTestObject();
+        var invalidLines = new ArrayList<String>();
+
         wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
                 .willReturn(aResponse()
                         .withStatus(HttpStatus.OK)
-                        .withBody(body)));
+                        .withBody(NOT_A_JSON_STRING + "\n" + mapper.writeValueAsString(user))));
 
         //when
-        Executable executable = () -> cVurl.get(URL).asObject(new BodyType<List<User>>() {});
+        List<User> resultUsers;
+        try (var stream = cVurl.get(URL).asNdjson(User.class, (line, e) -> invalidLines.add(line))) {
+            resultUsers = stream.collect(Collectors.toList());
+        }
 
         //then
-        var responseMappingException = assertThrows(ResponseMappingException.class, executable);
-        assertEquals(HttpStatus.OK, responseMappingException.getResponse().status());
-        assertEquals(body, responseMappingException.getResponse().getBody());
+        assertEquals(List.of(user), resultUsers);
+        assertEquals(List.of(NOT_A_JSON_STRING), invalidLines);
     }
 
     @Test
-    void shouldOverrideGlobalRequestConfigurationWhenRequestConfigurationIsProvided() throws NoSuchFieldException,
-            IllegalAccessException {
+    void shouldThrowMappingExceptionWhenNdjsonLineIsInvalid() throws JsonProcessingException {
         //given
-        var timeout = Duration.ofSeconds(15);
+        var user = ObjectGenerator.generateTestObject();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(user) + "\n" + NOT_A_JSON_STRING + "\n")));
 
         //when
-        var requestConfiguration = getRequestConfiguration((CVurlRequest) cVurl.get(URL)
-                .requestTimeout(timeout)
-                .acceptCompressed(true)
-                .logEnabled(true)
-                .create());
+        var stream = cVurl.get(URL).asNdjson(User.class);
+        var iterator = stream.iterator();
 
         //then
-        assertEquals(timeout, requestConfiguration.getRequestTimeout()
-                .orElseThrow(() -> new IllegalStateException("No request timeout. It must be set.")));
-        assertTrue(requestConfiguration.isAcceptCompressed());
-        assertTrue(requestConfiguration.isLogEnabled());
+        assertEquals(user, iterator.next());
+        assertThrows(MappingException.class, iterator::next);
+        stream.close();
     }
 
-    private byte[] compressWithGZIP(String str) throws IOException {
-        var out = new ByteArrayOutputStream();
-        try (var gzipOutputStream = new GZIPOutputStream(out)) {
-            gzipOutputStream.write(str.getBytes());
+    @Test
+    void shouldFailNdjsonStreamWhenLineExceedsMaximumLength() throws JsonProcessingException {
+        //given
+        var user = ObjectGenerator.generateTestObject();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(user) + "\n" + "x".repeat(1000) + "\n")
+                        .withChunkedDribbleDelay(4, 100)));
+
+        //when
+        var stream = cVurl.get(URL).asyncAs(responseInfo ->
+                new NdjsonBodySubscriber<>(MapperFactory.createDefault(), User.class, null, 256)).join().getBody();
+        var iterator = stream.iterator();
+
+        //then
+        assertEquals(user, iterator.next());
+        assertThrows(ResponseBodyHandlingException.class, iterator::next);
+        stream.close();
+    }
+
+    @Test
+    void shouldFinishWaitingNdjsonConsumerWhenStreamIsClosed() throws JsonProcessingException,
+            ExecutionException, InterruptedException, TimeoutException {
+        //given
+        var line = mapper.writeValueAsString(ObjectGenerator.generateTestObject());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(line + "\n")
+                        .withChunkedDribbleDelay(2, 4000)));
+
+        var stream = cVurl.get(URL).asNdjson(User.class);
+        var iterator = stream.iterator();
+        var hasNext = CompletableFuture.supplyAsync(iterator::hasNext);
+
+        //when
+        stream.close();
+
+        //then
+        assertFalse(hasNext.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldFinishWaitingMultipartConsumerWhenStreamIsClosed() throws ExecutionException, InterruptedException,
+            TimeoutException {
+        //given
+        var boundary = "simple-boundary";
+        var body = "preamble ".repeat(20) + "\r\n" +
+                "--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n\r\n" +
+                "first\r\n" +
+                "--" + boundary + "--\r\n";
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "multipart/mixed; boundary=" + boundary)
+                        .withBody(body)
+                        .withChunkedDribbleDelay(2, 4000)));
+
+        var stream = cVurl.get(URL).asMultipart();
+        var iterator = stream.iterator();
+        var hasNext = CompletableFuture.supplyAsync(iterator::hasNext);
+
+        //when
+        stream.close();
+
+        //then
+        assertFalse(hasNext.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldReturnStreamOfPartsWhenResponseIsMultipartInChunks() throws IOException {
+        //given
+        var boundary = "simple-boundary";
+        var body = "preamble\r\n" +
+                "--" + boundary + "\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Range: bytes 0-4/10\r\n\r\n" +
+                "first\r\n" +
+                "--" + boundary + "  \r\n" +
+                "Content-Type: text/plain\r\n\r\n" +
+                "second\r\n--not-a-boundary\r\n" +
+                "--" + boundary + "--\r\n" +
+                "epilogue";
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "multipart/byteranges; boundary=\"" + boundary + "\"")
+                        .withBody(body)
+                        .withChunkedDribbleDelay(13, 100)));
+
+        //when
+        var bodies = new ArrayList<String>();
+        var contentRanges = new ArrayList<String>();
+        try (var stream = cVurl.get(URL).asMultipart()) {
+            for (var iterator = stream.iterator(); iterator.hasNext(); ) {
+                var part = iterator.next();
+                contentRanges.add(part.headers().firstValue("content-range").orElse(""));
+                bodies.add(new String(part.body().readAllBytes()));
+            }
+        }
+
+        //then
+        assertEquals(List.of("first", "second\r\n--not-a-boundary"), bodies);
+        assertEquals(List.of("bytes 0-4/10", ""), contentRanges);
+    }
+
+    @Test
+    void shouldSkipUnreadPartBodyWhenNextPartIsRequested() throws IOException {
+        //given
+        var boundary = "boundary";
+        var body = "--" + boundary + "\r\n\r\n" + "x".repeat(100_000) + "\r\n" +
+                "--" + boundary + "\r\nContent-Type: text/plain\r\n\r\nlast\r\n" +
+                "--" + boundary + "--";
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "multipart/mixed; boundary=" + boundary)
+                        .withBody(body)));
+
+        //when
+        String lastBody;
+        try (var stream = cVurl.get(URL).asMultipart()) {
+            var iterator = stream.iterator();
+            var first = iterator.next();
+            first.body().read();
+            lastBody = new String(iterator.next().body().readAllBytes());
+
+            //then
+            assertEquals(-1, first.body().read());
+            assertFalse(iterator.hasNext());
+        }
+
+        assertEquals("last", lastBody);
+    }
+
+    @Test
+    void shouldThrowUnexpectedResponseExceptionWhenResponseIsNotMultipart() {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.TEXT_PLAIN)
+                        .withBody(NOT_A_JSON_STRING)));
+
+        //when
+        var exception = assertThrows(UnexpectedResponseException.class, () -> cVurl.get(URL).asMultipart());
+
+        //then
+        assertEquals(NOT_A_JSON_STRING, exception.getResponse().getBody());
+    }
+
+    @Test
+    void shouldThrowResponseBodyHandlingExceptionWhenMultipartBodyIsTruncated() {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, "multipart/mixed; boundary=boundary")
+                        .withBody("--boundary\r\n\r\ncontent")));
+
+        //when
+        var stream = cVurl.get(URL).asMultipart();
+        var iterator = stream.iterator();
+        var part = iterator.next();
+
+        //then
+        assertThrows(IOException.class, () -> part.body().readAllBytes());
+        assertThrows(ResponseBodyHandlingException.class, iterator::hasNext);
+        stream.close();
+    }
+
+    @Test
+    void shouldDownloadResourceInConcurrentSegmentsWhenRangesAreSupported() throws IOException {
+        //given
+        var segmentSize = (int) SegmentedDownload.MIN_SEGMENT_SIZE;
+        var content = new byte[segmentSize * 3 + segmentSize / 2];
+        new Random(7).nextBytes(content);
+        var etag = "\"v1\"";
+
+        for (int first = 0; first < content.length; first += segmentSize) {
+            int last = Math.min(first + segmentSize, content.length) - 1;
+            var stub = get(urlEqualTo(TEST_ENDPOINT))
+                    .withHeader(HttpHeaders.RANGE, equalTo("bytes=" + first + "-" + last));
+
+            wireMockServer.stubFor((first == 0 ? stub : stub.withHeader(HttpHeaders.IF_RANGE, equalTo(etag)))
+                    .willReturn(aResponse()
+                            .withStatus(HttpStatus.PARTIAL_CONTENT)
+                            .withHeader(HttpHeaders.ETAG, etag)
+                            .withHeader(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + content.length)
+                            .withBody(Arrays.copyOfRange(content, first, last + 1))));
+        }
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        try {
+            //when
+            var response = cVurl.get(URL).download(file);
+
+            //then
+            assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+            assertEquals(file, response.getBody());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            wireMockServer.verify(4, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldDownloadResourceAsSingleStreamWhenRangesAreNotSupported() throws IOException {
+        //given
+        var content = new byte[(int) SegmentedDownload.MIN_SEGMENT_SIZE * 2];
+        new Random(11).nextBytes(content);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        try {
+            //when
+            var response = cVurl.get(URL).download(file);
+
+            //then
+            assertEquals(HttpStatus.OK, response.status());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            wireMockServer.verify(1, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldDownloadResourceAsSingleStreamWhenFirstResponseHasNoValidator() throws IOException {
+        //given
+        var segmentSize = (int) SegmentedDownload.MIN_SEGMENT_SIZE;
+        var content = new byte[segmentSize * 2];
+        new Random(17).nextBytes(content);
+
+        stubRange(content, 0, segmentSize - 1);
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.RANGE, absent())
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        try {
+            //when
+            var response = cVurl.get(URL).download(file);
+
+            //then
+            assertEquals(HttpStatus.OK, response.status());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            wireMockServer.verify(2, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+            wireMockServer.verify(1, getRequestedFor(urlEqualTo(TEST_ENDPOINT)).withHeader(HttpHeaders.RANGE, absent()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldDeleteFileAndThrowUnexpectedResponseExceptionWhenDownloadFails() throws IOException {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND)
+                        .withBody(NOT_A_JSON_STRING)));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        //when
+        var exception = assertThrows(UnexpectedResponseException.class, () -> cVurl.get(URL).download(file));
+
+        //then
+        assertEquals(NOT_A_JSON_STRING, exception.getResponse().getBody());
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void shouldResumeDownloadFromSavedProgressAndVerifyReceivedDigest() throws IOException, NoSuchAlgorithmException {
+        //given
+        var content = new byte[100_000];
+        new Random(13).nextBytes(content);
+        var written = 40_000;
+        var etag = "\"v1\"";
+        var digest = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.RANGE, equalTo("bytes=" + written + "-"))
+                .withHeader(HttpHeaders.IF_RANGE, equalTo(etag))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .withHeader(HttpHeaders.ETAG, etag)
+                        .withHeader(HttpHeader.REPR_DIGEST, "sha-256=:" + digest + ":")
+                        .withHeader(HttpHeaders.CONTENT_RANGE,
+                                "bytes " + written + "-" + (content.length - 1) + "/" + content.length)
+                        .withBody(Arrays.copyOfRange(content, written, content.length))));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+        var progressFile = file.resolveSibling(file.getFileName() + ResumableDownload.PROGRESS_FILE_SUFFIX);
+        Files.write(file, Arrays.copyOf(content, written));
+        Files.writeString(progressFile, "uri=" + URL.replace(":", "\\:") + "\nvalidator=" + etag + "\n");
+
+        try {
+            //when
+            var response = cVurl.get(URL).resumableDownload(file, DigestAlgorithm.SHA_256);
+
+            //then
+            assertEquals(HttpStatus.PARTIAL_CONTENT, response.status());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            assertFalse(Files.exists(progressFile));
+            wireMockServer.verify(1, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(progressFile);
+        }
+    }
+
+    @Test
+    void shouldRetryResumableDownloadAfterServerError() throws IOException {
+        //given
+        var content = new byte[50_000];
+        new Random(17).nextBytes(content);
+        var checksum = new CRC32C();
+        checksum.update(content);
+        var digest = Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).array());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .inScenario("retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE))
+                .willSetStateTo("recovered"));
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.DIGEST, "CRC32C=" + digest)
+                        .withBody(content)));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        try {
+            //when
+            var response = cVurl.get(URL).resumableDownload(file, DigestAlgorithm.CRC32C);
+
+            //then
+            assertEquals(HttpStatus.OK, response.status());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            wireMockServer.verify(2, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldVerifyDownloadRestartedAfterResourceChangeWithoutDigestOfPreviousResponse() throws Exception {
+        //given
+        var previous = new byte[50_000];
+        new Random(23).nextBytes(previous);
+        var content = new byte[60_000];
+        new Random(29).nextBytes(content);
+        var digest = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(previous));
+        var ifRange = new CompletableFuture<String>();
+        var file = Files.createTempFile("cvurl-download", ".bin");
+
+        // WireMock cannot cut a response short without dropping its headers, so a plain socket server is used.
+        try (var server = new ServerSocket(0, 2, InetAddress.getLoopbackAddress())) {
+            var responses = CompletableFuture.runAsync(() -> {
+                try {
+                    // The first response is cut short, and the resource changes before the retry.
+                    try (var socket = server.accept()) {
+                        readRequestHeaders(socket);
+                        socket.getOutputStream().write(("HTTP/1.1 200 OK\r\nETag: \"v1\"\r\n" +
+                                "Repr-Digest: sha-256=:" + digest + ":\r\n" +
+                                "Content-Length: " + previous.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                        socket.getOutputStream().write(previous, 0, previous.length / 2);
+                    }
+
+                    try (var socket = server.accept()) {
+                        ifRange.complete(readRequestHeaders(socket).getOrDefault("if-range", ""));
+                        socket.getOutputStream().write(("HTTP/1.1 200 OK\r\nETag: \"v2\"\r\n" +
+                                "Content-Length: " + content.length + "\r\nConnection: close\r\n\r\n")
+                                .getBytes(StandardCharsets.US_ASCII));
+                        socket.getOutputStream().write(content);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            //when
+            var response = cVurl.get(format("http://localhost:%d%s", server.getLocalPort(), TEST_ENDPOINT))
+                    .resumableDownload(file, DigestAlgorithm.SHA_256);
+            responses.get(5, TimeUnit.SECONDS);
+
+            //then
+            assertEquals(HttpStatus.OK, response.status());
+            assertArrayEquals(content, Files.readAllBytes(file));
+            assertEquals("\"v1\"", ifRange.get());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Map<String, String> readRequestHeaders(Socket socket) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        var headers = new HashMap<String, String>();
+
+        for (String line = reader.readLine(); line != null && !line.isEmpty(); line = reader.readLine()) {
+            int colon = line.indexOf(':');
+
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+
+        return headers;
+    }
+
+    @Test
+    void shouldDeleteFileAndThrowDigestMismatchExceptionWhenDigestDiffers() throws IOException {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                        .withBody(TEST_BODY)));
+
+        var file = Files.createTempFile("cvurl-download", ".bin");
+        var progressFile = file.resolveSibling(file.getFileName() + ResumableDownload.PROGRESS_FILE_SUFFIX);
+
+        //when
+        assertThrows(DigestMismatchException.class, () -> cVurl.get(URL)
+                .resumableDownload(file, DigestAlgorithm.SHA_256, "00".repeat(32)));
+
+        //then
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(progressFile));
+    }
+
+    @Test
+    void shouldFetchOnlyRequestedBlocksWhenChannelIsReadAtRandomPosition() throws IOException {
+        //given
+        var content = new byte[100];
+        new Random(19).nextBytes(content);
+
+        stubRange(content, 0, 0);
+        stubRange(content, 80, 99);
+
+        var buffer = ByteBuffer.allocate(10);
+
+        //when
+        try (var channel = cVurl.get(URL).openChannel(16, 4)) {
+            var size = channel.size();
+            var read = channel.position(90).read(buffer);
+
+            //then
+            assertEquals(content.length, size);
+            assertEquals(10, read);
+            assertArrayEquals(Arrays.copyOfRange(content, 90, 100), buffer.array());
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    void shouldReadAheadAndCacheBlocksWhenChannelIsReadSequentially() throws IOException {
+        //given
+        var content = new byte[100];
+        new Random(23).nextBytes(content);
+
+        stubRange(content, 0, 47);
+        stubRange(content, 48, 95);
+        stubRange(content, 96, 99);
+
+        var out = new ByteArrayOutputStream();
+        var buffer = ByteBuffer.allocate(40);
+
+        //when
+        try (var channel = cVurl.get(URL).openChannel(16, 4)) {
+            while (channel.read(buffer.clear()) > 0) {
+                out.write(buffer.array(), 0, buffer.position());
+            }
+
+            var cached = ByteBuffer.allocate(8);
+            channel.position(50).read(cached);
+
+            //then
+            assertArrayEquals(content, out.toByteArray());
+            assertArrayEquals(Arrays.copyOfRange(content, 50, 58), cached.array());
+        }
+
+        wireMockServer.verify(3, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    void shouldKeepWholeResourceWhenServerIgnoresRange() throws IOException {
+        //given
+        var content = new byte[100];
+        new Random(37).nextBytes(content);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        var out = new ByteArrayOutputStream();
+        var buffer = ByteBuffer.allocate(40);
+
+        //when
+        try (var channel = cVurl.get(URL).openChannel(16, 8)) {
+            var size = channel.size();
+            var tail = ByteBuffer.allocate(10);
+            channel.position(90).read(tail);
+
+            channel.position(0);
+            while (channel.read(buffer.clear()) > 0) {
+                out.write(buffer.array(), 0, buffer.position());
+            }
+
+            //then
+            assertEquals(content.length, size);
+            assertArrayEquals(Arrays.copyOfRange(content, 90, 100), tail.array());
+            assertArrayEquals(content, out.toByteArray());
+        }
+
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    void shouldFailChannelReadWhenServerIgnoresRangeOfResourceLargerThanCache() {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(new byte[100])));
+
+        var channel = cVurl.get(URL).openChannel(16, 4);
+
+        //when
+        var exception = assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(10)));
+
+        //then
+        assertTrue(exception.getMessage().contains("larger than the 64 bytes"));
+        assertTrue(channel.isOpen());
+    }
+
+    @Test
+    void shouldAbortChannelReadWhenChannelIsClosedByAnotherThread() throws InterruptedException, IOException {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 0-15/100")
+                        .withBody(new byte[16])
+                        .withFixedDelay(10_000)));
+
+        var channel = cVurl.get(URL).openChannel(16, 4);
+        var read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return channel.read(ByteBuffer.allocate(10));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Thread.sleep(500);
+
+        //when
+        channel.close();
+
+        //then
+        var exception = assertThrows(ExecutionException.class, () -> read.get(2, TimeUnit.SECONDS));
+        assertTrue(exception.getCause().getCause() instanceof ClosedChannelException);
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void shouldFailChannelReadWhenResourceChanges() throws IOException {
+        //given
+        var content = new byte[100];
+        new Random(29).nextBytes(content);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.RANGE, equalTo("bytes=0-15"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                        .withHeader(HttpHeaders.CONTENT_RANGE, "bytes 0-15/100")
+                        .withBody(Arrays.copyOf(content, 16))));
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.RANGE, equalTo("bytes=64-79"))
+                .withHeader(HttpHeaders.IF_MATCH, equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(HttpStatus.PRECONDITION_FAILED)));
+
+        try (var channel = cVurl.get(URL).openChannel(16, 4)) {
+            channel.read(ByteBuffer.allocate(16));
+
+            //when
+            channel.position(64);
+
+            //then
+            assertThrows(IOException.class, () -> channel.read(ByteBuffer.allocate(16)));
+        }
+    }
+
+    @Test
+    void shouldUploadChunksWithContentRangeAndRetryFailedChunk() throws IOException {
+        //given
+        var content = new byte[25];
+        new Random(31).nextBytes(content);
+
+        for (int first = 0; first < content.length; first += 10) {
+            int last = Math.min(first + 10, content.length) - 1;
+            var stub = put(urlEqualTo(TEST_ENDPOINT))
+                    .withHeader(HttpHeaders.CONTENT_RANGE, equalTo("bytes " + first + "-" + last + "/25"));
+
+            if (first == 10) {
+                wireMockServer.stubFor(stub.inScenario("chunk")
+                        .whenScenarioStateIs(STARTED)
+                        .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE))
+                        .willSetStateTo("recovered"));
+                stub = stub.inScenario("chunk").whenScenarioStateIs("recovered");
+            }
+
+            wireMockServer.stubFor(stub.willReturn(aResponse().withStatus(HttpStatus.PERMANENT_REDIRECT)));
+        }
+
+        wireMockServer.stubFor(put(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.CONTENT_RANGE, equalTo("bytes */25"))
+                .willReturn(aResponse().withStatus(HttpStatus.OK).withBody(TEST_BODY)));
+
+        var file = Files.createTempFile("cvurl-upload", ".bin");
+        Files.write(file, content);
+
+        try {
+            //when
+            var response = cVurl.put(URL).upload(file, UploadProtocol.OFFSET_HEADER, 10, 2);
+
+            //then
+            assertEquals(HttpStatus.OK, response.status());
+            assertEquals(TEST_BODY, response.getBody());
+
+            for (int first = 0; first < content.length; first += 10) {
+                int last = Math.min(first + 10, content.length) - 1;
+                wireMockServer.verify(first == 10 ? 2 : 1, putRequestedFor(urlEqualTo(TEST_ENDPOINT))
+                        .withHeader(HttpHeaders.CONTENT_RANGE, equalTo("bytes " + first + "-" + last + "/25"))
+                        .withRequestBody(binaryEqualTo(Arrays.copyOfRange(content, first, last + 1))));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldUploadChunksWithTusAndResumeFailedChunk() throws IOException {
+        //given
+        var content = new byte[15];
+        new Random(37).nextBytes(content);
+        var firstChunk = format(URL_PATTERN, PORT, "/files/a");
+        var secondChunk = format(URL_PATTERN, PORT, "/files/b");
+
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.TUS_RESUMABLE, equalTo("1.0.0"))
+                .withHeader(HttpHeader.UPLOAD_CONCAT, equalTo("partial"))
+                .withHeader(HttpHeader.UPLOAD_LENGTH, equalTo("10"))
+                .willReturn(aResponse().withStatus(HttpStatus.CREATED).withHeader(HttpHeader.LOCATION, "/files/a")));
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.UPLOAD_CONCAT, equalTo("partial"))
+                .withHeader(HttpHeader.UPLOAD_LENGTH, equalTo("5"))
+                .willReturn(aResponse().withStatus(HttpStatus.CREATED).withHeader(HttpHeader.LOCATION, "/files/b")));
+        wireMockServer.stubFor(patch(urlEqualTo("/files/a"))
+                .withHeader(HttpHeader.UPLOAD_OFFSET, equalTo("0"))
+                .withHeader(HttpHeader.CONTENT_TYPE, equalTo(MIMEType.APPLICATION_OFFSET_OCTET_STREAM))
+                .willReturn(aResponse().withStatus(HttpStatus.NO_CONTENT).withHeader(HttpHeader.UPLOAD_OFFSET, "10")));
+        wireMockServer.stubFor(patch(urlEqualTo("/files/b"))
+                .withHeader(HttpHeader.UPLOAD_OFFSET, equalTo("0"))
+                .willReturn(aResponse().withStatus(HttpStatus.SERVICE_UNAVAILABLE)));
+        wireMockServer.stubFor(head(urlEqualTo("/files/b"))
+                .willReturn(aResponse().withStatus(HttpStatus.OK).withHeader(HttpHeader.UPLOAD_OFFSET, "2")));
+        wireMockServer.stubFor(patch(urlEqualTo("/files/b"))
+                .withHeader(HttpHeader.UPLOAD_OFFSET, equalTo("2"))
+                .willReturn(aResponse().withStatus(HttpStatus.NO_CONTENT).withHeader(HttpHeader.UPLOAD_OFFSET, "5")));
+        wireMockServer.stubFor(post(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.UPLOAD_CONCAT, equalTo("final;" + firstChunk + " " + secondChunk))
+                .willReturn(aResponse().withStatus(HttpStatus.CREATED).withHeader(HttpHeader.LOCATION, "/files/c")));
+
+        var file = Files.createTempFile("cvurl-upload", ".bin");
+        Files.write(file, content);
+
+        try {
+            //when
+            var response = cVurl.post(URL).upload(file, UploadProtocol.TUS, 10, 2);
+
+            //then
+            assertEquals(HttpStatus.CREATED, response.status());
+            wireMockServer.verify(patchRequestedFor(urlEqualTo("/files/a"))
+                    .withRequestBody(binaryEqualTo(Arrays.copyOfRange(content, 0, 10))));
+            wireMockServer.verify(patchRequestedFor(urlEqualTo("/files/b"))
+                    .withHeader(HttpHeader.UPLOAD_OFFSET, equalTo("2"))
+                    .withRequestBody(binaryEqualTo(Arrays.copyOfRange(content, 12, 15))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void shouldKeepBodyInPooledBuffersUntilReleased() throws IOException {
+        //given
+        var content = new byte[100];
+        new Random(41).nextBytes(content);
+        var pool = BufferPool.of(16, 8);
+        var pooledCVurl = new CVurl(CVurlConfig.builder().bufferPool(pool).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        //when
+        var response = pooledCVurl.get(URL).asPooledBody().orElseThrow();
+
+        //then
+        try (var body = response.getBody()) {
+            assertEquals(HttpStatus.OK, response.status());
+            assertEquals(7, body.buffers().size());
+            assertArrayEquals(content, body.inputStream().readAllBytes());
+        }
+
+        assertEquals(7, pool.getPooledBuffers());
+    }
+
+    @Test
+    void shouldAbortExchangeWhenDecompressedBodyExceedsMaxBodySize() throws IOException, InterruptedException {
+        //given
+        var body = "a".repeat(10_000);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)
+                        .withBody(compressWithGZIP(body))));
+
+        //when
+        var result = cVurl.get(URL).acceptCompressed().maxBodySize(1_000).asyncAsString();
+        var limited = cVurl.get(URL).acceptCompressed().maxBodySize(10_000).asString();
+
+        //then
+        var exception = assertThrows(ExecutionException.class, result::get);
+        assertTrue(exception.getCause() instanceof BodyTooLargeException);
+        assertEquals(1_000, ((BodyTooLargeException) exception.getCause()).getMaxBodySize());
+        assertEquals(body, limited.orElseThrow().getBody());
+    }
+
+    @Test
+    void shouldAbortSpilledAndCustomHandledBodiesExceedingMaxBodySize() {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(new byte[10_000])));
+
+        //when
+        var spilled = cVurl.get(URL).maxBodySize(1_000).asyncAsSpillableBody(100);
+        var custom = cVurl.get(URL).maxBodySize(1_000).asyncAs(HttpResponse.BodyHandlers.ofByteArray());
+
+        //then
+        var spilledException = assertThrows(ExecutionException.class, spilled::get);
+        assertTrue(spilledException.getCause() instanceof BodyTooLargeException);
+        var customException = assertThrows(ExecutionException.class, custom::get);
+        assertTrue(customException.getCause() instanceof BodyTooLargeException);
+    }
+
+    @Test
+    void shouldFailReadingStreamedBodyExceedingMaxBodySize() throws IOException {
+        //given
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(new byte[10_000])));
+
+        //when
+        var response = cVurl.get(URL).maxBodySize(1_000).asyncAsStream().join();
+
+        //then
+        try (var body = response.getBody()) {
+            var exception = assertThrows(IOException.class, body::readAllBytes);
+            assertTrue(exception.getCause() instanceof BodyTooLargeException);
+        }
+    }
+
+    @Test
+    void shouldReceiveConcurrentBodiesLargerThanMemoryBudget() {
+        //given
+        var content = new byte[50_000];
+        new Random(43).nextBytes(content);
+        var budget = MemoryBudget.of(1_000);
+        var budgetedCVurl = new CVurl(CVurlConfig.builder().memoryBudget(budget).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        //when
+        var results = new ArrayList<CompletableFuture<Response<PooledBody>>>();
+        for (int i = 0; i < 8; i++) {
+            results.add(budgetedCVurl.get(URL).asyncAsPooledBody());
+        }
+
+        //then
+        for (var result : results) {
+            try (var body = result.join().getBody()) {
+                assertArrayEquals(content, body.toByteArray());
+            }
+        }
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    void shouldSpillBodyToTemporaryFileAboveThreshold() throws IOException {
+        //given
+        var content = new byte[10_000];
+        new Random(47).nextBytes(content);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        //when
+        var small = cVurl.get(URL).asSpillableBody(content.length).orElseThrow().getBody();
+        var large = cVurl.get(URL).asSpillableBody(1_000).orElseThrow().getBody();
+
+        //then
+        try (small) {
+            assertFalse(small.isSpilled());
+            assertArrayEquals(content, small.toByteArray());
+        }
+
+        var file = large.file().orElseThrow();
+        try (large) {
+            var mapped = large.mappedBuffer();
+            var mappedContent = new byte[mapped.remaining()];
+            mapped.get(mappedContent);
+
+            assertEquals(content.length, large.size());
+            assertArrayEquals(content, mappedContent);
+            try (var inputStream = large.inputStream()) {
+                assertArrayEquals(content, inputStream.readAllBytes());
+            }
+        }
+
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void shouldSpillBodyAboveDefaultThresholdWhenThresholdIsNotSpecified() throws IOException {
+        //given
+        var content = new byte[(int) SpillableBody.DEFAULT_THRESHOLD + 1];
+        new Random(53).nextBytes(content);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(content)));
+
+        //when
+        var body = cVurl.get(URL).asyncAsSpillableBody().join().getBody();
+
+        //then
+        try (body) {
+            assertTrue(body.isSpilled());
+            assertArrayEquals(content, body.toByteArray());
+        }
+    }
+
+    @Test
+    void shouldSpreadRequestsOverShardsWithFewestRequestsInFlight() {
+        //given
+        var configuration = CVurlConfig.builder()
+                .httpClientMode(HttpClientMode.SHARDED)
+                .shards(3, ShardSelection.LEAST_OUTSTANDING)
+                .build();
+        var client = (ShardedHttpClient) configuration.getHttpClient();
+        var shardedCVurl = new CVurl(configuration);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withFixedDelay(500)
+                        .withBody(TEST_BODY)));
+
+        //when
+        var results = new ArrayList<CompletableFuture<Response<String>>>();
+        for (int i = 0; i < 3; i++) {
+            results.add(shardedCVurl.get(URL).asyncAsString());
+        }
+        var inFlight = List.of(client.getInFlightRequests(0), client.getInFlightRequests(1),
+                client.getInFlightRequests(2));
+        results.forEach(CompletableFuture::join);
+
+        //then
+        assertEquals(3, client.getShards().size());
+        assertEquals(List.of(1, 1, 1), inFlight);
+        assertEquals(0, client.getInFlightRequests());
+    }
+
+    @Test
+    void shouldDecompressAndMapBodyOnMappingExecutor() throws IOException {
+        //given
+        var user = ObjectGenerator.generateTestObject();
+        var submittedTasks = new AtomicInteger();
+        var pool = ForkJoinPool.commonPool();
+        var mappingExecutor = MappingExecutor.of(task -> {
+            submittedTasks.incrementAndGet();
+            pool.execute(task);
+        });
+        var mappingCVurl = new CVurl(CVurlConfig.builder().mappingExecutor(mappingExecutor).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)
+                        .withBody(compressWithGZIP(mapper.writeValueAsString(user)))));
+
+        //when
+        var resultUser = mappingCVurl.get(URL).acceptCompressed().asyncAsObject(User.class).join();
+
+        //then
+        assertEquals(user, resultUser);
+        // At least one task decompressed the body and one mapped it.
+        assertTrue(submittedTasks.get() >= 2);
+        assertEquals(0, mappingExecutor.getQueuedTasks());
+    }
+
+    @Test
+    void shouldStreamCompressedNdjsonThroughSingleThreadMappingExecutor() throws IOException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+        var body = new StringBuilder();
+        for (User user : users) {
+            body.append(mapper.writeValueAsString(user)).append('\n');
+        }
+        var executor = Executors.newSingleThreadExecutor();
+        var mappingCVurl = new CVurl(CVurlConfig.builder().mappingExecutor(MappingExecutor.of(executor)).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)
+                        .withBody(compressWithGZIP(body.toString()))
+                        .withChunkedDribbleDelay(5, 100)));
+
+        //when
+        List<User> resultUsers;
+        try (var stream = mappingCVurl.get(URL).acceptCompressed().asNdjson(User.class)) {
+            resultUsers = stream.collect(Collectors.toList());
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldPublishCompressedUsersThroughSingleThreadMappingExecutor() throws IOException,
+            ExecutionException, InterruptedException, TimeoutException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+        var resultUsers = Collections.synchronizedList(new ArrayList<User>());
+        var completed = new CompletableFuture<Void>();
+        var executor = Executors.newSingleThreadExecutor();
+        var mappingCVurl = new CVurl(CVurlConfig.builder().mappingExecutor(MappingExecutor.of(executor)).build());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_ENCODING, HttpContentEncoding.GZIP)
+                        .withBody(compressWithGZIP(mapper.writeValueAsString(users)))
+                        .withChunkedDribbleDelay(5, 100)));
+
+        //when
+        mappingCVurl.get(URL).acceptCompressed().asyncAsPublisherOf(User.class).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(User item) {
+                resultUsers.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        try {
+            completed.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldWarmUpConnectionsOncePerHost() {
+        //given
+        var origin = URI.create(format("http://localhost:%d", PORT));
+
+        wireMockServer.stubFor(head(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse().withStatus(HttpStatus.OK)));
+
+        //when
+        var report = cVurl.warmUp(List.of(URI.create(URL), URI.create(URL + "?other")), 2);
+
+        //then
+        assertTrue(report.isSuccessful());
+        assertEquals(1, report.getHosts().size());
+        var host = report.getHost(origin).orElseThrow();
+        assertEquals(2, host.getConnections());
+        assertTrue(host.getDnsResolution().isPresent());
+        assertTrue(host.getFirstResponse().isPresent());
+        assertTrue(host.getVersion().isPresent());
+        assertTrue(host.getFailure().isEmpty());
+        wireMockServer.verify(2, headRequestedFor(urlEqualTo(TEST_ENDPOINT)));
+    }
+
+    @Test
+    void shouldReportHostWhoseNameCannotBeResolved() {
+        //given
+        var origin = URI.create("http://unknown-host.invalid:80");
+
+        //when
+        var report = cVurl.warmUp(List.of(URI.create("http://unknown-host.invalid/path")));
+
+        //then
+        assertFalse(report.isSuccessful());
+        var host = report.getHost(origin).orElseThrow();
+        assertFalse(host.isWarmedUp());
+        assertTrue(host.getDnsResolution().isEmpty());
+        assertTrue(host.getFailure().orElseThrow() instanceof UnknownHostException);
+    }
+
+    @Test
+    void shouldNotResolveHostNameWhenHostIsReachedThroughProxy() {
+        //given
+        var origin = URI.create("http://unknown-host.invalid:80");
+        var proxiedCVurl = new CVurl(CVurlConfig.builder()
+                .proxySelector(ProxySelector.of(new InetSocketAddress("localhost", PORT)))
+                .build());
+
+        wireMockServer.stubFor(head(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse().withStatus(HttpStatus.OK)));
+
+        //when
+        var report = proxiedCVurl.warmUp(List.of(URI.create("http://unknown-host.invalid" + TEST_ENDPOINT)), 2);
+
+        //then
+        assertTrue(report.isSuccessful());
+        var host = report.getHost(origin).orElseThrow();
+        assertEquals(2, host.getConnections());
+        assertTrue(host.getDnsResolution().isEmpty());
+        assertTrue(host.getFirstResponse().isPresent());
+    }
+
+    @Test
+    void shouldSendRequestsToSameHostThroughSameShard() {
+        //given
+        var configuration = CVurlConfig.builder()
+                .httpClientMode(HttpClientMode.SHARDED)
+                .shards(4, ShardSelection.HOST_AFFINITY)
+                .build();
+        var client = (ShardedHttpClient) configuration.getHttpClient();
+        var shardedCVurl = new CVurl(configuration);
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withFixedDelay(500)
+                        .withBody(TEST_BODY)));
+
+        //when
+        var first = shardedCVurl.get(URL).asyncAsString();
+        var second = shardedCVurl.get(URL).asyncAsString();
+        var maxInFlight = IntStream.range(0, 4).map(client::getInFlightRequests).max().orElseThrow();
+        first.join();
+        second.join();
+
+        //then
+        assertEquals(2, maxInFlight);
+        assertEquals(0, client.getInFlightRequests());
+    }
+
+    @Test
+    void shouldStopCountingShardRequestWhenItIsCancelled() {
+        //given
+        var configuration = CVurlConfig.builder()
+                .httpClientMode(HttpClientMode.SHARDED)
+                .shards(2, ShardSelection.LEAST_OUTSTANDING)
+                .build();
+        var client = (ShardedHttpClient) configuration.getHttpClient();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withFixedDelay(500)
+                        .withBody(TEST_BODY)));
+
+        //when
+        var result = client.sendAsync(HttpRequest.newBuilder(URI.create(URL)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        var inFlightBeforeCancel = client.getInFlightRequests();
+        result.cancel(true);
+
+        //then
+        assertEquals(1, inFlightBeforeCancel);
+        assertEquals(0, client.getInFlightRequests());
+    }
+
+    @Test
+    void shouldCountShardRequestUntilStreamedBodyIsClosed() throws IOException {
+        //given
+        var configuration = CVurlConfig.builder()
+                .httpClientMode(HttpClientMode.SHARDED)
+                .shards(2, ShardSelection.LEAST_OUTSTANDING)
+                .build();
+        var client = (ShardedHttpClient) configuration.getHttpClient();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(new byte[1024 * 1024])));
+
+        //when
+        var response = client.sendAsync(HttpRequest.newBuilder(URI.create(URL)).build(),
+                HttpResponse.BodyHandlers.ofInputStream()).join();
+        var inFlightWhileStreaming = client.getInFlightRequests();
+        response.body().close();
+
+        //then
+        assertEquals(1, inFlightWhileStreaming);
+        assertEquals(0, client.getInFlightRequests());
+    }
+
+    @Test
+    void shouldReconnectWithLastEventIdWhenEventStreamEnds() throws JsonProcessingException, ExecutionException,
+            InterruptedException {
+        //given
+        var user = ObjectGenerator.generateTestObject();
+        var events = Collections.synchronizedList(new ArrayList<ServerSentEvent<User>>());
+        var completed = new CompletableFuture<Void>();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.ACCEPT, equalTo(MIMEType.TEXT_EVENT_STREAM))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withHeader(HttpHeader.CONTENT_TYPE, MIMEType.TEXT_EVENT_STREAM)
+                        .withBody("retry: 10\nid: 1\nevent: created\ndata: " + mapper.writeValueAsString(user) + "\n\n")
+                        .withChunkedDribbleDelay(5, 50)));
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeader.LAST_EVENT_ID, equalTo("1"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NO_CONTENT)));
+
+        //when
+        cVurl.get(URL).asyncAsEventStream(User.class).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ServerSentEvent<User> item) {
+                events.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        completed.get();
+
+        //then
+        assertEquals(List.of(new ServerSentEvent<>("1", "created", user)), events);
+    }
+
+    @Test
+    void shouldTerminateEventStreamWithUnexpectedResponseExceptionWhenResponseIsNotEventStream() {
+        //given
+        var completed = new CompletableFuture<Void>();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.NOT_FOUND)
+                        .withBody(TEST_BODY)));
+
+        //when
+        cVurl.get(URL).asyncAsEventStream().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ServerSentEvent<String> item) {
+                completed.completeExceptionally(new AssertionError("Unexpected event: " + item));
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+        var exception = assertThrows(ExecutionException.class, completed::get);
+
+        //then
+        assertTrue(exception.getCause() instanceof UnexpectedResponseException);
+        assertEquals(TEST_BODY, ((UnexpectedResponseException) exception.getCause()).getResponse().getBody());
+    }
+
+    @Test
+    void shouldReturnListOfUsersWrappedInSetWhenBodyTypeIsUsed() throws JsonProcessingException {
+        //given
+        var users = Set.of(ObjectGenerator.generateListOfTestObjects());
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        var resultUsers = cVurl.get(URL).asObject(new BodyType<Set<List<User>>>() {});
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndStatusCodeOkIsExpected() throws JsonProcessingException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        var resultUsers = cVurl.get(URL)
+                .asObject(new BodyType<List<User>>() {}, HttpStatus.OK)
+                .orElseThrow(RuntimeException::new);
+
+        //then
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndExecutionModeIsAsync() throws JsonProcessingException,
+            ExecutionException, InterruptedException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+        var isThenApplyInvoked = new boolean[]{false};
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        var resultUsers = cVurl.get(URL).asyncAsObject(new BodyType<List<User>>() {})
+                .thenApply(res -> {
+                    isThenApplyInvoked[0] = true;
+                    return res;
+                })
+                .get();
+
+        //then
+        assertTrue(isThenApplyInvoked[0]);
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldReturnListOfUsersWhenBodyTypeIsUsedAndStatusCodeOkIsExpectedAndExecutionModeIsAsync()
+            throws JsonProcessingException, ExecutionException, InterruptedException {
+        //given
+        var users = ObjectGenerator.generateListOfTestObjects();
+        var isThenApplyInvoked = new boolean[]{false};
+
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(mapper.writeValueAsString(users))));
+
+        //when
+        var resultUsers = cVurl.get(URL).asyncAsObject(new BodyType<List<User>>() {}, HttpStatus.OK)
+                .thenApply(res -> {
+                    isThenApplyInvoked[0] = true;
+                    return res;
+                })
+                .get();
+
+        //then
+        assertTrue(isThenApplyInvoked[0]);
+        assertEquals(users, resultUsers);
+    }
+
+    @Test
+    void shouldThrowResponseMappingExceptionWhenResponseBodyIsNotValidAndBodyTypeIsUsed() {
+        //given
+        var body = NOT_A_JSON_STRING;
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK)
+                        .withBody(body)));
+
+        //when
+        Executable executable = () -> cVurl.get(URL).asObject(new BodyType<List<User>>() {});
+
+        //then
+        var responseMappingException = assertThrows(ResponseMappingException.class, executable);
+        assertEquals(HttpStatus.OK, responseMappingException.getResponse().status());
+        assertEquals(body, responseMappingException.getResponse().getBody());
+    }
+
+    @Test
+    void shouldOverrideGlobalRequestConfigurationWhenRequestConfigurationIsProvided() throws NoSuchFieldException,
+            IllegalAccessException {
+        //given
+        var timeout = Duration.ofSeconds(15);
+
+        //when
+        var requestConfiguration = getRequestConfiguration((CVurlRequest) cVurl.get(URL)
+                .requestTimeout(timeout)
+                .acceptCompressed(true)
+                .logEnabled(true)
+                .create());
+
+        //then
+        assertEquals(timeout, requestConfiguration.getRequestTimeout()
+                .orElseThrow(() -> new IllegalStateException("No request timeout. It must be set.")));
+        assertTrue(requestConfiguration.isAcceptCompressed());
+        assertTrue(requestConfiguration.isLogEnabled());
+    }
+
+    private void stubRange(byte[] content, int first, int last) {
+        wireMockServer.stubFor(get(urlEqualTo(TEST_ENDPOINT))
+                .withHeader(HttpHeaders.RANGE, equalTo("bytes=" + first + "-" + last))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.PARTIAL_CONTENT)
+                        .withHeader(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + content.length)
+                        .withBody(Arrays.copyOfRange(content, first, last + 1))));
+    }
+
+    private byte[] compressWithGZIP(String str) throws IOException {
+        return compressWithGZIP(str, Charset.defaultCharset());
+    }
+
+    private byte[] compressWithGZIP(String str, Charset charset) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzipOutputStream = new GZIPOutputStream(out)) {
+            gzipOutputStream.write(str.getBytes(charset));
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] compressWithDeflate(String str) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var deflaterOutputStream = new DeflaterOutputStream(out)) {
+            deflaterOutputStream.write(str.getBytes());
         }
         return out.toByteArray();
     }
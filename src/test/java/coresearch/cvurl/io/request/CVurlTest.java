@@ -2,12 +2,22 @@ package coresearch.cvurl.io.request;
 
 import coresearch.cvurl.io.constant.HttpClientMode;
 import coresearch.cvurl.io.model.CVurlConfig;
+import coresearch.cvurl.io.model.HttpClientRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 class CVurlTest {
 
@@ -39,6 +49,110 @@ class CVurlTest {
         assertSame(getHttpClient(cVurl1), getHttpClient(cVurl2));
     }
 
+    @Test
+    void shouldShareHttpClientOnlyAmongConfigsWithSameSettingsWhenHttpClientModeIsSingleton() {
+        //given
+        var timeout = Duration.ofMillis(4211);
+
+        //when
+        var configuration1 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON)
+                .connectTimeout(timeout).build();
+        var configuration2 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON)
+                .connectTimeout(timeout).build();
+        var configuration3 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON)
+                .connectTimeout(timeout.plusMillis(1)).build();
+
+        //then
+        assertSame(configuration1.getHttpClient(), configuration2.getHttpClient());
+        assertNotSame(configuration1.getHttpClient(), configuration3.getHttpClient());
+        assertEquals(2, HttpClientRegistry.shared().getReferenceCount(configuration1.getHttpClient()));
+    }
+
+    @Test
+    void shouldEvictSharedHttpClientWhenLastConfigIsClosed() {
+        //given
+        var executor = Executors.newSingleThreadExecutor();
+        var configuration1 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON).executor(executor).build();
+        var configuration2 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON).executor(executor).build();
+        var client = configuration1.getHttpClient();
+
+        //when
+        configuration1.close();
+        configuration1.close();
+        var referencesAfterFirstClose = HttpClientRegistry.shared().getReferenceCount(client);
+        configuration2.close();
+        var configuration3 = CVurlConfig.builder().httpClientMode(HttpClientMode.SINGLETON).executor(executor).build();
+
+        //then
+        assertEquals(1, referencesAfterFirstClose);
+        assertNotSame(client, configuration3.getHttpClient());
+        assertEquals(1, HttpClientRegistry.shared().getReferenceCount(configuration3.getHttpClient()));
+        configuration3.close();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRunAllTasksConcurrentlyAndReturnResultsInOrder() {
+        //given
+        var cVurl = new CVurl();
+        var started = new CountDownLatch(3);
+        List<Callable<Integer>> tasks = IntStream.range(0, 3)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    started.countDown();
+                    // Every task waits for the others, so the tasks complete only if they run at once.
+                    return started.await(5, TimeUnit.SECONDS) ? i : -1;
+                })
+                .collect(Collectors.toList());
+
+        //when
+        List<Integer> results = cVurl.runAll(tasks);
+
+        //then
+        assertEquals(List.of(0, 1, 2), results);
+    }
+
+    @Test
+    void shouldInterruptRunningTasksAsSoonAsLastTaskFails() throws InterruptedException {
+        //given
+        var cVurl = new CVurl();
+        var interrupted = new CountDownLatch(1);
+        List<Callable<Integer>> tasks = List.of(
+                () -> {
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                        return 0;
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                },
+                () -> {
+                    throw new IllegalStateException("failed");
+                });
+
+        //when
+        Executable executable = () -> cVurl.runAll(tasks);
+
+        //then
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertEquals("failed", assertThrows(IllegalStateException.class, executable).getMessage()));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRejectVirtualThreadModeWhenVirtualThreadsAreNotSupported() {
+        //given
+        assumeFalse(CVurlConfig.isVirtualThreadsSupported());
+        var builder = CVurlConfig.builder();
+
+        //when
+        Executable executable = () -> builder.virtualThreads(true);
+
+        //then
+        assertThrows(UnsupportedOperationException.class, executable);
+        assertFalse(builder.virtualThreads(false).build().isVirtualThreads());
+    }
+
     @Test
     void shouldThrowNullPointerExceptionWhenCVurlConfigIsNull() {
         //given
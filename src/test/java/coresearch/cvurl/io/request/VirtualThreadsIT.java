@@ -0,0 +1,56 @@
+package coresearch.cvurl.io.request;
+
+import coresearch.cvurl.io.model.CVurlConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against the multi-release jar on Java 21 or newer, where the Java 21 layer replaces the Java 11 classes.
+ */
+class VirtualThreadsIT {
+
+    @BeforeAll
+    static void assumeJava21() {
+        assumeTrue(Runtime.version().feature() >= 21);
+    }
+
+    @Test
+    void shouldSupportVirtualThreadsOnJava21() {
+        //when
+        boolean supported = CVurlConfig.isVirtualThreadsSupported();
+
+        //then
+        assertTrue(supported);
+    }
+
+    @Test
+    void shouldUseVirtualThreadsForHttpClientAndTasksInVirtualThreadMode() {
+        //given
+        var cVurlConfig = CVurlConfig.builder().virtualThreads(true).build();
+        var cVurl = new CVurl(cVurlConfig);
+        List<Callable<Boolean>> tasks = IntStream.range(0, 3)
+                .mapToObj(i -> (Callable<Boolean>) VirtualThreadsIT::isCurrentThreadVirtual)
+                .collect(Collectors.toList());
+
+        //when
+        List<Boolean> results = cVurl.runAll(tasks);
+
+        //then
+        assertTrue(cVurlConfig.isVirtualThreads());
+        assertTrue(cVurlConfig.getExecutor().isPresent());
+        assertEquals(List.of(true, true, true), results);
+    }
+
+    // the tests are compiled for Java 11, which has no Thread.isVirtual()
+    private static boolean isCurrentThreadVirtual() throws ReflectiveOperationException {
+        return (boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+    }
+}
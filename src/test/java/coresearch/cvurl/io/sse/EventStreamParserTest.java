@@ -0,0 +1,80 @@
+package coresearch.cvurl.io.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventStreamParserTest {
+
+    @Test
+    void shouldParseEventsWhenStreamIsSplitAtEveryByte() {
+        //given
+        var stream = "\uFEFF: comment\r\nevent: update\r\ndata: first\r\ndata:  second\r\nid: 42\r\n\r\n" +
+                "data: été\rretry: 10\r\r" +
+                "data\n\n";
+        var parser = new EventStreamParser();
+        var events = new ArrayList<ServerSentEvent<String>>();
+
+        //when
+        for (byte b : stream.getBytes(UTF_8)) {
+            parser.parse(ByteBuffer.wrap(new byte[]{b}), events::add);
+        }
+
+        //then
+        assertEquals(List.of(
+                new ServerSentEvent<>("42", "update", "first\n second"),
+                new ServerSentEvent<>("42", ServerSentEvent.DEFAULT_EVENT, "été"),
+                new ServerSentEvent<>("42", ServerSentEvent.DEFAULT_EVENT, "")), events);
+        assertEquals(10, parser.getRetry());
+    }
+
+    @Test
+    void shouldNotDispatchEventWhenItHasNoData() {
+        //given
+        var parser = new EventStreamParser();
+        var events = new ArrayList<ServerSentEvent<String>>();
+
+        //when
+        parser.parse(ByteBuffer.wrap("event: ping\nid: 7\n\ndata: pong\n\n".getBytes(UTF_8)), events::add);
+
+        //then
+        assertEquals(List.of(new ServerSentEvent<>("7", ServerSentEvent.DEFAULT_EVENT, "pong")), events);
+    }
+
+    @Test
+    void shouldIgnoreInvalidRetryAndIdWithNullCharacter() {
+        //given
+        var parser = new EventStreamParser();
+        var events = new ArrayList<ServerSentEvent<String>>();
+
+        //when
+        parser.parse(ByteBuffer.wrap("retry: 1s\nid: a\u0000b\ndata: x\n\n".getBytes(UTF_8)), events::add);
+
+        //then
+        assertEquals(-1, parser.getRetry());
+        assertEquals(List.of(new ServerSentEvent<>("", ServerSentEvent.DEFAULT_EVENT, "x")), events);
+    }
+
+    @Test
+    void shouldDiscardIncompleteEventAndKeepLastEventIdWhenParserIsReset() {
+        //given
+        var parser = new EventStreamParser();
+        var events = new ArrayList<ServerSentEvent<String>>();
+        parser.parse(ByteBuffer.wrap("id: 1\ndata: complete\n\nid: 2\ndata: incomplete\n".getBytes(UTF_8)), events::add);
+
+        //when
+        parser.reset();
+        parser.parse(ByteBuffer.wrap("data: next\n\n".getBytes(UTF_8)), events::add);
+
+        //then
+        assertEquals(List.of(
+                new ServerSentEvent<>("1", ServerSentEvent.DEFAULT_EVENT, "complete"),
+                new ServerSentEvent<>("2", ServerSentEvent.DEFAULT_EVENT, "next")), events);
+        assertEquals("2", parser.getLastEventId());
+    }
+}